@@ -0,0 +1,53 @@
+package com.tarumt.lms.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request database statistics and the slow-query log (replaces spring.jpa.show-sql).
+ *  - The "dataSource" bean is wrapped by {@link QueryStatistics}
+ *  - {@link QueryStatisticsInterceptor} turns each request's tally into db.request.* metrics
+ *    tagged by controller method, plus a summary line (INFO over the statement budget, DEBUG otherwise)
+ * Thresholds: db.slow-query-threshold-ms (0 disables the slow-query log), db.request-statement-budget
+ */
+@Configuration
+public class DatabaseMonitoringConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+
+    public DatabaseMonitoringConfig(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = environment.getProperty("db.request-statement-budget", Integer.class, 10);
+    }
+
+    /**
+     * Static so the post-processor is registered before (and without instantiating) this configuration
+     */
+    @Bean
+    public static BeanPostProcessor queryStatisticsDataSourcePostProcessor(Environment environment) {
+        long slowQueryThresholdMs = environment.getProperty("db.slow-query-threshold-ms", Long.class, 500L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the application-facing DataSource: wrapping pools underneath it would count twice
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return QueryStatistics.wrap(dataSource, slowQueryThresholdMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryStatisticsInterceptor(meterRegistry, statementBudget));
+    }
+}
@@ -0,0 +1,468 @@
+package com.tarumt.lms.config;
+
+import lombok.experimental.Delegate;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC instrumentation behind {@link DatabaseMonitoringConfig}.
+ * The DataSource is wrapped in delegating classes down to the ResultSet so that, on a thread with
+ * an open {@link Tally} (one per HTTP request), statements executed, time spent in JDBC calls and
+ * rows fetched are counted. Only statement creation, execute* and next() are intercepted; every
+ * other JDBC call is a plain delegating method. Independently, any statement slower than the
+ * threshold is logged with its SQL (no bind values) on every thread, schedulers included.
+ * While a tally is open its figures are kept in the MDC (db.statements, db.time_ms, db.rows), so
+ * anything logged during the request shows the database work done so far.
+ */
+@Slf4j
+public final class QueryStatistics {
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    private QueryStatistics() {
+    }
+
+    /**
+     * Start counting on this thread and put the (zero) figures in the MDC; pair with {@link #end()}
+     */
+    public static void begin() {
+        Tally tally = new Tally();
+        CURRENT.set(tally);
+        tally.publish();
+    }
+
+    /**
+     * Stop counting on this thread and return what was counted, or null if nothing was open.
+     * The final figures stay in the MDC for a closing log line; {@link #clearMdc()} removes them.
+     */
+    public static Tally end() {
+        Tally tally = CURRENT.get();
+        CURRENT.remove();
+        if (tally != null) {
+            tally.publish();
+        }
+        return tally;
+    }
+
+    public static void clearMdc() {
+        MDC.remove("db.statements");
+        MDC.remove("db.time_ms");
+        MDC.remove("db.rows");
+    }
+
+    public static DataSource wrap(DataSource target, long slowQueryThresholdMs) {
+        long slowQueryThresholdNanos = slowQueryThresholdMs > 0 ? slowQueryThresholdMs * 1_000_000 : Long.MAX_VALUE;
+        return new TimedDataSource(target, slowQueryThresholdNanos);
+    }
+
+    /**
+     * Runs one execute* call: counts it on the open tally and logs it when slow
+     */
+    private static <T> T time(String sql, long slowQueryThresholdNanos, JdbcCall<T> call) throws SQLException {
+        long start = System.nanoTime();
+        T result = call.run();
+        long elapsed = System.nanoTime() - start;
+
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.statements++;
+            tally.nanos += elapsed;
+            tally.publish();
+        }
+        if (elapsed >= slowQueryThresholdNanos) {
+            log.warn("Slow query ({} ms): {}", elapsed / 1_000_000, sql);
+        }
+        return result;
+    }
+
+    private static ResultSet counted(ResultSet target) {
+        return target == null || CURRENT.get() == null ? target : new CountedResultSet(target);
+    }
+
+    @FunctionalInterface
+    private interface JdbcCall<T> {
+        T run() throws SQLException;
+    }
+
+    private interface ConnectionFactory {
+        Connection getConnection() throws SQLException;
+
+        Connection getConnection(String username, String password) throws SQLException;
+    }
+
+    private interface StatementFactory {
+        Statement createStatement() throws SQLException;
+
+        Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException;
+
+        Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException;
+
+        PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException;
+
+        CallableStatement prepareCall(String sql) throws SQLException;
+
+        CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException;
+
+        CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException;
+    }
+
+    private interface StatementExecution {
+        boolean execute(String sql) throws SQLException;
+
+        boolean execute(String sql, int autoGeneratedKeys) throws SQLException;
+
+        boolean execute(String sql, int[] columnIndexes) throws SQLException;
+
+        boolean execute(String sql, String[] columnNames) throws SQLException;
+
+        ResultSet executeQuery(String sql) throws SQLException;
+
+        int executeUpdate(String sql) throws SQLException;
+
+        int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException;
+
+        int executeUpdate(String sql, int[] columnIndexes) throws SQLException;
+
+        int executeUpdate(String sql, String[] columnNames) throws SQLException;
+
+        long executeLargeUpdate(String sql) throws SQLException;
+
+        long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException;
+
+        long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException;
+
+        long executeLargeUpdate(String sql, String[] columnNames) throws SQLException;
+
+        int[] executeBatch() throws SQLException;
+
+        long[] executeLargeBatch() throws SQLException;
+
+        ResultSet getResultSet() throws SQLException;
+    }
+
+    private interface PreparedExecution {
+        boolean execute() throws SQLException;
+
+        ResultSet executeQuery() throws SQLException;
+
+        int executeUpdate() throws SQLException;
+
+        long executeLargeUpdate() throws SQLException;
+    }
+
+    private interface Cursor {
+        boolean next() throws SQLException;
+    }
+
+    private static final class TimedDataSource implements DataSource {
+        @Delegate(types = DataSource.class, excludes = ConnectionFactory.class)
+        private final DataSource target;
+        private final long slowQueryThresholdNanos;
+
+        private TimedDataSource(DataSource target, long slowQueryThresholdNanos) {
+            this.target = target;
+            this.slowQueryThresholdNanos = slowQueryThresholdNanos;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return new TimedConnection(target.getConnection(), slowQueryThresholdNanos);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return new TimedConnection(target.getConnection(username, password), slowQueryThresholdNanos);
+        }
+    }
+
+    private static final class TimedConnection implements Connection {
+        @Delegate(types = Connection.class, excludes = StatementFactory.class)
+        private final Connection target;
+        private final long slowQueryThresholdNanos;
+
+        private TimedConnection(Connection target, long slowQueryThresholdNanos) {
+            this.target = target;
+            this.slowQueryThresholdNanos = slowQueryThresholdNanos;
+        }
+
+        @Override
+        public Statement createStatement() throws SQLException {
+            return new TimedStatement(target.createStatement(), slowQueryThresholdNanos);
+        }
+
+        @Override
+        public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+            return new TimedStatement(target.createStatement(resultSetType, resultSetConcurrency), slowQueryThresholdNanos);
+        }
+
+        @Override
+        public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+            return new TimedStatement(target.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability),
+                    slowQueryThresholdNanos);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql) throws SQLException {
+            return new TimedPreparedStatement(target.prepareStatement(sql), sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+            return new TimedPreparedStatement(target.prepareStatement(sql, autoGeneratedKeys), sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+            return new TimedPreparedStatement(target.prepareStatement(sql, columnIndexes), sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+            return new TimedPreparedStatement(target.prepareStatement(sql, columnNames), sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+            return new TimedPreparedStatement(target.prepareStatement(sql, resultSetType, resultSetConcurrency),
+                    sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+                                                  int resultSetHoldability) throws SQLException {
+            return new TimedPreparedStatement(target.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+                    sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public CallableStatement prepareCall(String sql) throws SQLException {
+            return new TimedCallableStatement(target.prepareCall(sql), sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+            return new TimedCallableStatement(target.prepareCall(sql, resultSetType, resultSetConcurrency),
+                    sql, slowQueryThresholdNanos);
+        }
+
+        @Override
+        public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency,
+                                             int resultSetHoldability) throws SQLException {
+            return new TimedCallableStatement(target.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability),
+                    sql, slowQueryThresholdNanos);
+        }
+    }
+
+    private static class TimedStatement implements Statement {
+        @Delegate(types = Statement.class, excludes = StatementExecution.class)
+        private final Statement target;
+        // Statement.execute*(sql) carries its SQL; prepared statements are given theirs up front
+        protected final String preparedSql;
+        protected final long slowQueryThresholdNanos;
+
+        private TimedStatement(Statement target, long slowQueryThresholdNanos) {
+            this(target, null, slowQueryThresholdNanos);
+        }
+
+        protected TimedStatement(Statement target, String preparedSql, long slowQueryThresholdNanos) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.slowQueryThresholdNanos = slowQueryThresholdNanos;
+        }
+
+        @Override
+        public boolean execute(String sql) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.execute(sql));
+        }
+
+        @Override
+        public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.execute(sql, autoGeneratedKeys));
+        }
+
+        @Override
+        public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.execute(sql, columnIndexes));
+        }
+
+        @Override
+        public boolean execute(String sql, String[] columnNames) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.execute(sql, columnNames));
+        }
+
+        @Override
+        public ResultSet executeQuery(String sql) throws SQLException {
+            return counted(time(sql, slowQueryThresholdNanos, () -> target.executeQuery(sql)));
+        }
+
+        @Override
+        public int executeUpdate(String sql) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeUpdate(sql));
+        }
+
+        @Override
+        public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeUpdate(sql, autoGeneratedKeys));
+        }
+
+        @Override
+        public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeUpdate(sql, columnIndexes));
+        }
+
+        @Override
+        public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeUpdate(sql, columnNames));
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeLargeUpdate(sql));
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeLargeUpdate(sql, autoGeneratedKeys));
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeLargeUpdate(sql, columnIndexes));
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+            return time(sql, slowQueryThresholdNanos, () -> target.executeLargeUpdate(sql, columnNames));
+        }
+
+        @Override
+        public int[] executeBatch() throws SQLException {
+            return time(preparedSql, slowQueryThresholdNanos, target::executeBatch);
+        }
+
+        @Override
+        public long[] executeLargeBatch() throws SQLException {
+            return time(preparedSql, slowQueryThresholdNanos, target::executeLargeBatch);
+        }
+
+        @Override
+        public ResultSet getResultSet() throws SQLException {
+            return counted(target.getResultSet());
+        }
+    }
+
+    private static class TimedPreparedStatement extends TimedStatement implements PreparedStatement {
+        @Delegate(types = PreparedStatement.class, excludes = {Statement.class, PreparedExecution.class})
+        private final PreparedStatement prepared;
+
+        private TimedPreparedStatement(PreparedStatement target, String sql, long slowQueryThresholdNanos) {
+            super(target, sql, slowQueryThresholdNanos);
+            this.prepared = target;
+        }
+
+        @Override
+        public boolean execute() throws SQLException {
+            return time(preparedSql, slowQueryThresholdNanos, prepared::execute);
+        }
+
+        @Override
+        public ResultSet executeQuery() throws SQLException {
+            return counted(time(preparedSql, slowQueryThresholdNanos, prepared::executeQuery));
+        }
+
+        @Override
+        public int executeUpdate() throws SQLException {
+            return time(preparedSql, slowQueryThresholdNanos, prepared::executeUpdate);
+        }
+
+        @Override
+        public long executeLargeUpdate() throws SQLException {
+            return time(preparedSql, slowQueryThresholdNanos, prepared::executeLargeUpdate);
+        }
+    }
+
+    private static final class TimedCallableStatement extends TimedPreparedStatement implements CallableStatement {
+        @Delegate(types = CallableStatement.class, excludes = PreparedStatement.class)
+        private final CallableStatement callable;
+
+        private TimedCallableStatement(CallableStatement target, String sql, long slowQueryThresholdNanos) {
+            super(target, sql, slowQueryThresholdNanos);
+            this.callable = target;
+        }
+    }
+
+    /**
+     * Only created while a tally is open, so result sets read outside a request cost nothing extra
+     */
+    private static final class CountedResultSet implements ResultSet {
+        @Delegate(types = ResultSet.class, excludes = Cursor.class)
+        private final ResultSet target;
+
+        private CountedResultSet(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            Tally tally = CURRENT.get();
+            if (tally == null) {
+                return target.next();
+            }
+            // Fetching beyond the first batch is a round trip too, so next() counts towards JDBC time
+            long start = System.nanoTime();
+            boolean hasRow = target.next();
+            tally.nanos += System.nanoTime() - start;
+            if (hasRow) {
+                tally.rows++;
+            }
+            return hasRow;
+        }
+    }
+
+    /**
+     * JDBC work done on one thread between {@link #begin()} and {@link #end()}
+     */
+    public static class Tally {
+        private int statements;
+        private long nanos;
+        private long rows;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        // Refreshed per statement rather than per row; rows fetched since the last statement show up with the next one
+        private void publish() {
+            MDC.put("db.statements", String.valueOf(statements));
+            MDC.put("db.time_ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos)));
+            MDC.put("db.rows", String.valueOf(rows));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tarumt.lms.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a {@link QueryStatistics} tally for each controller call and, when the request completes,
+ * records it as metrics tagged by controller method and logs a one-line summary: at INFO when the
+ * request ran more statements than db.request-statement-budget, at DEBUG otherwise.
+ * The handler name ("handler") and the running figures (db.statements, db.time_ms, db.rows) sit in
+ * the MDC for the whole request, so slow-query warnings and anything else logged by the endpoint
+ * can be traced back to it; all of them are removed in afterCompletion.
+ */
+@Slf4j
+public class QueryStatisticsInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+
+    public QueryStatisticsInterceptor(MeterRegistry meterRegistry, int statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            MDC.put("handler", handlerName((HandlerMethod) handler));
+            QueryStatistics.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryStatistics.Tally tally = QueryStatistics.end();
+        if (tally == null) {
+            return;
+        }
+        String handlerName = MDC.get("handler");
+        try {
+            DistributionSummary.builder("db.request.statements")
+                    .description("JDBC statements executed per request")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry)
+                    .record(tally.getStatements());
+            DistributionSummary.builder("db.request.rows")
+                    .description("Rows fetched per request")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry)
+                    .record(tally.getRows());
+            Timer.builder("db.request.time")
+                    .description("Time spent in JDBC calls per request")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry)
+                    .record(tally.getNanos(), TimeUnit.NANOSECONDS);
+
+            long jdbcMillis = TimeUnit.NANOSECONDS.toMillis(tally.getNanos());
+            if (tally.getStatements() > statementBudget) {
+                log.info("{} {} -> {} [{}]: {} statements, {} ms in JDBC, {} rows (over the budget of {} statements)",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), handlerName,
+                        tally.getStatements(), jdbcMillis, tally.getRows(), statementBudget);
+            } else {
+                log.debug("{} {} -> {} [{}]: {} statements, {} ms in JDBC, {} rows",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), handlerName,
+                        tally.getStatements(), jdbcMillis, tally.getRows());
+            }
+        } finally {
+            QueryStatistics.clearMdc();
+            MDC.remove("handler");
+        }
+    }
+
+    private static String handlerName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
@@ -0,0 +1,86 @@
+package com.tarumt.lms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-replica routing, active only when db.replica.urls is set (otherwise Boot's single pool is used)
+ * The application-facing "dataSource" is a LazyConnectionDataSourceProxy: the physical connection is
+ * only taken once the transaction is set up, so read-only transactions (@Transactional(readOnly = true)
+ * and Spring Data's query methods) get a connection from {@link ReplicaRoutingDataSource} and
+ * everything else from the primary pool. Replicas use the primary's credentials and are bound to the same
+ * spring.datasource.hikari settings, with db.replica.* overriding pool size and connection timeout.
+ */
+@Configuration
+@ConditionalOnExpression("!'${db.replica.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${db.replica.urls}") List<String> urls,
+            @Value("${db.replica.max-pool-size:10}") int maxPoolSize,
+            @Value("${db.replica.connection-timeout-ms:1000}") long connectionTimeoutMs,
+            @Value("${db.replica.max-lag-ms:5000}") long maxLagMs,
+            @Value("${db.replica.read-after-write-window-ms:2000}") long readAfterWriteWindowMs) {
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            replicas.add(replicaPool(properties, binder, url.trim(), "replica-" + (replicas.size() + 1),
+                    maxPoolSize, connectionTimeoutMs));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagMs, readAfterWriteWindowMs);
+    }
+
+    static HikariDataSource replicaPool(DataSourceProperties properties, Binder binder, String url, String poolName,
+                                        int maxPoolSize, long connectionTimeoutMs) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        // Same binding as the primary's @ConfigurationProperties, so a hikari jdbc-url or pool-name is overridden below
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setJdbcUrl(url);
+        replica.setPoolName(poolName);
+        replica.setMaximumPoolSize(maxPoolSize);
+        // A dead replica must not block requests for long, nor stop the application from starting
+        replica.setConnectionTimeout(connectionTimeoutMs);
+        replica.setInitializationFailTimeout(-1);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaDataSource, HikariDataSource primaryDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaDataSource.writeTrackingPrimary());
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        // Given up front, the proxy never borrows a primary connection just to read them, which would
+        // open a read-after-write window on whichever thread got there first (Postgres default isolation)
+        dataSource.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
@@ -0,0 +1,197 @@
+package com.tarumt.lms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Read-only side of the routing set up in {@link ReadReplicaConfig}: hands out connections from a
+ * healthy replica (round-robin), or from the primary when no replica qualifies.
+ * Staleness policy:
+ *  - a replica lagging more than maxLagMs behind the primary is skipped until it catches up
+ *  - a thread that used the primary for writing within readAfterWriteWindowMs keeps reading from
+ *    the primary, so a request sees its own writes
+ *  - work wrapped in {@link #readFromPrimary} never reads from a replica (checks that must not act
+ *    on stale rows, or whose results are cached)
+ * Replica health (reachable + replay lag) is refreshed by {@link #checkHealth()} on a schedule.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, Closeable {
+
+    // Lag in ms; 0 when replay has caught up (or the node is not in recovery at all)
+    private static final String LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END
+            """;
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMs;
+    private final long readAfterWriteWindowNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<Long> lastPrimaryWrite = new ThreadLocal<>();
+
+    private volatile Counter routedToReplica;
+    private volatile Counter routedToPrimary;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+                                    long maxLagMs, long readAfterWriteWindowMs) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.maxLagMs = maxLagMs;
+        this.readAfterWriteWindowNanos = readAfterWriteWindowMs * 1_000_000;
+        checkHealth();
+    }
+
+    /**
+     * Run work whose read-only transactions must be served by the primary, without opening a
+     * read-after-write window for the rest of the request. Only affects connections taken inside it,
+     * so it must wrap the transaction rather than run within one; a no-op without replicas.
+     */
+    public static <T> T readFromPrimary(Supplier<T> work) {
+        boolean outermost = PRIMARY_READS.get() == null;
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (outermost) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    /**
+     * The primary as seen by read-write work: connections taken from it start this thread's
+     * read-after-write window
+     */
+    public DataSource writeTrackingPrimary() {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                lastPrimaryWrite.set(System.nanoTime());
+                return super.getConnection();
+            }
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = pickReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.pool.getConnection();
+                count(routedToReplica);
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                // Hikari reports a pool that cannot start as PoolInitializationException (unchecked)
+                log.warn("Replica {} unavailable, reading from primary: {}", replica.pool.getPoolName(), e.getMessage());
+                replica.healthy = false;
+            }
+        }
+        count(routedToPrimary);
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Replica pools only hold the configured credentials, so other users read from the primary
+        count(routedToPrimary);
+        return primary.getConnection(username, password);
+    }
+
+    private Replica pickReplica() {
+        if (PRIMARY_READS.get() != null) {
+            return null;
+        }
+        Long lastWrite = lastPrimaryWrite.get();
+        if (lastWrite != null && System.nanoTime() - lastWrite < readAfterWriteWindowNanos) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.healthy && candidate.lagMs <= maxLagMs) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${db.replica.health-check-interval-ms:5000}",
+            initialDelayString = "${db.replica.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                replica.lagMs = rs.getLong(1);
+                if (!replica.healthy && replica.checked) {
+                    log.info("Replica {} is back (lag {} ms)", replica.pool.getPoolName(), replica.lagMs);
+                }
+                replica.healthy = true;
+            } catch (SQLException | RuntimeException e) {
+                if (replica.healthy || !replica.checked) {
+                    log.warn("Replica {} failed its health check: {}", replica.pool.getPoolName(), e.getMessage());
+                }
+                replica.healthy = false;
+            }
+            replica.checked = true;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        routedToReplica = Counter.builder("db.replica.routed").tag("target", "replica")
+                .description("Read-only connections by where they were served from").register(registry);
+        routedToPrimary = Counter.builder("db.replica.routed").tag("target", "primary")
+                .description("Read-only connections by where they were served from").register(registry);
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMs)
+                    .tag("replica", replica.pool.getPoolName()).baseUnit("milliseconds").register(registry);
+            Gauge.builder("db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.pool.getPoolName()).register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static void count(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile long lagMs;
+        private volatile boolean checked;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+}
@@ -1,25 +1,108 @@
 package com.tarumt.lms.config;
 
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
- * Configuration for RestTemplate bean
- * Required for AIChatService to make HTTP requests to LLM APIs
+ * Configuration for outbound RestTemplate beans
+ * Each destination gets its own pooled, keep-alive connection manager with explicit timeouts:
+ *  - restTemplate (primary): LLM API calls from AIChatService
+ *  - storageRestTemplate: Supabase Storage calls from SupabaseStorageBackend
+ * Requests are recorded as http.client.requests (tagged by host) through the Boot-managed
+ * RestTemplateBuilder; pool usage is exported as httpcomponents.httpclient.pool.*
  */
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${http.client.idle-evict-seconds:30}")
+    private int idleEvictSeconds;
+
+    @Value("${http.client.pool-acquire-timeout-ms:5000}")
+    private int poolAcquireTimeoutMs;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager llmConnectionManager(
+            @Value("${http.client.llm.max-connections:10}") int maxConnections,
+            @Value("${http.client.llm.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${http.client.llm.read-timeout-ms:30000}") int readTimeoutMs) {
+        return connectionManager(maxConnections, connectTimeoutMs, readTimeoutMs);
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager storageConnectionManager(
+            @Value("${http.client.storage.max-connections:20}") int maxConnections,
+            @Value("${http.client.storage.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${http.client.storage.read-timeout-ms:60000}") int readTimeoutMs) {
+        return connectionManager(maxConnections, connectTimeoutMs, readTimeoutMs);
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000); // 5 seconds
-        factory.setReadTimeout(30000); // 30 seconds (LLM responses can take time)
+    @Primary
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Qualifier("llmConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return pooledRestTemplate(builder, connectionManager);
+    }
 
-        RestTemplate restTemplate = new RestTemplate(factory);
-        return restTemplate;
+    @Bean
+    public RestTemplate storageRestTemplate(RestTemplateBuilder builder,
+                                            @Qualifier("storageConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return pooledRestTemplate(builder, connectionManager);
+    }
+
+    @Bean
+    public MeterBinder llmConnectionPoolMetrics(@Qualifier("llmConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "llm", Tags.empty());
+    }
+
+    @Bean
+    public MeterBinder storageConnectionPoolMetrics(@Qualifier("storageConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "storage", Tags.empty());
     }
-}
 
+    private PoolingHttpClientConnectionManager connectionManager(int maxConnections, int connectTimeoutMs, int readTimeoutMs) {
+        // Each pool talks to a single host, so the per-route limit is the pool limit
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Re-check connections the server may have closed while idle
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    private RestTemplate pooledRestTemplate(RestTemplateBuilder builder, PoolingHttpClientConnectionManager connectionManager) {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true) // lifecycle owned by the connection manager bean
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolAcquireTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(idleEvictSeconds))
+                .build();
+
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+}
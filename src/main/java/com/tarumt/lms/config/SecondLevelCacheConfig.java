@@ -0,0 +1,49 @@
+package com.tarumt.lms.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.TypesafeConfigurator;
+import com.typesafe.config.Config;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+/**
+ * Metrics for the Hibernate second-level cache (regions are defined in hibernate-cache.conf).
+ * Every region is exported through Micrometer's JCache binder as cache.gets{result=hit|miss},
+ * cache.puts and cache.removals, tagged with the region name as "cache".
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            CacheManager cacheManager = cacheManagerOf(entityManagerFactory);
+            if (cacheManager == null) {
+                return;
+            }
+            // Query-result regions are only built on first use, so bind every region the config declares
+            // (getCache creates a declared region on demand; Hibernate later receives the same instance)
+            Config config = TypesafeConfigurator.configSource().get(cacheManager.getURI(), cacheManager.getClassLoader());
+            for (String region : TypesafeConfigurator.cacheNames(config)) {
+                Cache<Object, Object> cache = cacheManager.getCache(region);
+                JCacheMetrics.monitor(registry, cache, Tags.empty());
+            }
+        };
+    }
+
+    private static CacheManager cacheManagerOf(EntityManagerFactory entityManagerFactory) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(RegionFactory.class);
+        return regionFactory instanceof JCacheRegionFactory jcache ? jcache.getCacheManager() : null;
+    }
+}
@@ -1,10 +1,13 @@
 package com.tarumt.lms.controller;
 
 import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.dto.CourseAdminViewDTO;
+import com.tarumt.lms.dto.CourseStatusChangeLogViewDTO;
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.model.Admin;
-import com.tarumt.lms.model.Course;
 import com.tarumt.lms.service.AdminCourseManagementService;
 import com.tarumt.lms.service.user.AdminService;
+import com.tarumt.lms.utility.CursorUtils;
 import com.tarumt.lms.utility.TokenVerifierUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,9 +36,11 @@ public class AdminCourseManagementController {
     public ResponseEntity<ApiResponse<?>> getAllCourses(
             @RequestHeader("Authorization") String authorizationHeader,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
 
-        log.info("Admin request: Fetch courses (status={}, search={})", status, search);
+        log.info("Admin request: Fetch courses (status={}, search={}, cursor={}, limit={})", status, search, cursor, limit);
 
         try {
             // Validate token and extract claims
@@ -52,10 +57,15 @@ public class AdminCourseManagementController {
                         .body(new ApiResponse<>(false, "Privileges required", null));
             }
 
-            List<Course> courses = adminCourseManagementService.getAllCourses(status, search);
-            log.info("Fetched {} courses (status={}, search={})", courses.size(), status, search);
+            CursorPageDTO<CourseAdminViewDTO> courses = adminCourseManagementService.getAllCourses(status, search, cursor, limit);
+            log.info("Fetched {} courses (status={}, search={}, hasMore={})",
+                    courses.getItems().size(), status, search, courses.isHasMore());
 
             return ResponseEntity.ok(new ApiResponse<>(true, "Courses fetched successfully", courses));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected course listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             log.error("Error fetching courses", e);
             return ResponseEntity.internalServerError()
@@ -159,7 +169,7 @@ public class AdminCourseManagementController {
                         .body(new ApiResponse<>(false, "Privileges required", null));
             }
 
-            List<Map<String, Object>> logs = adminCourseManagementService.getCourseStatusChangeLogs(courseId);
+            List<CourseStatusChangeLogViewDTO> logs = adminCourseManagementService.getCourseStatusChangeLogs(courseId);
             log.info("Fetched {} course status change logs", logs.size());
 
             return ResponseEntity.ok(new ApiResponse<>(true, "Course status change logs fetched successfully", logs));
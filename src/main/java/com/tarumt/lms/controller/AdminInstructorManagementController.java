@@ -1,12 +1,14 @@
 package com.tarumt.lms.controller;
 
 import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.dto.InstructorDetailViewDTO;
 import com.tarumt.lms.dto.InstructorListViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.enums.AccountStatus;
 import com.tarumt.lms.service.user.AdminInstructorManagementService;
 import com.tarumt.lms.service.user.AdminService;
+import com.tarumt.lms.utility.CursorUtils;
 import com.tarumt.lms.utility.TokenVerifierUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +16,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -34,9 +35,12 @@ public class AdminInstructorManagementController {
     public ResponseEntity<ApiResponse<?>> getAllInstructors(
             @RequestHeader("Authorization") String authorizationHeader,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
 
-        log.info("Received request for all instructors status={}, search={}", status, search);
+        log.info("Received request for all instructors status={}, search={}, cursor={}, limit={}", status, search, cursor, limit);
 
         try {
             Map<String, Object> claims = tokenVerifierUtils.validateTokenAndGetClaims(authorizationHeader, true);
@@ -55,12 +59,17 @@ public class AdminInstructorManagementController {
                         .body(new ApiResponse<>(false, "Admin privileges required", null));
             }
 
-            List<InstructorListViewDTO> instructors =
-                    adminInstructorManagementService.getAllInstructors(status, search);
+            CursorPageDTO<InstructorListViewDTO> instructors =
+                    adminInstructorManagementService.getAllInstructors(status, search, fuzzy, cursor, limit);
 
-            log.info("Successfully fetched {} instructors status={}, search={}", instructors.size(), status, search);
+            log.info("Successfully fetched {} instructors status={}, search={}, hasMore={}",
+                    instructors.getItems().size(), status, search, instructors.isHasMore());
             return ResponseEntity.ok(new ApiResponse<>(true, "Fetched successfully", instructors));
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected instructors listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             log.error("Error fetching instructors status={}, search={}", status, search, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
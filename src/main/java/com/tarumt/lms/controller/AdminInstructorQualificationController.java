@@ -1,18 +1,33 @@
 package com.tarumt.lms.controller;
 
 import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.dto.InstructorRequirementViewDTO;
+import com.tarumt.lms.dto.QualificationHistoryViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.enums.QualificationStatus;
+import com.tarumt.lms.service.storage.DocumentDiskCache;
 import com.tarumt.lms.service.user.AdminInstructorQualificationService;
 import com.tarumt.lms.service.user.AdminService;
+import com.tarumt.lms.utility.CursorUtils;
 import com.tarumt.lms.utility.TokenVerifierUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +42,12 @@ public class AdminInstructorQualificationController {
     @Autowired private AdminInstructorQualificationService adminInstructorQualificationService;
     @Autowired private TokenVerifierUtils tokenVerifierUtils;
 
+    // Tomcat request attributes that switch the response body to sendfile
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
     // ================================
     // GET All Instructor Requirements (Admin Table View - Basic Info Only)
     // ================================
@@ -34,9 +55,11 @@ public class AdminInstructorQualificationController {
     public ResponseEntity<ApiResponse<?>> getAllInstructorRequirements(
             @RequestHeader("Authorization") String authorizationHeader,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
 
-        log.info("Received request for all instructor requirements status={}, search={}", status, search);
+        log.info("Received request for all instructor requirements status={}, search={}, cursor={}, limit={}", status, search, cursor, limit);
 
         try {
             Map<String, Object> claims = tokenVerifierUtils.validateTokenAndGetClaims(authorizationHeader, true);
@@ -55,12 +78,17 @@ public class AdminInstructorQualificationController {
                         .body(new ApiResponse<>(false, "Admin privileges required", null));
             }
 
-            List<InstructorRequirementViewDTO> requirements =
-                    adminInstructorQualificationService.getAllInstructorRequirements(status, search);
+            CursorPageDTO<InstructorRequirementViewDTO> requirements =
+                    adminInstructorQualificationService.getAllInstructorRequirements(status, search, cursor, limit);
 
-            log.info("Successfully fetched {} instructor requirements status={}, search={}", requirements.size(), status, search);
+            log.info("Successfully fetched {} instructor requirements status={}, search={}, hasMore={}",
+                    requirements.getItems().size(), status, search, requirements.isHasMore());
             return ResponseEntity.ok(new ApiResponse<>(true, "Fetched successfully", requirements));
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected instructor requirements listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             log.error("Error fetching instructor requirements status={}, search={}", status, search, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -228,7 +256,7 @@ public class AdminInstructorQualificationController {
                         .body(new ApiResponse<>(false, "Admin privileges required", null));
             }
 
-            List<Map<String, Object>> history = adminInstructorQualificationService.getQualificationHistory();
+            List<QualificationHistoryViewDTO> history = adminInstructorQualificationService.getQualificationHistory();
 
             log.info("Successfully fetched {} qualification history records", history.size());
             return ResponseEntity.ok(new ApiResponse<>(true, "Qualification history fetched successfully", history));
@@ -240,5 +268,130 @@ public class AdminInstructorQualificationController {
         }
     }
 
-}
 
+    // ================================
+    // GET Qualification Document (Streams the stored file; supports Range and If-None-Match)
+    // ================================
+    @GetMapping("/requirements/{qualificationId}/document")
+    public ResponseEntity<?> getQualificationDocument(
+            @PathVariable Long qualificationId,
+            @RequestParam(defaultValue = "certificate") String variant,
+            @RequestHeader("Authorization") String authorizationHeader,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+
+        log.info("Received request for qualification document qualificationId={}, variant={}", qualificationId, variant);
+
+        try {
+            Map<String, Object> claims = tokenVerifierUtils.validateTokenAndGetClaims(authorizationHeader, true);
+            if (claims == null) {
+                log.warn("Unauthorized request for qualification document qualificationId={}", qualificationId);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse<>(false, "Invalid token", null));
+            }
+
+            String email = (String) claims.get("email");
+            Optional<Admin> adminOpt = adminService.getActiveByEmail(email);
+
+            if (adminOpt.isEmpty()) {
+                log.warn("Admin not found for email={} when fetching qualification document qualificationId={}", email, qualificationId);
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new ApiResponse<>(false, "Admin privileges required", null));
+            }
+
+            DocumentDiskCache.CachedDocument document =
+                    adminInstructorQualificationService.getDocument(qualificationId, variant);
+
+            // Content hash is a strong validator: unchanged bytes -> 304 with no body
+            String etag = "\"" + document.getSha256() + "\"";
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return null;
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag);
+            headers.setCacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePrivate());
+            headers.setContentType(MediaTypeFactory.getMediaType(document.getFilename())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM));
+            headers.setContentDisposition(ContentDisposition.inline().filename(document.getFilename()).build());
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+                ResponseEntity<?> sendfile = sendfile(document, etag, headers, request);
+                if (sendfile != null) {
+                    log.info("Serving qualification document qualificationId={}, variant={} via sendfile", qualificationId, variant);
+                    return sendfile;
+                }
+            }
+
+            // Multi-range requests or no sendfile: Spring writes the file (or its regions) itself
+            log.info("Serving qualification document qualificationId={}, variant={}", qualificationId, variant);
+            return ResponseEntity.ok().headers(headers).body(new FileSystemResource(document.getFile()));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid qualification document request qualificationId={}, variant={}: {}", qualificationId, variant, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("not found")) {
+                log.warn("Qualification document not available qualificationId={}, variant={}: {}", qualificationId, variant, e.getMessage());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, e.getMessage(), null));
+            }
+            log.error("Error fetching qualification document qualificationId={}, variant={}", qualificationId, variant, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Internal server error", null));
+        } catch (Exception e) {
+            log.error("Error fetching qualification document qualificationId={}, variant={}", qualificationId, variant, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Internal server error", null));
+        }
+    }
+
+    /**
+     * Hand the file to Tomcat's sendfile so the bytes go from the page cache to the socket
+     * without passing through the JVM heap. Handles a full response or a single byte range;
+     * returns null for multi-range requests, which are left to Spring.
+     */
+    private ResponseEntity<?> sendfile(DocumentDiskCache.CachedDocument document, String etag,
+                                       HttpHeaders headers, HttpServletRequest request) {
+        long size = document.getSize();
+        long start = 0;
+        long end = size;
+        HttpStatus status = HttpStatus.OK;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // A stale If-Range validator means the client's partial copy is outdated: send everything
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() > 1) {
+                return null;
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                if (size == 0 || range.getRangeStart(size) >= size) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                            .build();
+                }
+                start = range.getRangeStart(size);
+                end = range.getRangeEnd(size) + 1;
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+            }
+        }
+
+        request.setAttribute(SENDFILE_FILENAME_ATTR, document.getFile().toString());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_END_ATTR, end);
+        headers.setContentLength(end - start);
+        return ResponseEntity.status(status).headers(headers).build();
+    }
+
+}
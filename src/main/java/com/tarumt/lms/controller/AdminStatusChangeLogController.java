@@ -1,7 +1,7 @@
 package com.tarumt.lms.controller;
 
+import com.tarumt.lms.dto.AdminStatusChangeLogViewDTO;
 import com.tarumt.lms.dto.ApiResponse;
-import com.tarumt.lms.model.AdminStatusChangeLog;
 import com.tarumt.lms.model.SuperAdmin;
 import com.tarumt.lms.service.AdminStatusChangeLogService;
 import com.tarumt.lms.service.user.SuperAdminService;
@@ -10,10 +10,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -54,7 +52,6 @@ public class AdminStatusChangeLogController {
      * GET /api/superadmin/admin-status-change-logs?adminId=123 (get logs for specific admin)
      */
     @GetMapping
-    @Transactional(readOnly = true)
     public ResponseEntity<ApiResponse<?>> getAdminStatusChangeLogs(
             @RequestHeader("Authorization") String authorizationHeader,
             @RequestParam(required = false) Long adminId) {
@@ -69,7 +66,7 @@ public class AdminStatusChangeLogController {
                         .body(new ApiResponse<>(false, "SuperAdmin privileges required", null));
             }
 
-            List<AdminStatusChangeLog> logs;
+            List<AdminStatusChangeLogViewDTO> logs;
 
             // If adminId is provided, get logs for that specific admin
             if (adminId != null) {
@@ -79,27 +76,13 @@ public class AdminStatusChangeLogController {
                 logs = logService.getAllLogs();
             }
 
-            // Transform logs to response format
-            List<Map<String, Object>> logResponses = logs.stream()
-                    .map(log -> {
-                        Map<String, Object> logMap = new HashMap<>();
-                        logMap.put("logId", log.getLogId());
-                        logMap.put("adminId", log.getAdmin() != null ? log.getAdmin().getAdminId() : null);
-                        logMap.put("oldStatus", log.getOldStatus() != null ? log.getOldStatus().toString() : null);
-                        logMap.put("newStatus", log.getNewStatus() != null ? log.getNewStatus().toString() : null);
-                        logMap.put("changedBySuperAdminId", log.getChangedBySuperAdmin() != null ? log.getChangedBySuperAdmin().getSuperAdminId() : null);
-                        logMap.put("changedAt", log.getChangedAt());
-                        logMap.put("reason", log.getReason());
-                        return logMap;
-                    })
-                    .toList();
 
             if (adminId != null) {
-                log.info("Successfully fetched {} admin status change logs for adminId={}", logResponses.size(), adminId);
+                log.info("Successfully fetched {} admin status change logs for adminId={}", logs.size(), adminId);
             } else {
-                log.info("Successfully fetched {} admin status change logs (all admins)", logResponses.size());
+                log.info("Successfully fetched {} admin status change logs (all admins)", logs.size());
             }
-            return ResponseEntity.ok(new ApiResponse<>(true, "Admin status change logs fetched successfully", logResponses));
+            return ResponseEntity.ok(new ApiResponse<>(true, "Admin status change logs fetched successfully", logs));
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid request parameters: {}", e.getMessage());
@@ -117,7 +100,6 @@ public class AdminStatusChangeLogController {
      * GET /api/superadmin/admin-status-change-logs/admin/{adminId}
      */
     @GetMapping("/admin/{adminId}")
-    @Transactional(readOnly = true) // IMPORTANT: Keep session open during method execution
     public ResponseEntity<ApiResponse<?>> getAdminStatusChangeLogsByAdminId(
             @RequestHeader("Authorization") String authorizationHeader,
             @PathVariable Long adminId) {
@@ -132,25 +114,11 @@ public class AdminStatusChangeLogController {
                         .body(new ApiResponse<>(false, "SuperAdmin privileges required", null));
             }
 
-            List<AdminStatusChangeLog> logs = logService.getLogsByAdminId(adminId);
-
-            // Transform logs to response format
-            List<Map<String, Object>> logResponses = logs.stream()
-                    .map(log -> {
-                        Map<String, Object> logMap = new HashMap<>();
-                        logMap.put("logId", log.getLogId());
-                        logMap.put("adminId", log.getAdmin() != null ? log.getAdmin().getAdminId() : null);
-                        logMap.put("oldStatus", log.getOldStatus() != null ? log.getOldStatus().toString() : null);
-                        logMap.put("newStatus", log.getNewStatus() != null ? log.getNewStatus().toString() : null);
-                        logMap.put("changedBySuperAdminId", log.getChangedBySuperAdmin() != null ? log.getChangedBySuperAdmin().getSuperAdminId() : null);
-                        logMap.put("changedAt", log.getChangedAt());
-                        logMap.put("reason", log.getReason());
-                        return logMap;
-                    })
-                    .toList();
-
-            log.info("Successfully fetched {} admin status change logs for adminId={}", logResponses.size(), adminId);
-            return ResponseEntity.ok(new ApiResponse<>(true, "Admin status change logs fetched successfully", logResponses));
+            List<AdminStatusChangeLogViewDTO> logs = logService.getLogsByAdminId(adminId);
+
+
+            log.info("Successfully fetched {} admin status change logs for adminId={}", logs.size(), adminId);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Admin status change logs fetched successfully", logs));
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid request parameters: {}", e.getMessage());
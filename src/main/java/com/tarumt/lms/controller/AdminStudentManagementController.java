@@ -1,11 +1,14 @@
 package com.tarumt.lms.controller;
 
 import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.dto.CursorPageDTO;
+import com.tarumt.lms.dto.StudentListViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.Student;
 import com.tarumt.lms.model.enums.AccountStatus;
 import com.tarumt.lms.service.user.AdminService;
 import com.tarumt.lms.service.user.AdminStudentManagementService;
+import com.tarumt.lms.utility.CursorUtils;
 import com.tarumt.lms.utility.TokenVerifierUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +18,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -35,15 +37,18 @@ public class AdminStudentManagementController {
     private final TokenVerifierUtils tokenVerifierUtils;
 
     // =====================================================
-    // GET ALL STUDENTS (OPTIONAL STATUS FILTER & SEARCH)
+    // GET STUDENTS (OPTIONAL STATUS FILTER & SEARCH, CURSOR PAGINATED)
     // =====================================================
     @GetMapping
     public ResponseEntity<ApiResponse<?>> getAllStudents(
             @RequestHeader("Authorization") String authorizationHeader,
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
 
-        log.info("Admin request: Fetch students (status={}, search={})", status, search);
+        log.info("Admin request: Fetch students (status={}, search={}, cursor={}, limit={})", status, search, cursor, limit);
 
         try {
             // Validate token and extract claims
@@ -70,10 +75,16 @@ public class AdminStudentManagementController {
                 }
             }
 
-            List<Student> students = adminStudentManagementService.getAllStudents(filter, search);
-            log.info("Fetched {} students (status={}, search={})", students.size(), status, search);
+            CursorPageDTO<StudentListViewDTO> students =
+                    adminStudentManagementService.getStudents(filter, search, fuzzy, cursor, limit);
+            log.info("Fetched {} students (status={}, search={}, hasMore={})",
+                    students.getItems().size(), status, search, students.isHasMore());
 
             return ResponseEntity.ok(new ApiResponse<>(true, "Students fetched successfully", students));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected student listing request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
         } catch (Exception e) {
             log.error("Error fetching students", e);
             return ResponseEntity.internalServerError()
@@ -0,0 +1,195 @@
+package com.tarumt.lms.controller;
+
+import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.model.Instructor;
+import com.tarumt.lms.service.storage.ChunkedUploadService;
+import com.tarumt.lms.service.user.InstructorService;
+import com.tarumt.lms.utility.TokenVerifierUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resumable qualification document uploads (tus-style).
+ * 1. POST   /api/instructor/requirements/{id}/uploads              Upload-Length header, filename/contentType params
+ * 2. PATCH  /api/instructor/requirements/{id}/uploads/{uploadId}   Upload-Offset header, raw chunk as body
+ * 3. HEAD   /api/instructor/requirements/{id}/uploads/{uploadId}   current Upload-Offset, to resume after a drop
+ * 4. PUT    /api/instructor/requirements/{id} with qualificationUploadIds to attach the finished files
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/instructor/requirements/{id}/uploads")
+public class InstructorUploadController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private InstructorService instructorService;
+
+    @Autowired
+    private TokenVerifierUtils tokenVerifierUtils;
+
+
+    // ================================
+    // CREATE Upload
+    // ================================
+    @PostMapping
+    public ResponseEntity<ApiResponse<?>> createUpload(
+            @PathVariable Long id,
+            @RequestHeader(UPLOAD_LENGTH) long length,
+            @RequestParam(required = false) String filename,
+            @RequestParam(defaultValue = "application/pdf") String contentType,
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
+
+        try {
+            ResponseEntity<ApiResponse<?>> authResponse = authorize(id, authorizationHeader);
+            if (authResponse != null) return authResponse;
+
+            ChunkedUploadService.Upload upload = chunkedUploadService.create(id, length, filename, contentType);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Location", "/api/instructor/requirements/" + id + "/uploads/" + upload.getUploadId())
+                    .header(UPLOAD_OFFSET, "0")
+                    .body(new ApiResponse<>(true, "Upload created", Map.of(
+                            "uploadId", upload.getUploadId(),
+                            "offset", 0,
+                            "length", upload.getLength())));
+
+        } catch (RuntimeException e) {
+            log.warn("Failed to create upload for instructorId={}, error={}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Unexpected error while creating upload for instructorId={}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Internal server error", null));
+        }
+    }
+
+
+    // ================================
+    // APPEND Chunk
+    // ================================
+    @PatchMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<?>> appendChunk(
+            @PathVariable Long id,
+            @PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+            HttpServletRequest request) {
+
+        try {
+            ResponseEntity<ApiResponse<?>> authResponse = authorize(id, authorizationHeader);
+            if (authResponse != null) return authResponse;
+
+            // The body is read from the servlet stream directly so the chunk is never buffered
+            long newOffset = chunkedUploadService.append(uploadId, id, offset, request.getInputStream());
+            ChunkedUploadService.Upload upload = chunkedUploadService.get(uploadId, id);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                    .body(new ApiResponse<>(true, upload.isComplete() ? "Upload complete" : "Chunk stored", Map.of(
+                            "uploadId", uploadId,
+                            "offset", newOffset,
+                            "length", upload.getLength(),
+                            "complete", upload.isComplete())));
+
+        } catch (IllegalStateException e) {
+            // Offset mismatch or concurrent chunk: client should HEAD and resume from the returned offset
+            log.warn("Rejected chunk for uploadId={}: {}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (RuntimeException e) {
+            log.warn("Failed to store chunk for uploadId={}, error={}", uploadId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Unexpected error while storing chunk for uploadId={}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Internal server error", null));
+        }
+    }
+
+
+    // ================================
+    // GET Upload Offset
+    // ================================
+    @RequestMapping(value = "/{uploadId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getOffset(
+            @PathVariable Long id,
+            @PathVariable String uploadId,
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
+
+        try {
+            if (authorize(id, authorizationHeader) != null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            ChunkedUploadService.Upload upload = chunkedUploadService.get(uploadId, id);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(upload.getOffset()))
+                    .header(UPLOAD_LENGTH, String.valueOf(upload.getLength()))
+                    .header("Cache-Control", "no-store")
+                    .build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (Exception e) {
+            log.error("Unexpected error while reading upload offset for uploadId={}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+
+    // ================================
+    // CANCEL Upload
+    // ================================
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<?>> cancelUpload(
+            @PathVariable Long id,
+            @PathVariable String uploadId,
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
+
+        try {
+            ResponseEntity<ApiResponse<?>> authResponse = authorize(id, authorizationHeader);
+            if (authResponse != null) return authResponse;
+
+            chunkedUploadService.get(uploadId, id);
+            chunkedUploadService.delete(uploadId);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Upload cancelled", null));
+
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Unexpected error while cancelling uploadId={}", uploadId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Internal server error", null));
+        }
+    }
+
+
+    // Same checks as the requirement submission endpoint: valid token for this instructor's email
+    private ResponseEntity<ApiResponse<?>> authorize(Long id, String authorizationHeader) {
+        Map<String, Object> claims = tokenVerifierUtils.validateTokenAndGetClaims(authorizationHeader, false);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse<>(false, "Unauthorized", null));
+        }
+
+        Optional<Instructor> instructorOpt = instructorService.getActiveOrPendingById(id);
+        if (instructorOpt.isEmpty()) {
+            log.warn("Instructor not found for id={}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, "Instructor not found", null));
+        }
+
+        return tokenVerifierUtils.authorizeEmail(claims, instructorOpt.get().getEmail(), false);
+    }
+}
@@ -1,9 +1,11 @@
 package com.tarumt.lms.controller;
 
 import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.dto.EnrollmentProgressDTO;
 import com.tarumt.lms.dto.StudentProfileUpdateDTO;
 import com.tarumt.lms.model.Student;
 import com.tarumt.lms.security.JwtUtils;
+import com.tarumt.lms.service.EnrollmentService;
 import com.tarumt.lms.service.user.StudentService;
 import com.tarumt.lms.utility.TokenVerifierUtils;
 import jakarta.validation.Valid;
@@ -24,6 +26,9 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private EnrollmentService enrollmentService;
+
     @Autowired
     private JwtUtils jwtUtils;
 
@@ -139,4 +144,59 @@ public class StudentController {
                     .body(new ApiResponse<>(false, "Internal server error", null));
         }
     }
-}
\ No newline at end of file
+
+
+    // ================================
+    // RECORD Course Progress
+    // ================================
+    // High-frequency ping from the course player: buffered and written in batches, hence 202
+    @PostMapping("/{studentId}/courses/{courseId}/progress")
+    public ResponseEntity<ApiResponse<?>> recordCourseProgress(
+            @PathVariable Long studentId,
+            @PathVariable Long courseId,
+            @Valid @RequestBody EnrollmentProgressDTO dto,
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        try {
+            // Validate token and get claims
+            Map<String, Object> claims = tokenVerifierUtils.validateTokenAndGetClaims(authorizationHeader, false);
+            if (claims == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse<>(false, "Unauthorized", null));
+            }
+
+            // Fetch student
+            Optional<Student> studentOpt = studentService.getActiveStudentById(studentId);
+            if (studentOpt.isEmpty()) {
+                log.warn("Student not found studentId={}", studentId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Student not found", null));
+            }
+
+            // Authorize email
+            ResponseEntity<ApiResponse<?>> authResponse = tokenVerifierUtils.authorizeEmail(claims, studentOpt.get().getEmail(), false);
+            if (authResponse != null) return authResponse;
+
+            // Usually answered by the membership index; a buffered ping for a missing row would be silently lost
+            if (!enrollmentService.isEnrolled(studentId, courseId)) {
+                log.warn("Enrollment not found studentId={}, courseId={}", studentId, courseId);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Enrollment not found", null));
+            }
+
+            enrollmentService.recordProgress(studentId, courseId, dto.getProgress());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new ApiResponse<>(true, "Progress recorded", null));
+
+        } catch (RuntimeException e) {
+            log.error("Error recording progress studentId={}, courseId={}", studentId, courseId, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Unexpected error recording progress studentId={}, courseId={}", studentId, courseId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Internal server error", null));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.tarumt.lms.controller.superadmin;
 
+import com.tarumt.lms.dto.AdminListViewDTO;
 import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.SuperAdmin;
 import com.tarumt.lms.model.enums.AccountStatus;
@@ -11,6 +13,7 @@ import com.tarumt.lms.service.user.AdminService;
 import com.tarumt.lms.service.user.InstructorService;
 import com.tarumt.lms.service.user.StudentService;
 import com.tarumt.lms.service.user.SuperAdminService;
+import com.tarumt.lms.utility.CursorUtils;
 import com.tarumt.lms.utility.TokenVerifierUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -125,14 +128,16 @@ public class SuperAdminAdminManagementController {
 
 
     // =====================================================
-    // GET ALL ADMINS (OPTIONAL STATUS FILTER)
+    // GET ALL ADMINS (OPTIONAL STATUS FILTER & FUZZY SEARCH)
     // =====================================================
     @GetMapping
     public ResponseEntity<ApiResponse<?>> getAllAdmins(
             @RequestHeader("Authorization") String authorizationHeader,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "" + CursorUtils.DEFAULT_LIMIT) int limit) {
 
-        log.info("SuperAdmin request: Fetch admins (status={})", status);
+        log.info("SuperAdmin request: Fetch admins (status={}, search={})", status, search);
 
         try {
             Optional<SuperAdmin> superAdminOpt = validateSuperAdmin(authorizationHeader);
@@ -152,6 +157,13 @@ public class SuperAdminAdminManagementController {
                 }
             }
 
+            if (search != null && !search.isBlank()) {
+                // A single page of list views ranked by relevance, best matches first (like the student/instructor searches)
+                CursorPageDTO<AdminListViewDTO> page = adminService.searchAdmins(filter, search, limit);
+                log.info("Fetched {} admins matching search (status={})", page.getItems().size(), status);
+                return ResponseEntity.ok(new ApiResponse<>(true, "Admins fetched successfully", page));
+            }
+
             List<Admin> admins = (filter == null)
                     ? adminService.getAllAdmins()
                     : adminService.getByStatus(filter);
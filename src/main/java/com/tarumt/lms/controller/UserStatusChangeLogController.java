@@ -1,8 +1,8 @@
 package com.tarumt.lms.controller;
 
 import com.tarumt.lms.dto.ApiResponse;
+import com.tarumt.lms.dto.UserStatusChangeLogViewDTO;
 import com.tarumt.lms.model.Admin;
-import com.tarumt.lms.model.UserStatusChangeLog;
 import com.tarumt.lms.service.user.AdminService;
 import com.tarumt.lms.service.UserStatusChangeLogService;
 import com.tarumt.lms.utility.TokenVerifierUtils;
@@ -10,10 +10,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -36,7 +34,6 @@ public class UserStatusChangeLogController {
      * GET /api/admin/status-change-logs?userType=STUDENT&userId=123
      */
     @GetMapping
-    @Transactional(readOnly = true)
     public ResponseEntity<ApiResponse<?>> getStatusChangeLogs(
             @RequestHeader("Authorization") String authorizationHeader,
             @RequestParam(required = false) String userType,
@@ -60,7 +57,7 @@ public class UserStatusChangeLogController {
                         .body(new ApiResponse<>(false, "Privileges required", null));
             }
 
-            List<UserStatusChangeLog> logs;
+            List<UserStatusChangeLogViewDTO> logs;
 
             // If both userType and userId are provided, filter by both
             if (userType != null && !userType.isBlank() && userId != null) {
@@ -91,35 +88,10 @@ public class UserStatusChangeLogController {
                         .body(new ApiResponse<>(false, "Either userType or userId must be provided", null));
             }
 
-            // Transform logs to include admin name if needed (optional enhancement)
-            List<Map<String, Object>> logResponses = logs.stream()
-                    .map(log -> {
-                        Map<String, Object> logMap = new HashMap<>();
-                        logMap.put("logId", log.getLogId());
-                        logMap.put("userType", log.getUserType());
-                        logMap.put("userId", log.getUserId());
-                        logMap.put("oldStatus", log.getOldStatus());
-                        logMap.put("newStatus", log.getNewStatus());
-
-                        // FIX: Extract Admin ID safely while session is still open
-                        // Check if null first, then access the ID
-                        if (log.getChangedByAdmin() != null) {
-                            // Access the admin ID while session is open (inside @Transactional)
-                            Long adminId = log.getChangedByAdmin().getAdminId();
-                            logMap.put("changedByAdminId", adminId); // Return just the ID, not the entity
-                        } else {
-                            logMap.put("changedByAdminId", null);
-                        }
-
-                        logMap.put("changedAt", log.getChangedAt());
-                        logMap.put("reason", log.getReason());
-                        return logMap;
-                    })
-                    .toList();
 
             log.info("Successfully fetched {} status change logs (userType={}, userId={})",
-                    logResponses.size(), userType, userId);
-            return ResponseEntity.ok(new ApiResponse<>(true, "Status change logs fetched successfully", logResponses));
+                    logs.size(), userType, userId);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Status change logs fetched successfully", logs));
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid request parameters: {}", e.getMessage());
@@ -137,7 +109,6 @@ public class UserStatusChangeLogController {
      * GET /api/admin/status-change-logs/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    @Transactional(readOnly = true) // IMPORTANT: Keep session open during method execution
     public ResponseEntity<ApiResponse<?>> getStatusChangeLogsByUserId(
             @RequestHeader("Authorization") String authorizationHeader,
             @PathVariable Long userId) {
@@ -160,36 +131,11 @@ public class UserStatusChangeLogController {
                         .body(new ApiResponse<>(false, "Privileges required", null));
             }
 
-            List<UserStatusChangeLog> logs = logService.getLogsByUserId(userId);
-
-            // Transform logs to response format
-            List<Map<String, Object>> logResponses = logs.stream()
-                    .map(log -> {
-                        Map<String, Object> logMap = new HashMap<>();
-                        logMap.put("logId", log.getLogId());
-                        logMap.put("userType", log.getUserType());
-                        logMap.put("userId", log.getUserId());
-                        logMap.put("oldStatus", log.getOldStatus());
-                        logMap.put("newStatus", log.getNewStatus());
-
-
-                        // Check if null first, then access the ID
-                        if (log.getChangedByAdmin() != null) {
-                            // Access the admin ID while session is open (inside @Transactional)
-                            Long adminId = log.getChangedByAdmin().getAdminId();
-                            logMap.put("changedByAdminId", adminId); // Return just the ID, not the entity
-                        } else {
-                            logMap.put("changedByAdminId", null);
-                        }
-
-                        logMap.put("changedAt", log.getChangedAt());
-                        logMap.put("reason", log.getReason());
-                        return logMap;
-                    })
-                    .toList();
-
-            log.info("Successfully fetched {} status change logs for userId={}", logResponses.size(), userId);
-            return ResponseEntity.ok(new ApiResponse<>(true, "Status change logs fetched successfully", logResponses));
+            List<UserStatusChangeLogViewDTO> logs = logService.getLogsByUserId(userId);
+
+
+            log.info("Successfully fetched {} status change logs for userId={}", logs.size(), userId);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Status change logs fetched successfully", logs));
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid request parameters: {}", e.getMessage());
@@ -0,0 +1,18 @@
+package com.tarumt.lms.dto;
+
+import com.tarumt.lms.model.enums.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminListViewDTO {
+    private Long adminId;
+    private String name;
+    private String email;
+    private AccountStatus status;
+    private OffsetDateTime registeredDate;
+}
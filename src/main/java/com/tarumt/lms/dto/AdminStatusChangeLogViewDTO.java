@@ -0,0 +1,20 @@
+package com.tarumt.lms.dto;
+
+import com.tarumt.lms.model.enums.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminStatusChangeLogViewDTO {
+    private Long logId;
+    private Long adminId;
+    private AccountStatus oldStatus;
+    private AccountStatus newStatus;
+    private Long changedBySuperAdminId;
+    private OffsetDateTime changedAt;
+    private String reason;
+}
@@ -0,0 +1,55 @@
+package com.tarumt.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+
+/**
+ * Row of the admin course table. Keeps the nested instructor/courseCategory shape of the
+ * Course entity JSON, but carries only the columns the table shows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseAdminViewDTO {
+    private Long courseId;
+    private String title;
+    private String description;
+    private String level;
+    private String status;
+    private Integer creditHour;
+    private String imageUrl;
+    private Date createDate;
+    private Date updateDate;
+    private InstructorSummary instructor;
+    private CategorySummary courseCategory;
+
+    // JPQL constructor projection; instructor and category come from LEFT JOINs and may be null
+    public CourseAdminViewDTO(Long courseId, String title, String description, String level, String status,
+                              Integer creditHour, String imageUrl, Date createDate, Date updateDate,
+                              Long instructorId, String instructorName, String instructorEmail,
+                              Long courseCategoryId, String categoryType, String interest) {
+        this(courseId, title, description, level, status, creditHour, imageUrl, createDate, updateDate,
+                instructorId != null ? new InstructorSummary(instructorId, instructorName, instructorEmail) : null,
+                courseCategoryId != null ? new CategorySummary(courseCategoryId, categoryType, interest) : null);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InstructorSummary {
+        private Long instructorId;
+        private String name;
+        private String email;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategorySummary {
+        private Long courseCategoryId;
+        private String categoryType;
+        private String interest;
+    }
+}
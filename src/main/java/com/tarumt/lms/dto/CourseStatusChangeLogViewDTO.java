@@ -0,0 +1,29 @@
+package com.tarumt.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseStatusChangeLogViewDTO {
+    private Long logId;
+    private Long courseId;
+    private String oldStatus;
+    private String newStatus;
+    private Long changedByAdminId;
+    private String changedByAdminName;
+    private String reason;
+    private Instant changedAt;
+
+    // JPQL constructor projection
+    public CourseStatusChangeLogViewDTO(Long logId, Long courseId, String oldStatus, String newStatus,
+                                        Long changedByAdminId, String changedByAdminName, String reason,
+                                        OffsetDateTime changedAt) {
+        this(logId, courseId, oldStatus, newStatus, changedByAdminId, changedByAdminName, reason,
+                changedAt != null ? changedAt.toInstant() : null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.tarumt.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated list.
+ * nextCursor is opaque to clients: pass it back as ?cursor= to get the following page.
+ * Relevance-ranked (fuzzy) searches return a single page: nextCursor is null even when hasMore is true.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    /**
+     * Build a page from a query that fetched up to pageSize + 1 rows;
+     * the extra row only signals that another page exists.
+     */
+    public static <T> CursorPageDTO<T> of(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Build a single page of relevance-ranked results from up to pageSize + 1 ranked ids.
+     * Rows are loaded by id and put back in rank order; there is no cursor (narrow the search instead).
+     */
+    public static <T> CursorPageDTO<T> ranked(List<Long> rankedIds, int pageSize,
+                                              Function<Collection<Long>, List<T>> loader, Function<T, Long> idOf) {
+        boolean hasMore = rankedIds.size() > pageSize;
+        List<Long> ids = hasMore ? rankedIds.subList(0, pageSize) : rankedIds;
+        if (ids.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<T> items = loader.apply(ids).stream()
+                .sorted(Comparator.comparing(item -> rank.get(idOf.apply(item))))
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(items, null, hasMore);
+    }
+}
@@ -0,0 +1,15 @@
+package com.tarumt.lms.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class EnrollmentProgressDTO {
+
+    @NotNull(message = "Progress is required")
+    @Min(value = 0, message = "Progress must be between 0 and 100")
+    @Max(value = 100, message = "Progress must be between 0 and 100")
+    private Integer progress;
+}
@@ -35,6 +35,7 @@ public class InstructorDetailViewDTO {
         private String qualificationLevel;
         private QualificationStatus status;
         private String documentUrl; // Signed URL
+        private String previewUrl; // Signed URL of the first-page preview, null until rendered
         private OffsetDateTime submittedDate;
         private String fieldOfStudy;
         private String rejectionReason;
@@ -1,5 +1,6 @@
 package com.tarumt.lms.dto;
 
+import com.tarumt.lms.model.enums.AccountStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,4 +15,9 @@ public class InstructorListViewDTO {
     private String email;
     private String status;
     private OffsetDateTime registeredDate;
+
+    // JPQL constructor projection
+    public InstructorListViewDTO(Long instructorId, String name, String email, AccountStatus status, OffsetDateTime registeredDate) {
+        this(instructorId, name, email, status != null ? status.name() : null, registeredDate);
+    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import java.util.List;
 public class InstructorRequirementDTO {
     private String digitalSignatureBase64; // base64 from canvas
     private List<MultipartFile> qualificationFiles; // can be one or multiple files
+    private List<String> qualificationUploadIds; // completed resumable uploads, listed after qualificationFiles
     private List<String> qualificationLevels;
     private List<String> fieldOfStudy;
 }
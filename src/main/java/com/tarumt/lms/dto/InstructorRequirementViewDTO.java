@@ -1,11 +1,13 @@
 package com.tarumt.lms.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.tarumt.lms.model.enums.QualificationStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 
 @Data
 @NoArgsConstructor
@@ -18,9 +20,29 @@ public class InstructorRequirementViewDTO {
     private QualificationStatus status;
     private String qualificationLevel; // e.g., "DEGREE", "CERTIFICATE", etc.
     private String documentUrl; // URL to the uploaded document
+    private String previewUrl; // Signed URL of the first-page PNG preview, null until rendered
     private String digitalSignatureUrl; // URL to the digital signature
     private LocalDateTime submittedDate;
     private LocalDateTime updatedDate;
     private String fieldOfStudy;
     private String rejectionReason;
+
+    @JsonIgnore
+    private OffsetDateTime submittedAt; // Keyset position of list rows, not serialized
+
+    // JPQL constructor projection for the admin table view (no document URLs)
+    public InstructorRequirementViewDTO(Long qualificationId, Long instructorId, String instructorName, String instructorEmail,
+                                        QualificationStatus status, String qualificationLevel, String fieldOfStudy,
+                                        String rejectionReason, OffsetDateTime submittedAt) {
+        this.qualificationId = qualificationId;
+        this.instructorId = instructorId;
+        this.instructorName = instructorName;
+        this.instructorEmail = instructorEmail;
+        this.status = status;
+        this.qualificationLevel = qualificationLevel;
+        this.fieldOfStudy = fieldOfStudy;
+        this.rejectionReason = rejectionReason;
+        this.submittedAt = submittedAt;
+        this.submittedDate = submittedAt != null ? submittedAt.toLocalDateTime() : null;
+    }
 }
\ No newline at end of file
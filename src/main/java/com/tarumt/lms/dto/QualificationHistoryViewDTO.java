@@ -0,0 +1,48 @@
+package com.tarumt.lms.dto;
+
+import com.tarumt.lms.model.enums.QualificationStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+public class QualificationHistoryViewDTO {
+    private Long logId; // Qualification ID doubles as the log ID
+    private Long qualificationId;
+    private Long userId;
+    private Long instructorId;
+    private String instructorName;
+    private String instructorEmail;
+    private String oldStatus = "PENDING"; // Always PENDING before admin action
+    private String newStatus;
+    private String qualificationLevel;
+    private String fieldOfStudy;
+    private Long changedByAdminId;
+    private String changedByAdminName;
+    private String reason; // Only set if REJECTED
+    private Instant changedAt;
+    private Instant submittedAt;
+
+    // JPQL constructor projection
+    public QualificationHistoryViewDTO(Long qualificationId, Long instructorId, String instructorName, String instructorEmail,
+                                       QualificationStatus status, String qualificationLevel, String fieldOfStudy,
+                                       Long changedByAdminId, String changedByAdminName, String rejectionReason,
+                                       OffsetDateTime madeAt, OffsetDateTime submittedAt) {
+        this.logId = qualificationId;
+        this.qualificationId = qualificationId;
+        this.userId = instructorId;
+        this.instructorId = instructorId;
+        this.instructorName = instructorName;
+        this.instructorEmail = instructorEmail;
+        this.newStatus = status != null ? status.toString() : null;
+        this.qualificationLevel = qualificationLevel;
+        this.fieldOfStudy = fieldOfStudy;
+        this.changedByAdminId = changedByAdminId;
+        this.changedByAdminName = changedByAdminName;
+        this.reason = rejectionReason;
+        this.changedAt = madeAt != null ? madeAt.toInstant() : null;
+        this.submittedAt = submittedAt != null ? submittedAt.toInstant() : null;
+    }
+}
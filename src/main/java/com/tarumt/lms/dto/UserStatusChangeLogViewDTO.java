@@ -0,0 +1,21 @@
+package com.tarumt.lms.dto;
+
+import com.tarumt.lms.model.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatusChangeLogViewDTO {
+    private Long logId;
+    private Role userType;
+    private Long userId;
+    private String oldStatus;
+    private String newStatus;
+    private Long changedByAdminId;
+    private OffsetDateTime changedAt;
+    private String reason;
+}
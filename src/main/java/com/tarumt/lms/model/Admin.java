@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.OffsetDateTime;
 import java.util.Date;
 import java.util.UUID;
@@ -14,6 +16,7 @@ import java.util.UUID;
 @Builder
 @Entity
 @Table(name = "admin")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "admin")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Admin {
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Date;
 
@@ -34,6 +35,14 @@ public class Course {
     @Column(name = "credit_hour")
     private Integer creditHour; // > 0
 
+    @Column(name = "capacity")
+    private Integer capacity; // null = unlimited
+
+    // Maintained in SQL by CourseSeatAllocator, never written through the entity
+    @ColumnDefault("0")
+    @Column(name = "enrolled_count", nullable = false, insertable = false, updatable = false)
+    private Integer enrolledCount;
+
     @Column(name = "image_url", length = 1000)
     private String imageUrl;
 
@@ -4,10 +4,13 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "coursecategory")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "courseCategory")
 @NoArgsConstructor
 @AllArgsConstructor
 public class CourseCategory {
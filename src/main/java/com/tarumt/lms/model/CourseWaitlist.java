@@ -0,0 +1,34 @@
+package com.tarumt.lms.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Entity
+@Table(name = "course_waitlist",
+        uniqueConstraints = @UniqueConstraint(name = "uk_course_waitlist_course_student", columnNames = {"course_id", "student_id"}),
+        indexes = @Index(name = "idx_course_waitlist_course_fifo", columnList = "course_id, waitlist_id"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseWaitlist {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "waitlist_id")
+    private Long waitlistId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @Column(name = "requested_at", nullable = false)
+    private OffsetDateTime requestedAt = OffsetDateTime.now();
+}
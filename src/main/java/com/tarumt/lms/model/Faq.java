@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,6 +19,7 @@ import java.time.OffsetDateTime;
 @Entity
 @Builder
 @Table(name = "faq")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "faq")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Faq {
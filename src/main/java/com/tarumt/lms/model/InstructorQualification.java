@@ -24,6 +24,9 @@ public class InstructorQualification {
     @Column(name = "certificate_document")
     private String certificateDocument; // URL to Supabase, optional
 
+    @Column(name = "certificate_preview")
+    private String certificatePreview; // URL of the first-page PNG preview, "FAILED" if the PDF could not be rendered
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private QualificationStatus status = QualificationStatus.PENDING;
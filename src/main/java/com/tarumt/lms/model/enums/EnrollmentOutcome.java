@@ -0,0 +1,6 @@
+package com.tarumt.lms.model.enums;
+
+public enum EnrollmentOutcome {
+    ENROLLED,
+    WAITLISTED
+}
@@ -1,31 +1,55 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.AdminListViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.enums.AccountStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
 
 @Repository
 public interface AdminRepository extends JpaRepository<Admin,Long> {
 
-    Optional<Admin> findByEmail(String email);
+    // Emails match case-insensitively; served by the unique lower(email) index
+    @Query("SELECT a FROM Admin a WHERE lower(a.email) = lower(:email)")
+    Optional<Admin> findByEmail(@Param("email") String email);
 
     Optional<Admin> findByUserId(UUID userId);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "admin-queries")})
     Optional<Admin> findByAdminId(Long adminId);
 
+    // Authorization lookups: AdminService runs them on the primary, so replica lag never reaches the query cache
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "admin-queries")})
     Optional<Admin> findByAdminIdAndStatus(Long adminId, AccountStatus status);
 
-    Optional<Admin> findByEmailAndStatus(String email, AccountStatus status);
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "admin-queries")})
+    @Query("SELECT a FROM Admin a WHERE lower(a.email) = lower(:email) AND a.status = :status")
+    Optional<Admin> findByEmailAndStatus(@Param("email") String email, @Param("status") AccountStatus status);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "admin-queries")})
     Optional<Admin> findByUserIdAndStatus(UUID userId, AccountStatus status);
 
-    boolean existsByEmail(String email);
+    @Query("SELECT COUNT(a) > 0 FROM Admin a WHERE lower(a.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
 
     List<Admin> findByStatus(AccountStatus status);
+
+    @Query("""
+        SELECT new com.tarumt.lms.dto.AdminListViewDTO(a.adminId, a.name, a.email, a.status, a.registeredDate)
+        FROM Admin a
+        WHERE a.adminId IN :ids
+    """)
+    List<AdminListViewDTO> findListViewsByIds(@Param("ids") Collection<Long> ids);
 }
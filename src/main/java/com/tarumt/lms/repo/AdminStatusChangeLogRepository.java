@@ -1,26 +1,33 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.AdminStatusChangeLogViewDTO;
 import com.tarumt.lms.model.AdminStatusChangeLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface AdminStatusChangeLogRepository extends JpaRepository<AdminStatusChangeLog, Long> {
-    // Additional query methods can be added here if needed
+
+    String VIEW = "SELECT new com.tarumt.lms.dto.AdminStatusChangeLogViewDTO(" +
+            "l.logId, l.admin.adminId, l.oldStatus, l.newStatus, l.changedBySuperAdmin.superAdminId, l.changedAt, l.reason) " +
+            "FROM AdminStatusChangeLog l ";
 
     /**
      * Find all logs for a specific admin
      * Ordered by most recent first
      */
-    List<AdminStatusChangeLog> findByAdmin_AdminIdOrderByChangedAtDesc(Long adminId);
+    @Query(VIEW + "WHERE l.admin.adminId = :adminId ORDER BY l.changedAt DESC")
+    List<AdminStatusChangeLogViewDTO> findViewsByAdminId(@Param("adminId") Long adminId);
 
 
     /**
      * Find all admin status change logs
      * Ordered by most recent first
      */
-    List<AdminStatusChangeLog> findAllByOrderByChangedAtDesc();
+    @Query(VIEW + "ORDER BY l.changedAt DESC")
+    List<AdminStatusChangeLogViewDTO> findAllViews();
 }
-
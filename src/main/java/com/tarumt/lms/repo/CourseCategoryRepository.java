@@ -1,14 +1,20 @@
 package com.tarumt.lms.repo;
 
 import com.tarumt.lms.model.CourseCategory;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface CourseCategoryRepository extends JpaRepository<CourseCategory, Long> {
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "reference-queries")})
     Optional<CourseCategory> findByCourseCategoryId(Long courseCategoryId);
 }
 
@@ -1,11 +1,15 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.CourseAdminViewDTO;
 import com.tarumt.lms.model.Course;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,9 +25,10 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.courseCategory WHERE c.status = :status")
     List<Course> findByStatus(@Param("status") String status);
 
-    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.courseCategory " +
-            "WHERE c.status = :status AND c.instructor IS NOT NULL AND c.courseCategory IS NOT NULL")
-    List<Course> findByStatusWithInstructorAndCategory(@Param("status") String status);
+    // Public catalogue. 'Active' is a literal so the planner can match the partial idx_course_active_catalogue
+    // even on a generic prepared-statement plan; a bound parameter would rule the partial index out.
+    @Query("SELECT c FROM Course c JOIN FETCH c.instructor JOIN FETCH c.courseCategory WHERE c.status = 'Active'")
+    List<Course> findActiveWithInstructorAndCategory();
 
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.courseCategory WHERE c.instructor.instructorId = :instructorId AND c.status = :status")
     List<Course> findByInstructor_InstructorIdAndStatus(@Param("instructorId") Long instructorId, @Param("status") String status);
@@ -39,26 +44,55 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
             "AND c.status = 'Active' AND c.instructor IS NOT NULL AND c.courseCategory IS NOT NULL")
     List<Course> findByTitleContainingIgnoreCaseAndComplete(@Param("title") String title);
 
-    // Admin Course Management - Find by status and search (title or description)
-    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.courseCategory " +
-            "WHERE c.status = :status " +
-            "AND (LOWER(c.title) LIKE LOWER(CONCAT('%', :search, '%')) " +
-            "OR LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-            "ORDER BY c.createDate DESC")
-    List<Course> findByStatusAndTitleOrDescriptionContainingIgnoreCase(
-            @Param("status") String status,
-            @Param("search") String search);
-
-    // Admin Course Management - Find by title or description (search only)
-    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.courseCategory " +
-            "WHERE (LOWER(c.title) LIKE LOWER(CONCAT('%', :search, '%')) " +
-            "OR LOWER(c.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-            "ORDER BY c.createDate DESC")
-    List<Course> findByTitleOrDescriptionContainingIgnoreCase(@Param("search") String search);
+    String ADMIN_VIEW = "SELECT new com.tarumt.lms.dto.CourseAdminViewDTO(" +
+            "c.courseId, c.title, c.description, c.level, c.status, c.creditHour, c.imageUrl, c.createDate, c.updateDate, " +
+            "i.instructorId, i.name, i.email, cc.courseCategoryId, cc.categoryType, cc.interest) " +
+            "FROM Course c LEFT JOIN c.instructor i LEFT JOIN c.courseCategory cc ";
 
-    // Admin Course Management - Find all courses ordered by create date
-    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.instructor LEFT JOIN FETCH c.courseCategory " +
-            "ORDER BY c.createDate DESC")
-    List<Course> findAllOrderByCreateDateDesc();
-}
+    // Admin Course Management - keyset-paginated on (createDate, courseId) newest first; status null means any
+    @Query(ADMIN_VIEW +
+            "WHERE (:status IS NULL OR c.status = :status) " +
+            "ORDER BY c.createDate DESC, c.courseId DESC")
+    List<CourseAdminViewDTO> findAdminPage(@Param("status") String status, Pageable pageable);
 
+    @Query(ADMIN_VIEW +
+            "WHERE (c.createDate, c.courseId) < (:afterDate, :afterId) " +
+            "AND (:status IS NULL OR c.status = :status) " +
+            "ORDER BY c.createDate DESC, c.courseId DESC")
+    List<CourseAdminViewDTO> findAdminPageAfter(@Param("status") String status,
+                                                @Param("afterDate") Date afterDate,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    // Admin Course Management - full-text search over the weighted title/description tsvector (see V6).
+    // Returns [courseId, rank] rows, best first; websearch syntax: "exact phrase", or, -exclude
+    @Query(value = """
+        SELECT c.course_id, ts_rank(c.search_vector, q) AS rank
+        FROM course c, websearch_to_tsquery('english', :search) q
+        WHERE c.search_vector @@ q
+          AND (CAST(:status AS text) IS NULL OR c.status = CAST(:status AS text))
+        ORDER BY rank DESC, c.course_id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> searchRanked(@Param("status") String status,
+                                @Param("search") String search,
+                                @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT c.course_id, ts_rank(c.search_vector, q) AS rank
+        FROM course c, websearch_to_tsquery('english', :search) q
+        WHERE c.search_vector @@ q
+          AND (CAST(:status AS text) IS NULL OR c.status = CAST(:status AS text))
+          AND (ts_rank(c.search_vector, q), c.course_id) < (CAST(:afterRank AS real), :afterId)
+        ORDER BY rank DESC, c.course_id DESC
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> searchRankedAfter(@Param("status") String status,
+                                     @Param("search") String search,
+                                     @Param("afterRank") float afterRank,
+                                     @Param("afterId") Long afterId,
+                                     @Param("limit") int limit);
+
+    @Query(ADMIN_VIEW + "WHERE c.courseId IN :courseIds")
+    List<CourseAdminViewDTO> findAdminViewsByIds(@Param("courseIds") Collection<Long> courseIds);
+}
@@ -1,5 +1,6 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.CourseStatusChangeLogViewDTO;
 import com.tarumt.lms.model.CourseStatusChangeLog;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,15 +12,15 @@ import java.util.List;
 @Repository
 public interface CourseStatusChangeLogRepository extends JpaRepository<CourseStatusChangeLog, Long> {
 
-    // Find all logs for a specific course
-    List<CourseStatusChangeLog> findByCourseIdOrderByChangedAtDesc(Long courseId);
+    String VIEW = "SELECT new com.tarumt.lms.dto.CourseStatusChangeLogViewDTO(" +
+            "l.logId, l.courseId, l.oldStatus, l.newStatus, a.adminId, a.name, l.reason, l.changedAt) " +
+            "FROM CourseStatusChangeLog l JOIN l.changedByAdmin a ";
 
     // Find all logs (for history view)
-    @Query("SELECT l FROM CourseStatusChangeLog l JOIN FETCH l.changedByAdmin ORDER BY l.changedAt DESC")
-    List<CourseStatusChangeLog> findAllWithAdmin();
+    @Query(VIEW + "ORDER BY l.changedAt DESC")
+    List<CourseStatusChangeLogViewDTO> findAllViews();
 
-    // Find logs by course ID with admin loaded
-    @Query("SELECT l FROM CourseStatusChangeLog l JOIN FETCH l.changedByAdmin WHERE l.courseId = :courseId ORDER BY l.changedAt DESC")
-    List<CourseStatusChangeLog> findByCourseIdWithAdmin(@Param("courseId") Long courseId);
+    // Find logs by course ID with the admin name
+    @Query(VIEW + "WHERE l.courseId = :courseId ORDER BY l.changedAt DESC")
+    List<CourseStatusChangeLogViewDTO> findViewsByCourseId(@Param("courseId") Long courseId);
 }
-
@@ -0,0 +1,17 @@
+package com.tarumt.lms.repo;
+
+import com.tarumt.lms.model.CourseWaitlist;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CourseWaitlistRepository extends JpaRepository<CourseWaitlist, Long> {
+
+    // 1-based place of a student in a course's waitlist, 0 when not waiting
+    @Query("SELECT count(w) FROM CourseWaitlist w, CourseWaitlist me " +
+           "WHERE me.course.courseId = :courseId AND me.student.studentId = :studentId " +
+           "AND w.course.courseId = :courseId AND w.waitlistId <= me.waitlistId")
+    long findPosition(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+}
@@ -39,6 +39,15 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Enrollme
     // Check if student is enrolled in a course
     boolean existsById_StudentIdAndId_CourseId(Long studentId, Long courseId);
 
+    // All-time roster size of a course (enrollment rows of any status)
+    long countById_CourseId(Long courseId);
+
+    // Students with enrollment rows (any status) in both courses
+    @Query("SELECT count(e) FROM Enrollment e " +
+           "WHERE e.id.courseId = :courseId AND EXISTS (" +
+           "SELECT 1 FROM Enrollment o WHERE o.id.studentId = e.id.studentId AND o.id.courseId = :otherCourseId)")
+    long countCoEnrolledStudents(@Param("courseId") Long courseId, @Param("otherCourseId") Long otherCourseId);
+
     // Find enrollments by student and status
     @Query("SELECT e FROM Enrollment e " +
            "LEFT JOIN FETCH e.student " +
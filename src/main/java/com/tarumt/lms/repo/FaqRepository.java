@@ -1,24 +1,31 @@
 package com.tarumt.lms.repo;
 
 import com.tarumt.lms.model.Faq;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface FaqRepository extends JpaRepository<Faq, Long> {
 
     /**
      * Find all active FAQs ordered by display order
      */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "reference-queries")})
     List<Faq> findByIsActiveTrueOrderByDisplayOrderAsc();
 
     /**
      * Find FAQs by category
      */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = "reference-queries")})
     List<Faq> findByCategoryAndIsActiveTrueOrderByDisplayOrderAsc(String category);
 
     /**
@@ -32,7 +39,8 @@ public interface FaqRepository extends JpaRepository<Faq, Long> {
     List<Faq> searchActiveFaqs(@Param("searchTerm") String searchTerm);
 
     /**
-     * Find FAQs by keywords (searches in keywords field)
+     * Find FAQs by keywords (searches in keywords field).
+     * Not query-cached: keywords come from free-text chat messages, so entries would rarely be reused
      */
     @Query("SELECT f FROM Faq f WHERE f.isActive = true AND " +
             "LOWER(f.keywords) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
@@ -1,14 +1,22 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.InstructorRequirementViewDTO;
+import com.tarumt.lms.dto.QualificationHistoryViewDTO;
 import com.tarumt.lms.model.Instructor;
 import com.tarumt.lms.model.InstructorQualification;
 import com.tarumt.lms.model.enums.QualificationStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InstructorQualificationRepository extends JpaRepository<InstructorQualification, Long> {
@@ -16,17 +24,72 @@ public interface InstructorQualificationRepository extends JpaRepository<Instruc
     List<InstructorQualification> findByInstructorInstructorId(Long instructorId);
     List<InstructorQualification> findByInstructor_InstructorIdOrderBySubmittedAtDesc(Long instructorId);
 
-    // Add JOIN FETCH to load instructor
-    @Query("SELECT q FROM InstructorQualification q JOIN FETCH q.instructor")
-    List<InstructorQualification> findAllWithInstructor();
+    // Admin table view, keyset-paginated on (submittedAt, id) newest first.
+    // search is a lower-cased LIKE pattern matched against the instructor's name or email.
+    @Query("""
+        SELECT new com.tarumt.lms.dto.InstructorRequirementViewDTO(
+            q.id, i.instructorId, i.name, i.email, q.status, q.qualificationLevel, q.fieldOfStudy, q.rejectionReason, q.submittedAt)
+        FROM InstructorQualification q JOIN q.instructor i
+        WHERE (:status IS NULL OR q.status = :status)
+          AND (:search IS NULL OR LOWER(i.name) LIKE :search ESCAPE '\\' OR LOWER(i.email) LIKE :search ESCAPE '\\')
+        ORDER BY q.submittedAt DESC, q.id DESC
+    """)
+    List<InstructorRequirementViewDTO> findListPage(
+            @Param("status") QualificationStatus status,
+            @Param("search") String search,
+            Pageable pageable);
 
-    // Add JOIN FETCH with status filter
-    @Query("SELECT q FROM InstructorQualification q JOIN FETCH q.instructor WHERE q.status = :status")
-    List<InstructorQualification> findByStatusWithInstructor(@Param("status") QualificationStatus status);
+    @Query("""
+        SELECT new com.tarumt.lms.dto.InstructorRequirementViewDTO(
+            q.id, i.instructorId, i.name, i.email, q.status, q.qualificationLevel, q.fieldOfStudy, q.rejectionReason, q.submittedAt)
+        FROM InstructorQualification q JOIN q.instructor i
+        WHERE (q.submittedAt, q.id) < (:afterDate, :afterId)
+          AND (:status IS NULL OR q.status = :status)
+          AND (:search IS NULL OR LOWER(i.name) LIKE :search ESCAPE '\\' OR LOWER(i.email) LIKE :search ESCAPE '\\')
+        ORDER BY q.submittedAt DESC, q.id DESC
+    """)
+    List<InstructorRequirementViewDTO> findListPageAfter(
+            @Param("status") QualificationStatus status,
+            @Param("search") String search,
+            @Param("afterDate") OffsetDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 
     List<InstructorQualification> findByInstructorOrderBySubmittedAtDesc(Instructor instructor);
 
+    // Document downloads run outside a transaction, so the instructor (signature variant) is fetched up front
+    @Query("SELECT q FROM InstructorQualification q JOIN FETCH q.instructor WHERE q.id = :id")
+    Optional<InstructorQualification> findWithInstructorById(@Param("id") Long id);
+
     // Find all qualifications that have been processed by admin (history records)
-    @Query("SELECT q FROM InstructorQualification q JOIN FETCH q.instructor JOIN FETCH q.madeByAdmin WHERE q.madeByAdmin IS NOT NULL ORDER BY q.madeAt DESC")
-    List<InstructorQualification> findAllProcessedQualifications();
+    @Query("""
+        SELECT new com.tarumt.lms.dto.QualificationHistoryViewDTO(
+            q.id, i.instructorId, i.name, i.email, q.status, q.qualificationLevel, q.fieldOfStudy,
+            a.adminId, a.name, q.rejectionReason, q.madeAt, q.submittedAt)
+        FROM InstructorQualification q JOIN q.instructor i JOIN q.madeByAdmin a
+        ORDER BY q.madeAt DESC
+    """)
+    List<QualificationHistoryViewDTO> findProcessedHistory();
+
+    // Storage objects are content-addressed and may be shared, so deletes check remaining references
+    long countByCertificateDocument(String certificateDocument);
+
+    long countByCertificateDocumentAndIdNot(String certificateDocument, Long id);
+
+    @Query("SELECT DISTINCT q.certificateDocument FROM InstructorQualification q WHERE q.certificateDocument IN :documents")
+    List<String> findReferencedCertificateDocuments(@Param("documents") Collection<String> documents);
+
+    @Query("SELECT DISTINCT q.certificatePreview FROM InstructorQualification q WHERE q.certificatePreview IN :previews")
+    List<String> findReferencedCertificatePreviews(@Param("previews") Collection<String> previews);
+
+    // Certificates still waiting for a first-page preview
+    @Query("SELECT DISTINCT q.certificateDocument FROM InstructorQualification q " +
+            "WHERE q.certificatePreview IS NULL AND q.certificateDocument IS NOT NULL AND q.certificateDocument <> 'DELETED'")
+    List<String> findDocumentsWithoutPreview(Pageable pageable);
+
+    // Identical certificates share one stored object, so they share its preview as well
+    @Modifying
+    @Transactional
+    @Query("UPDATE InstructorQualification q SET q.certificatePreview = :preview WHERE q.certificateDocument = :document")
+    int setCertificatePreview(@Param("document") String document, @Param("preview") String preview);
 }
@@ -1,34 +1,82 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.InstructorListViewDTO;
 import com.tarumt.lms.model.Instructor;
 import com.tarumt.lms.model.enums.AccountStatus;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface InstructorRepository extends JpaRepository<Instructor, Long> {
-    Optional<Instructor> findByEmail(String email);
+    // Emails match case-insensitively; served by the unique lower(email) index
+    @Query("SELECT i FROM Instructor i WHERE lower(i.email) = lower(:email)")
+    Optional<Instructor> findByEmail(@Param("email") String email);
 
     Optional<Instructor> findByUserId(UUID userId);
 
     Optional<Instructor> findByInstructorId(Long instructorId);
 
-    boolean existsByEmail(String email);
-
-    // Add this new method for filtering by status
-    List<Instructor> findByStatus(AccountStatus status, Sort sort);
+    @Query("SELECT COUNT(i) > 0 FROM Instructor i WHERE lower(i.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
 
     // Find by email, excluding INACTIVE
-    Optional<Instructor> findByEmailAndStatusNot(String email, AccountStatus status);
+    @Query("SELECT i FROM Instructor i WHERE lower(i.email) = lower(:email) AND i.status <> :status")
+    Optional<Instructor> findByEmailAndStatusNot(@Param("email") String email, @Param("status") AccountStatus status);
 
     // Find by userId, excluding INACTIVE
     Optional<Instructor> findByUserIdAndStatusNot(UUID userId, AccountStatus status);
 
     // Find instructor by ID, excluding INACTIVE status
     Optional<Instructor> findByInstructorIdAndStatusNot(Long instructorId, AccountStatus status);
+
+    // Digital signatures are content-addressed storage objects that may be shared
+    long countByDigitalSignature(String digitalSignature);
+
+    @Query("SELECT DISTINCT i.digitalSignature FROM Instructor i WHERE i.digitalSignature IN :signatures")
+    List<String> findReferencedDigitalSignatures(@Param("signatures") Collection<String> signatures);
+
+    // Admin listing, keyset-paginated on (registeredDate, instructorId) newest first.
+    // search is a lower-cased LIKE pattern or null; status null means any.
+    @Query("""
+        SELECT new com.tarumt.lms.dto.InstructorListViewDTO(i.instructorId, i.name, i.email, i.status, i.registeredDate)
+        FROM Instructor i
+        WHERE (:status IS NULL OR i.status = :status)
+          AND (:search IS NULL OR LOWER(i.name) LIKE :search ESCAPE '\\' OR LOWER(i.email) LIKE :search ESCAPE '\\')
+        ORDER BY i.registeredDate DESC, i.instructorId DESC
+    """)
+    List<InstructorListViewDTO> findListPage(
+            @Param("status") AccountStatus status,
+            @Param("search") String search,
+            Pageable pageable);
+
+    @Query("""
+        SELECT new com.tarumt.lms.dto.InstructorListViewDTO(i.instructorId, i.name, i.email, i.status, i.registeredDate)
+        FROM Instructor i
+        WHERE (i.registeredDate, i.instructorId) < (:afterDate, :afterId)
+          AND (:status IS NULL OR i.status = :status)
+          AND (:search IS NULL OR LOWER(i.name) LIKE :search ESCAPE '\\' OR LOWER(i.email) LIKE :search ESCAPE '\\')
+        ORDER BY i.registeredDate DESC, i.instructorId DESC
+    """)
+    List<InstructorListViewDTO> findListPageAfter(
+            @Param("status") AccountStatus status,
+            @Param("search") String search,
+            @Param("afterDate") OffsetDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("""
+        SELECT new com.tarumt.lms.dto.InstructorListViewDTO(i.instructorId, i.name, i.email, i.status, i.registeredDate)
+        FROM Instructor i
+        WHERE i.instructorId IN :ids
+    """)
+    List<InstructorListViewDTO> findListViewsByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,44 @@
+package com.tarumt.lms.repo;
+
+import com.tarumt.lms.model.StorageDeletionOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StorageDeletionOutboxRepository extends JpaRepository<StorageDeletionOutbox, Long> {
+
+    /**
+     * Claim due deletions for this worker.
+     * SKIP LOCKED lets several instances drain the outbox without blocking on each other's rows.
+     */
+    @Query(value = "SELECT * FROM storage_deletion_outbox WHERE next_attempt_at <= now() " +
+            "ORDER BY outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StorageDeletionOutbox> lockDueBatch(@Param("limit") int limit);
+
+    boolean existsByBucketAndObjectPath(String bucket, String objectPath);
+
+    @Query("SELECT o.objectPath FROM StorageDeletionOutbox o WHERE o.bucket = :bucket AND o.objectPath IN :paths")
+    List<String> findQueuedPaths(@Param("bucket") String bucket, @Param("paths") Collection<String> paths);
+
+    /**
+     * Lock the queued deletions of these objects. Waits on rows a worker has claimed and skips those
+     * it completed meanwhile, so a path missing from the result was handled by a worker.
+     */
+    @Query(value = "SELECT object_path FROM storage_deletion_outbox WHERE bucket = :bucket AND object_path IN (:paths) " +
+            "FOR UPDATE", nativeQuery = true)
+    List<String> lockQueuedPaths(@Param("bucket") String bucket, @Param("paths") Collection<String> paths);
+
+    /**
+     * Drop queued deletions of objects that are being referenced again.
+     * Waits on rows a worker has claimed, so it returns only after that worker has finished with them.
+     */
+    @Modifying
+    @Query("DELETE FROM StorageDeletionOutbox o WHERE o.bucket = :bucket AND o.objectPath IN :paths")
+    int cancelPending(@Param("bucket") String bucket, @Param("paths") Collection<String> paths);
+}
@@ -1,13 +1,16 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.StudentListViewDTO;
 import com.tarumt.lms.model.Student;
 import com.tarumt.lms.model.enums.AccountStatus;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,31 +18,49 @@ import java.util.UUID;
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
-    Optional<Student> findByEmail(String email);
+    // Emails match case-insensitively; served by the unique lower(email) index
+    @Query("SELECT s FROM Student s WHERE lower(s.email) = lower(:email)")
+    Optional<Student> findByEmail(@Param("email") String email);
     Optional<Student> findByUserId(UUID userId);
     Optional<Student> findByStudentId(Long studentId);
     Optional<Student> findByStudentIdAndStatus(Long studentId, AccountStatus status);
-    Optional<Student> findByEmailAndStatus(String email, AccountStatus status);
+    @Query("SELECT s FROM Student s WHERE lower(s.email) = lower(:email) AND s.status = :status")
+    Optional<Student> findByEmailAndStatus(@Param("email") String email, @Param("status") AccountStatus status);
     Optional<Student> findByUserIdAndStatus(UUID userId, AccountStatus status);
 
-    List<Student> findByStatus(AccountStatus status, Sort sort);
-
-    List<Student> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-            String name, String email, Sort sort);
-
-    List<Student> findAll(Sort sort);
+    // Admin listing, keyset-paginated on (registeredDate, studentId) newest first.
+    // search is a lower-cased LIKE pattern or null; status null means any.
+    @Query("""
+        SELECT new com.tarumt.lms.dto.StudentListViewDTO(s.studentId, s.name, s.email, s.status, s.registeredDate)
+        FROM Student s
+        WHERE (:status IS NULL OR s.status = :status)
+          AND (:search IS NULL OR LOWER(s.name) LIKE :search ESCAPE '\\' OR LOWER(s.email) LIKE :search ESCAPE '\\')
+        ORDER BY s.registeredDate DESC, s.studentId DESC
+    """)
+    List<StudentListViewDTO> findListPage(
+            @Param("status") AccountStatus status,
+            @Param("search") String search,
+            Pageable pageable);
 
     @Query("""
-        SELECT s FROM Student s
-        WHERE s.status = :status
-          AND (
-              LOWER(s.name) LIKE LOWER(CONCAT('%', :search, '%'))
-              OR LOWER(s.email) LIKE LOWER(CONCAT('%', :search, '%'))
-          )
-        ORDER BY s.registeredDate DESC
+        SELECT new com.tarumt.lms.dto.StudentListViewDTO(s.studentId, s.name, s.email, s.status, s.registeredDate)
+        FROM Student s
+        WHERE (s.registeredDate, s.studentId) < (:afterDate, :afterId)
+          AND (:status IS NULL OR s.status = :status)
+          AND (:search IS NULL OR LOWER(s.name) LIKE :search ESCAPE '\\' OR LOWER(s.email) LIKE :search ESCAPE '\\')
+        ORDER BY s.registeredDate DESC, s.studentId DESC
     """)
-    List<Student> findByStatusAndNameOrEmailContainingIgnoreCase(
+    List<StudentListViewDTO> findListPageAfter(
             @Param("status") AccountStatus status,
             @Param("search") String search,
-            Sort sort);
-}
\ No newline at end of file
+            @Param("afterDate") OffsetDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("""
+        SELECT new com.tarumt.lms.dto.StudentListViewDTO(s.studentId, s.name, s.email, s.status, s.registeredDate)
+        FROM Student s
+        WHERE s.studentId IN :ids
+    """)
+    List<StudentListViewDTO> findListViewsByIds(@Param("ids") Collection<Long> ids);
+}
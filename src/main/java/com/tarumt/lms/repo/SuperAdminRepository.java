@@ -3,6 +3,8 @@ package com.tarumt.lms.repo;
 import com.tarumt.lms.model.SuperAdmin;
 import com.tarumt.lms.model.enums.AccountStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,13 +13,17 @@ import java.util.UUID;
 @Repository
 public interface SuperAdminRepository extends JpaRepository<SuperAdmin, Long> {
 
-    Optional<SuperAdmin> findByEmail(String email);
+    // Emails match case-insensitively; served by the unique lower(email) index
+    @Query("SELECT sa FROM SuperAdmin sa WHERE lower(sa.email) = lower(:email)")
+    Optional<SuperAdmin> findByEmail(@Param("email") String email);
 
     Optional<SuperAdmin> findByUserId(UUID userId);
 
-    Optional<SuperAdmin> findByEmailAndStatus(String email, AccountStatus status);
+    @Query("SELECT sa FROM SuperAdmin sa WHERE lower(sa.email) = lower(:email) AND sa.status = :status")
+    Optional<SuperAdmin> findByEmailAndStatus(@Param("email") String email, @Param("status") AccountStatus status);
 
     Optional<SuperAdmin> findByUserIdAndStatus(UUID userId, AccountStatus status);
 
-    boolean existsByEmail(String email);
+    @Query("SELECT COUNT(sa) > 0 FROM SuperAdmin sa WHERE lower(sa.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
 }
@@ -1,29 +1,40 @@
 package com.tarumt.lms.repo;
 
+import com.tarumt.lms.dto.UserStatusChangeLogViewDTO;
 import com.tarumt.lms.model.UserStatusChangeLog;
 import com.tarumt.lms.model.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface UserStatusChangeLogRepository extends JpaRepository<UserStatusChangeLog, Long> {
+
+    String VIEW = "SELECT new com.tarumt.lms.dto.UserStatusChangeLogViewDTO(" +
+            "l.logId, l.userType, l.userId, l.oldStatus, l.newStatus, l.changedByAdmin.adminId, l.changedAt, l.reason) " +
+            "FROM UserStatusChangeLog l ";
+
     /**
      * Find all logs for a specific user type (STUDENT or INSTRUCTOR)
      * Ordered by most recent first
      */
-    List<UserStatusChangeLog> findByUserTypeOrderByChangedAtDesc(Role userType);
+    @Query(VIEW + "WHERE l.userType = :userType ORDER BY l.changedAt DESC")
+    List<UserStatusChangeLogViewDTO> findViewsByUserType(@Param("userType") Role userType);
 
     /**
      * Find all logs for a specific user ID
      * Ordered by most recent first
      */
-    List<UserStatusChangeLog> findByUserIdOrderByChangedAtDesc(Long userId);
+    @Query(VIEW + "WHERE l.userId = :userId ORDER BY l.changedAt DESC")
+    List<UserStatusChangeLogViewDTO> findViewsByUserId(@Param("userId") Long userId);
 
     /**
      * Find all logs for a specific user type and user ID
      * Ordered by most recent first
      */
-    List<UserStatusChangeLog> findByUserTypeAndUserIdOrderByChangedAtDesc(Role userType, Long userId);
+    @Query(VIEW + "WHERE l.userType = :userType AND l.userId = :userId ORDER BY l.changedAt DESC")
+    List<UserStatusChangeLogViewDTO> findViewsByUserTypeAndUserId(@Param("userType") Role userType, @Param("userId") Long userId);
 }
@@ -1,18 +1,26 @@
 package com.tarumt.lms.service;
 
+import com.tarumt.lms.dto.CourseAdminViewDTO;
+import com.tarumt.lms.dto.CourseStatusChangeLogViewDTO;
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.Course;
 import com.tarumt.lms.model.CourseStatusChangeLog;
 import com.tarumt.lms.repo.CourseRepository;
 import com.tarumt.lms.repo.CourseStatusChangeLogRepository;
+import com.tarumt.lms.utility.CursorUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,25 +32,57 @@ public class AdminCourseManagementService {
     private final CourseStatusChangeLogRepository courseStatusChangeLogRepository;
 
     // =====================================================
-    // GET ALL COURSES (OPTIONAL STATUS FILTER & SEARCH)
+    // GET COURSES PAGE (OPTIONAL STATUS FILTER & FULL-TEXT SEARCH)
     // =====================================================
     @Transactional(readOnly = true)
-    public List<Course> getAllCourses(String status, String search) {
-        log.info("Fetching all courses (status={}, search={})", status, search);
-
-        if (status != null && !status.isBlank() && search != null && !search.isBlank()) {
-            // Filter by status and search
-            return courseRepository.findByStatusAndTitleOrDescriptionContainingIgnoreCase(status, search);
-        } else if (status != null && !status.isBlank()) {
-            // Filter by status only
-            return courseRepository.findByStatus(status);
-        } else if (search != null && !search.isBlank()) {
-            // Search only
-            return courseRepository.findByTitleOrDescriptionContainingIgnoreCase(search);
+    public CursorPageDTO<CourseAdminViewDTO> getAllCourses(String status, String search, String cursor, int limit) {
+        log.info("Fetching courses page (status={}, search={}, cursor={})", status, search, cursor);
+
+        String statusFilter = status != null && !status.isBlank() ? status : null;
+        boolean hasCursor = cursor != null && !cursor.isBlank();
+        int pageSize = CursorUtils.clampLimit(limit);
+
+        if (search != null && !search.isBlank()) {
+            // Ranked by relevance; the cursor carries (rank, courseId) of the last row
+            List<Object[]> ranked;
+            if (hasCursor) {
+                CursorUtils.RankKey after = CursorUtils.decodeRanked(cursor);
+                ranked = courseRepository.searchRankedAfter(statusFilter, search, after.getScore(), after.getId(), pageSize + 1);
+            } else {
+                ranked = courseRepository.searchRanked(statusFilter, search, pageSize + 1);
+            }
+            return rankedPage(ranked, pageSize);
+        }
+
+        // One extra row tells us whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<CourseAdminViewDTO> rows;
+        if (hasCursor) {
+            CursorUtils.Key after = CursorUtils.decode(cursor);
+            // Timestamp keeps the cursor's microseconds; a java.util.Date would truncate them and skip rows
+            rows = courseRepository.findAdminPageAfter(statusFilter, Timestamp.from(after.getTimestamp().toInstant()), after.getId(), page);
         } else {
-            // Get all courses (ordered by create date DESC)
-            return courseRepository.findAllOrderByCreateDateDesc();
+            rows = courseRepository.findAdminPage(statusFilter, page);
+        }
+        return CursorPageDTO.of(rows, pageSize,
+                last -> CursorUtils.encode(last.getCreateDate().toInstant().atOffset(ZoneOffset.UTC), last.getCourseId()));
+    }
+
+    private CursorPageDTO<CourseAdminViewDTO> rankedPage(List<Object[]> ranked, int pageSize) {
+        boolean hasMore = ranked.size() > pageSize;
+        List<Object[]> hits = hasMore ? ranked.subList(0, pageSize) : ranked;
+
+        List<Long> ids = hits.stream().map(row -> ((Number) row[0]).longValue()).collect(Collectors.toList());
+        Map<Long, CourseAdminViewDTO> byId = courseRepository.findAdminViewsByIds(ids).stream()
+                .collect(Collectors.toMap(CourseAdminViewDTO::getCourseId, course -> course));
+        List<CourseAdminViewDTO> items = ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = hits.get(hits.size() - 1);
+            nextCursor = CursorUtils.encodeRanked(((Number) last[1]).floatValue(), ((Number) last[0]).longValue());
         }
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
     }
 
     // =====================================================
@@ -98,35 +138,20 @@ public class AdminCourseManagementService {
     // GET COURSE STATUS CHANGE LOGS (History)
     // =====================================================
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getCourseStatusChangeLogs(Long courseId) {
+    public List<CourseStatusChangeLogViewDTO> getCourseStatusChangeLogs(Long courseId) {
         log.info("Fetching course status change logs: courseId={}", courseId);
 
-        List<CourseStatusChangeLog> logs;
+        List<CourseStatusChangeLogViewDTO> logs;
         if (courseId != null) {
             // Get logs for specific course
-            logs = courseStatusChangeLogRepository.findByCourseIdWithAdmin(courseId);
+            logs = courseStatusChangeLogRepository.findViewsByCourseId(courseId);
         } else {
             // Get all logs
-            logs = courseStatusChangeLogRepository.findAllWithAdmin();
+            logs = courseStatusChangeLogRepository.findAllViews();
         }
 
         log.info("Found {} course status change logs", logs.size());
-
-        // Transform to history log format
-        return logs.stream()
-                .map(log -> {
-                    Map<String, Object> logEntry = new java.util.HashMap<>();
-                    logEntry.put("logId", log.getLogId());
-                    logEntry.put("courseId", log.getCourseId());
-                    logEntry.put("oldStatus", log.getOldStatus());
-                    logEntry.put("newStatus", log.getNewStatus());
-                    logEntry.put("changedByAdminId", log.getChangedByAdmin() != null ? log.getChangedByAdmin().getAdminId() : null);
-                    logEntry.put("changedByAdminName", log.getChangedByAdmin() != null ? log.getChangedByAdmin().getName() : null);
-                    logEntry.put("reason", log.getReason());
-                    logEntry.put("changedAt", log.getChangedAt() != null ? log.getChangedAt().toInstant() : null);
-                    return logEntry;
-                })
-                .collect(Collectors.toList());
+        return logs;
     }
 }
 
@@ -1,5 +1,6 @@
 package com.tarumt.lms.service;
 
+import com.tarumt.lms.dto.AdminStatusChangeLogViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.AdminStatusChangeLog;
 import com.tarumt.lms.model.SuperAdmin;
@@ -46,19 +47,19 @@ public class AdminStatusChangeLogService {
      * @param adminId The admin ID
      * @return List of status change logs, ordered by most recent first
      */
-    public List<AdminStatusChangeLog> getLogsByAdminId(Long adminId) {
+    public List<AdminStatusChangeLogViewDTO> getLogsByAdminId(Long adminId) {
         if (adminId == null) {
             throw new IllegalArgumentException("AdminId must not be null");
         }
-        return logRepository.findByAdmin_AdminIdOrderByChangedAtDesc(adminId);
+        return logRepository.findViewsByAdminId(adminId);
     }
 
     /**
      * Get all admin status change logs
      * @return List of all status change logs, ordered by most recent first
      */
-    public List<AdminStatusChangeLog> getAllLogs() {
-        return logRepository.findAllByOrderByChangedAtDesc();
+    public List<AdminStatusChangeLogViewDTO> getAllLogs() {
+        return logRepository.findAllViews();
     }
 }
 
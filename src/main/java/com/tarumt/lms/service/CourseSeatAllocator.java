@@ -0,0 +1,163 @@
+package com.tarumt.lms.service;
+
+import com.tarumt.lms.model.enums.EnrollmentOutcome;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seat allocation for courses with a capacity, done in SQL so concurrent enrollments cannot overbook.
+ *  - a seat is claimed with one conditional UPDATE of course.enrolled_count: the row lock queues
+ *    claimants of the same course and the WHERE clause turns them away once the course is full
+ *  - the enrollment row is written with INSERT ... ON CONFLICT DO NOTHING; a duplicate throws, which
+ *    rolls the claimed seat back with the transaction
+ *  - students turned away from a full course join course_waitlist, and a withdrawal hands its seat
+ *    to the head of that queue (FIFO by waitlist_id) while the course is Active
+ * course.capacity (null = unlimited) has no API yet, as course create/update is disabled: it is set
+ * directly in the database. Every method must run inside the caller's transaction.
+ */
+@Slf4j
+@Component
+public class CourseSeatAllocator {
+
+    private static final String CLAIM_SEAT_SQL = """
+            UPDATE course SET enrolled_count = enrolled_count + 1
+            WHERE course_id = ? AND status = 'Active' AND (capacity IS NULL OR enrolled_count < capacity)
+            """;
+
+    private static final String RELEASE_SEAT_SQL =
+            "UPDATE course SET enrolled_count = enrolled_count - 1 WHERE course_id = ? AND enrolled_count > 0";
+
+    // Taken by every path that reads seats and then acts on the waitlist, so they never interleave
+    private static final String LOCK_COURSE_SQL =
+            "SELECT status, capacity IS NULL OR enrolled_count < capacity FROM course WHERE course_id = ? FOR UPDATE";
+
+    private static final String INSERT_ENROLLMENT_SQL = """
+            INSERT INTO enrollment (student_id, course_id, enroll_date, status, progress)
+            VALUES (?, ?, current_date, 'Enrolled', 0)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String JOIN_WAITLIST_SQL = """
+            INSERT INTO course_waitlist (course_id, student_id, requested_at)
+            SELECT ?, ?, now()
+            WHERE NOT EXISTS (SELECT 1 FROM enrollment WHERE student_id = ? AND course_id = ?)
+            ON CONFLICT (course_id, student_id) DO NOTHING
+            """;
+
+    private static final String WITHDRAW_SQL =
+            "UPDATE enrollment SET status = 'Withdrawn' WHERE student_id = ? AND course_id = ? AND status = 'Enrolled'";
+
+    // Pops the head of the waitlist and enrolls it; promoted is NULL when that student already has an enrollment row.
+    // A course that is no longer Active promotes nobody: head is NULL and its waitlist is kept for reactivation
+    private static final String PROMOTE_HEAD_SQL = """
+            WITH head AS (
+                DELETE FROM course_waitlist
+                WHERE waitlist_id = (SELECT waitlist_id FROM course_waitlist WHERE course_id = ? ORDER BY waitlist_id LIMIT 1)
+                  AND EXISTS (SELECT 1 FROM course WHERE course_id = ? AND status = 'Active')
+                RETURNING course_id, student_id
+            ), promoted AS (
+                INSERT INTO enrollment (student_id, course_id, enroll_date, status, progress)
+                SELECT student_id, course_id, current_date, 'Enrolled', 0 FROM head
+                ON CONFLICT DO NOTHING
+                RETURNING student_id
+            )
+            SELECT (SELECT student_id FROM head), (SELECT student_id FROM promoted)
+            """;
+
+    private static final String ENROLLMENT_EXISTS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM enrollment WHERE student_id = ? AND course_id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrollmentMembershipIndex membershipIndex;
+
+    /**
+     * Take a seat in the course, or join its waitlist when it is full
+     */
+    public EnrollmentOutcome enroll(Long studentId, Long courseId) {
+        if (jdbcTemplate.update(CLAIM_SEAT_SQL, courseId) == 1) {
+            insertEnrollment(studentId, courseId);
+            return EnrollmentOutcome.ENROLLED;
+        }
+
+        // No seat: find out why under the course lock, so a seat released meanwhile is not missed
+        CourseSeats seats = jdbcTemplate.query(LOCK_COURSE_SQL,
+                rs -> rs.next() ? new CourseSeats(rs.getString(1), rs.getBoolean(2)) : null, courseId);
+        if (seats == null) {
+            throw new RuntimeException("Course not found with ID: " + courseId);
+        }
+        if (!"Active".equals(seats.status())) {
+            throw new RuntimeException("Cannot enroll in a course that is not active. Course status: " + seats.status());
+        }
+        if (seats.hasRoom()) {
+            jdbcTemplate.update(CLAIM_SEAT_SQL, courseId);
+            insertEnrollment(studentId, courseId);
+            return EnrollmentOutcome.ENROLLED;
+        }
+
+        try {
+            if (jdbcTemplate.update(JOIN_WAITLIST_SQL, courseId, studentId, studentId, courseId) == 0
+                    && Boolean.TRUE.equals(jdbcTemplate.queryForObject(ENROLLMENT_EXISTS_SQL, Boolean.class, studentId, courseId))) {
+                throw new RuntimeException("Student is already enrolled in this course");
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Student not found with ID: " + studentId);
+        }
+        return EnrollmentOutcome.WAITLISTED;
+    }
+
+    /**
+     * Withdraw an 'Enrolled' student and pass the seat on
+     * @return false when there was no 'Enrolled' enrollment to withdraw
+     */
+    public boolean withdraw(Long studentId, Long courseId) {
+        jdbcTemplate.query(LOCK_COURSE_SQL, rs -> null, courseId);
+        if (jdbcTemplate.update(WITHDRAW_SQL, studentId, courseId) == 0) {
+            return false;
+        }
+        releaseSeat(courseId);
+        return true;
+    }
+
+    /**
+     * Give a freed seat to the first waiting student, or back to the course when nobody waits
+     * or the course is not Active. The caller holds the course lock.
+     */
+    private void releaseSeat(Long courseId) {
+        while (true) {
+            Long[] head = jdbcTemplate.queryForObject(PROMOTE_HEAD_SQL,
+                    (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)}, courseId, courseId);
+            if (head[0] == null) {
+                jdbcTemplate.update(RELEASE_SEAT_SQL, courseId);
+                return;
+            }
+            if (head[1] != null) {
+                membershipIndex.addAfterCommit(head[1], courseId);
+                log.info("Student {} promoted from the waitlist of course {}", head[1], courseId);
+                return;
+            }
+            // Enrolled some other way while waiting (e.g. the capacity was raised): skip the entry
+        }
+    }
+
+    private void insertEnrollment(Long studentId, Long courseId) {
+        int inserted;
+        try {
+            inserted = jdbcTemplate.update(INSERT_ENROLLMENT_SQL, studentId, courseId);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Student not found with ID: " + studentId);
+        }
+        if (inserted == 0) {
+            throw new RuntimeException("Student is already enrolled in this course");
+        }
+        membershipIndex.addAfterCommit(studentId, courseId);
+    }
+
+    private record CourseSeats(String status, boolean hasRoom) {
+    }
+}
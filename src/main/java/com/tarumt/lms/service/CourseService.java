@@ -75,7 +75,7 @@ public class CourseService {
     public List<Course> getAllActiveCourses() {
         log.info("Fetching all active courses with instructor and category");
         // Only return courses that have both instructor and category (complete courses)
-        List<Course> courses = courseRepository.findByStatusWithInstructorAndCategory("Active");
+        List<Course> courses = courseRepository.findActiveWithInstructorAndCategory();
         log.info("Found {} complete active courses", courses.size());
         return courses;
     }
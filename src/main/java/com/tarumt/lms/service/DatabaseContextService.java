@@ -5,6 +5,7 @@ import com.tarumt.lms.model.Enrollment;
 import com.tarumt.lms.model.Faq;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.lang.reflect.Method;
@@ -12,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -32,10 +34,12 @@ public class DatabaseContextService {
     private final CourseService courseService;
     private final FaqService faqService;
     private final EnrollmentService enrollmentService;
+    private final SemanticSearchService semanticSearchService;
 
     private static final int MAX_RECOMMENDED_COURSES = 8;
     private static final int MAX_CATEGORY_HIGHLIGHTS = 5;
     private static final int MAX_INSTRUCTOR_HIGHLIGHTS = 5;
+    private static final double SEMANTIC_WEIGHT = 2.0;
 
     /**
      * Build a database context string tailored to the incoming query so the LLM
@@ -101,6 +105,27 @@ public class DatabaseContextService {
         return context.toString();
     }
 
+    /**
+     * Re-sync the semantic course index with the active catalog (also runs at startup).
+     * Courses added or edited since the last pass are matched by keyword only until the next one.
+     */
+    @Scheduled(fixedDelayString = "${llm.semantic-index.refresh-interval-ms:300000}")
+    public void refreshSemanticIndex() {
+        List<Course> courses;
+        try {
+            courses = courseService.getAllActiveCourses();
+        } catch (Exception e) {
+            // Keep the previous index rather than emptying it
+            log.error("Unable to refresh the semantic course index", e);
+            return;
+        }
+        Map<Long, String> searchable = new HashMap<>();
+        for (Course course : courses) {
+            searchable.put(course.getCourseId(), buildSearchableText(course));
+        }
+        semanticSearchService.syncCourses(searchable);
+    }
+
     private List<Course> fetchActiveCourses() {
         try {
             return courseService.getAllActiveCourses();
@@ -175,27 +200,41 @@ public class DatabaseContextService {
                 .distinct()
                 .collect(Collectors.toList());
 
-        if (keywords.isEmpty()) {
+        Map<Long, String> searchable = new HashMap<>();
+        for (Course course : courses) {
+            searchable.put(course.getCourseId(), buildSearchableText(course));
+        }
+
+        // Semantic stage catches matches the keywords miss (e.g. "databse" or "programmer" vs "programming")
+        Map<Long, Float> similarities = Collections.emptyMap();
+        try {
+            similarities = semanticSearchService.rankCourses(queryLower, MAX_RECOMMENDED_COURSES * 2);
+        } catch (Exception e) {
+            log.error("Semantic course ranking failed, falling back to keyword matching", e);
+        }
+
+        if (keywords.isEmpty() && similarities.isEmpty()) {
             return Collections.emptyList();
         }
 
+        // Hybrid score: keyword hits plus weighted cosine similarity
         List<CourseScore> scored = new ArrayList<>();
         for (Course course : courses) {
-            int score = scoreCourse(course, keywords);
+            double score = scoreCourse(searchable.get(course.getCourseId()), keywords)
+                    + SEMANTIC_WEIGHT * similarities.getOrDefault(course.getCourseId(), 0f);
             if (score > 0) {
                 scored.add(new CourseScore(course, score));
             }
         }
 
-        scored.sort((a, b) -> Integer.compare(b.score, a.score));
+        scored.sort((a, b) -> Double.compare(b.score, a.score));
         return scored.stream()
                 .map(cs -> cs.course)
                 .limit(MAX_RECOMMENDED_COURSES)
                 .collect(Collectors.toList());
     }
 
-    private int scoreCourse(Course course, List<String> keywords) {
-        String searchable = buildSearchableText(course);
+    private int scoreCourse(String searchable, List<String> keywords) {
         int score = 0;
         for (String keyword : keywords) {
             if (!keyword.isBlank() && searchable.contains(keyword)) {
@@ -501,9 +540,9 @@ public class DatabaseContextService {
 
     private static class CourseScore {
         private final Course course;
-        private final int score;
+        private final double score;
 
-        private CourseScore(Course course, int score) {
+        private CourseScore(Course course, double score) {
             this.course = course;
             this.score = score;
         }
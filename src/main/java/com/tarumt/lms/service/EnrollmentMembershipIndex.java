@@ -0,0 +1,372 @@
+package com.tarumt.lms.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory index of enrollment rows as Roaring bitmaps: one per course over student ids and one per
+ * student over course ids, held in arrays indexed by id. Answers membership checks, roster sizes and
+ * co-enrollment counts without a query.
+ * It holds rows of every status, so sizes and counts are all-time figures: a withdrawn or completed
+ * student still counts (course.enrolled_count is the number of 'Enrolled' seats).
+ * Loading: the first pass reads the whole table; later passes only read rows whose created_at is past
+ * the previous pass's start, less delta-overlap-ms to catch transactions that committed late and rows
+ * the replica had not received yet (passes run read-only, so they go to the replica).
+ * Freshness:
+ *  - enrollments committed through this instance are added right after commit
+ *  - rows written elsewhere (other instances, manual SQL) appear at the next pass, so sizes and
+ *    counts can lag by up to one rebuild interval
+ *  - enrollment rows are never deleted (withdrawal only changes the status), so a hit is always true;
+ *    callers that cannot accept a stale "no" confirm misses against the database
+ * Until the first rebuild completes the index reports not-ready and callers read the database.
+ * Bitmaps are kept in arrays indexed by id, which suits dense identity ids; ids must fit in an int.
+ */
+@Slf4j
+@Component
+public class EnrollmentMembershipIndex implements MeterBinder {
+
+    private static final String PAGE_SQL = """
+            SELECT student_id, course_id FROM enrollment
+            WHERE (student_id, course_id) > (?, ?)
+            ORDER BY student_id, course_id
+            LIMIT ?
+            """;
+
+    private static final String DELTA_PAGE_SQL = """
+            SELECT student_id, course_id, created_at FROM enrollment
+            WHERE (created_at, student_id, course_id) > (?, ?, ?)
+            ORDER BY created_at, student_id, course_id
+            LIMIT ?
+            """;
+
+    @Value("${enrollment.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${enrollment.index.page-size:50000}")
+    private int pageSize;
+
+    @Value("${enrollment.index.delta-overlap-ms:300000}")
+    private long deltaOverlapMs;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot snapshot;
+    // Start of the last successful pass (database clock); only touched by passes, which never overlap
+    private Timestamp watermark;
+    // Adds committed while a rebuild is reading the table, replayed onto the new snapshot
+    private List<long[]> addedDuringRebuild;
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return snapshot != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the student has an enrollment row in the course; false also when not ready
+     */
+    public boolean contains(Long studentId, Long courseId) {
+        lock.readLock().lock();
+        try {
+            return snapshot != null && snapshot.contains(studentId, courseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of students with an enrollment row (any status) in the course, empty when not ready
+     */
+    public OptionalLong rosterSize(Long courseId) {
+        lock.readLock().lock();
+        try {
+            return snapshot == null ? OptionalLong.empty() : OptionalLong.of(snapshot.rosterSize(courseId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of students with enrollment rows (any status) in both courses, empty when not ready
+     */
+    public OptionalLong coEnrolledCount(Long courseId, Long otherCourseId) {
+        lock.readLock().lock();
+        try {
+            return snapshot == null ? OptionalLong.empty() : OptionalLong.of(snapshot.coEnrolledCount(courseId, otherCourseId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index a new enrollment row once the surrounding transaction commits (immediately without one)
+     */
+    public void addAfterCommit(Long studentId, Long courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(studentId, courseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(studentId, courseId);
+            }
+        });
+    }
+
+    /**
+     * Bring the index up to date: a full load the first time (or after the index was disabled),
+     * otherwise only the rows created since the previous pass.
+     * Read-only, so the pass reads from a replica when one is configured.
+     */
+    @Scheduled(fixedDelayString = "${enrollment.index.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        if (watermark != null && isReady()) {
+            refresh();
+        } else {
+            loadAll();
+        }
+    }
+
+    /**
+     * Reload the whole index from the enrollment table, keyset-paged on its primary key.
+     * Lookups keep using the previous snapshot until the new one is swapped in.
+     */
+    private void loadAll() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            addedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Snapshot loaded = new Snapshot();
+        Timestamp passStarted;
+        try {
+            passStarted = databaseNow();
+            long[] cursor = {0, 0};
+            int rows;
+            do {
+                long[] last = {-1, -1};
+                rows = jdbcTemplate.query(PAGE_SQL, (rs, rowNum) -> {
+                    last[0] = rs.getLong(1);
+                    last[1] = rs.getLong(2);
+                    loaded.add(last[0], last[1]);
+                    return null;
+                }, cursor[0], cursor[1], pageSize).size();
+                cursor = last;
+            } while (rows == pageSize);
+            loaded.trim();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                addedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to rebuild the enrollment membership index, keeping the previous one", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            addedDuringRebuild.forEach(added -> loaded.add(added[0], added[1]));
+            addedDuringRebuild = null;
+            snapshot = loaded;
+            watermark = passStarted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Enrollment membership index rebuilt: {} enrollments, ~{} KB, {} ms",
+                loaded.memberships(), loaded.sizeInBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Add the rows created since the last pass to the live snapshot. Rows already indexed (the
+     * overlap, or this instance's own enrollments) are no-ops.
+     */
+    private void refresh() {
+        long started = System.nanoTime();
+        long memberships = read(Snapshot::memberships);
+        Timestamp passStarted;
+        int read = 0;
+        try {
+            passStarted = databaseNow();
+            Object[] cursor = {new Timestamp(watermark.getTime() - deltaOverlapMs), 0L, 0L};
+            int rows;
+            do {
+                Object[] last = cursor.clone();
+                rows = jdbcTemplate.query(DELTA_PAGE_SQL, (rs, rowNum) -> {
+                    last[0] = rs.getTimestamp(3);
+                    last[1] = rs.getLong(1);
+                    last[2] = rs.getLong(2);
+                    add((Long) last[1], (Long) last[2]);
+                    return null;
+                }, cursor[0], cursor[1], cursor[2], pageSize).size();
+                read += rows;
+                cursor = last;
+            } while (rows == pageSize);
+        } catch (RuntimeException e) {
+            // The watermark stays put, so the next pass reads these rows again
+            log.error("Failed to refresh the enrollment membership index, retrying from the same point next time", e);
+            return;
+        }
+        watermark = passStarted;
+        log.debug("Enrollment membership index refreshed: {} rows read, {} new enrollments, {} ms",
+                read, read(Snapshot::memberships) - memberships, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private Timestamp databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT now()", Timestamp.class);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("enrollment.index.memberships", this, index -> index.read(Snapshot::memberships))
+                .description("Enrollments held in the membership index")
+                .register(registry);
+        Gauge.builder("enrollment.index.size", this, index -> index.read(Snapshot::sizeInBytes))
+                .description("Serialized size of the membership bitmaps at the last rebuild")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    void add(Long studentId, Long courseId) {
+        lock.writeLock().lock();
+        try {
+            if (snapshot != null) {
+                snapshot.add(studentId, courseId);
+            }
+        } catch (ArithmeticException e) {
+            // Runs after commit, so it must not throw: fall back to the database until a rebuild
+            log.error("Enrollment ({}, {}) cannot be indexed, membership index disabled", studentId, courseId, e);
+            snapshot = null;
+        } finally {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(new long[]{studentId, courseId});
+            }
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long read(ToLongFunction<Snapshot> metric) {
+        lock.readLock().lock();
+        try {
+            return snapshot == null ? 0 : metric.applyAsLong(snapshot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One generation of the index; not thread-safe, guarded by the index lock
+     */
+    static final class Snapshot {
+
+        private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+        private RoaringBitmap[] studentsByCourse = new RoaringBitmap[1024];
+        private RoaringBitmap[] coursesByStudent = new RoaringBitmap[1024];
+        private long memberships;
+        private long sizeInBytes;
+
+        void add(long studentId, long courseId) {
+            int student = Math.toIntExact(studentId);
+            int course = Math.toIntExact(courseId);
+            studentsByCourse = grow(studentsByCourse, course);
+            coursesByStudent = grow(coursesByStudent, student);
+            if (studentsByCourse[course] == null) {
+                studentsByCourse[course] = new RoaringBitmap();
+            }
+            if (studentsByCourse[course].checkedAdd(student)) {
+                if (coursesByStudent[student] == null) {
+                    coursesByStudent[student] = new RoaringBitmap();
+                }
+                coursesByStudent[student].add(course);
+                memberships++;
+            }
+        }
+
+        boolean contains(long studentId, long courseId) {
+            return courseId <= Integer.MAX_VALUE && courses(studentId).contains((int) courseId);
+        }
+
+        long rosterSize(long courseId) {
+            return students(courseId).getLongCardinality();
+        }
+
+        long coEnrolledCount(long courseId, long otherCourseId) {
+            return RoaringBitmap.andCardinality(students(courseId), students(otherCourseId));
+        }
+
+        long memberships() {
+            return memberships;
+        }
+
+        long sizeInBytes() {
+            return sizeInBytes;
+        }
+
+        /**
+         * Compact a freshly loaded snapshot (run-length encode where it pays off, drop spare capacity) and measure it
+         */
+        void trim() {
+            sizeInBytes = 0;
+            for (RoaringBitmap[] bitmaps : List.of(studentsByCourse, coursesByStudent)) {
+                for (RoaringBitmap bitmap : bitmaps) {
+                    if (bitmap != null) {
+                        bitmap.runOptimize();
+                        bitmap.trim();
+                        sizeInBytes += bitmap.getLongSizeInBytes();
+                    }
+                }
+            }
+        }
+
+        private RoaringBitmap students(long courseId) {
+            return courseId >= 0 && courseId < studentsByCourse.length && studentsByCourse[(int) courseId] != null
+                    ? studentsByCourse[(int) courseId] : EMPTY;
+        }
+
+        private RoaringBitmap courses(long studentId) {
+            return studentId >= 0 && studentId < coursesByStudent.length && coursesByStudent[(int) studentId] != null
+                    ? coursesByStudent[(int) studentId] : EMPTY;
+        }
+
+        private static RoaringBitmap[] grow(RoaringBitmap[] bitmaps, int id) {
+            if (id < bitmaps.length) {
+                return bitmaps;
+            }
+            return Arrays.copyOf(bitmaps, Math.max(id + 1, bitmaps.length * 2));
+        }
+    }
+}
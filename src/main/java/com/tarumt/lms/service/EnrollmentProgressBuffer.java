@@ -0,0 +1,262 @@
+package com.tarumt.lms.service;
+
+import com.tarumt.lms.model.EnrollmentId;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for Enrollment.progress.
+ * Progress pings land in a lock-striped map keyed by (studentId, courseId) that keeps only the
+ * latest value per enrollment, and are written with JDBC batch UPDATEs every flush interval or as
+ * soon as max-pending enrollments are waiting. Pending values are flushed on shutdown.
+ * A value stays in the map, visible to {@link #pendingProgress}, until the batch that wrote it has
+ * committed; it is then removed only if no newer ping replaced it. A value whose batch keeps failing
+ * is dropped, and logged, after max-attempts flushes.
+ * Durability (enrollment.progress.write-mode):
+ *  - buffered (default): a crash loses at most one flush interval of progress
+ *  - write-through: every ping is written immediately, nothing is buffered
+ */
+@Slf4j
+@Component
+public class EnrollmentProgressBuffer implements MeterBinder {
+
+    private static final String UPDATE_SQL = "UPDATE enrollment SET progress = ? WHERE student_id = ? AND course_id = ?";
+    private static final int STRIPES = 16;
+
+    @Value("${enrollment.progress.write-mode:buffered}")
+    private String writeMode;
+
+    @Value("${enrollment.progress.max-pending:5000}")
+    private int maxPending;
+
+    @Value("${enrollment.progress.batch-size:500}")
+    private int batchSize;
+
+    @Value("${enrollment.progress.max-attempts:10}")
+    private int maxAttempts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong versions = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private boolean writeThrough;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        writeThrough = "write-through".equalsIgnoreCase(writeMode);
+        log.info("Enrollment progress writes are {}", writeThrough ? "write-through" : "buffered");
+    }
+
+    /**
+     * Record the latest progress (0-100) of a student in a course
+     */
+    public void record(Long studentId, Long courseId, int progress) {
+        if (progress < 0 || progress > 100) {
+            throw new IllegalArgumentException("Progress must be between 0 and 100");
+        }
+        received.incrementAndGet();
+        if (writeThrough) {
+            written.addAndGet(jdbcTemplate.update(UPDATE_SQL, progress, studentId, courseId));
+            return;
+        }
+
+        EnrollmentId key = new EnrollmentId(studentId, courseId);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            // A newer value inherits the failure count, so a row that cannot be written is still given up on
+            Pending previous = stripe.latest.get(key);
+            stripe.latest.put(key, new Pending(progress, versions.incrementAndGet(), previous != null ? previous.failures() : 0));
+            if (previous == null) {
+                pending.incrementAndGet();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        // Over the threshold the caller flushes, unless a flush is already running
+        if (pending.get() >= maxPending) {
+            flush();
+        }
+    }
+
+    /**
+     * Progress recorded but not yet written, if any
+     */
+    public Integer pendingProgress(Long studentId, Long courseId) {
+        EnrollmentId key = new EnrollmentId(studentId, courseId);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Pending value = stripe.latest.get(key);
+            return value != null ? value.progress() : null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.progress.flush-interval-ms:1000}",
+            initialDelayString = "${enrollment.progress.flush-interval-ms:1000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        // Waits for a running flush, then writes whatever arrived since
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+        if (pending.get() > 0) {
+            log.warn("{} enrollment progress updates could not be written before shutdown", pending.get());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("enrollment.progress.pending", pending, AtomicInteger::get)
+                .description("Enrollments with progress waiting to be written")
+                .register(registry);
+        FunctionCounter.builder("enrollment.progress.updates", received, AtomicLong::get)
+                .tag("stage", "received")
+                .register(registry);
+        FunctionCounter.builder("enrollment.progress.updates", written, AtomicLong::get)
+                .tag("stage", "written")
+                .register(registry);
+        FunctionCounter.builder("enrollment.progress.updates", dropped, AtomicLong::get)
+                .tag("stage", "dropped")
+                .register(registry);
+    }
+
+    private void writePending() {
+        Map<EnrollmentId, Pending> snapshot = snapshot();
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        List<EnrollmentId> keys = new ArrayList<>(snapshot.keySet());
+        for (int from = 0; from < keys.size(); from += batchSize) {
+            List<EnrollmentId> batch = keys.subList(from, Math.min(from + batchSize, keys.size()));
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            batch.forEach(key -> rows.add(new Object[]{snapshot.get(key).progress(), key.getStudentId(), key.getCourseId()}));
+            try {
+                for (int updated : jdbcTemplate.batchUpdate(UPDATE_SQL, rows)) {
+                    written.addAndGet(Math.max(updated, 0));
+                }
+            } catch (RuntimeException e) {
+                // Earlier sub-batches are committed and already removed; the rest stay for the next flush
+                log.error("Failed to flush {} of {} enrollment progress updates, keeping them for the next flush",
+                        keys.size() - from, keys.size(), e);
+                batch.forEach(this::recordFailure);
+                return;
+            }
+            batch.forEach(key -> removeIfUnchanged(key, snapshot.get(key)));
+        }
+    }
+
+    private Map<EnrollmentId, Pending> snapshot() {
+        Map<EnrollmentId, Pending> snapshot = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                snapshot.putAll(stripe.latest);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Forget a written value, unless a newer ping replaced it while the batch was in flight
+     */
+    private void removeIfUnchanged(EnrollmentId key, Pending flushed) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            if (stripe.latest.remove(key, flushed)) {
+                pending.decrementAndGet();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void recordFailure(EnrollmentId key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Pending current = stripe.latest.get(key);
+            if (current == null) {
+                return;
+            }
+            Pending counted = current.failed();
+            if (counted.failures() < maxAttempts) {
+                stripe.latest.put(key, counted);
+                return;
+            }
+            stripe.latest.remove(key);
+            pending.decrementAndGet();
+            dropped.incrementAndGet();
+            log.error("Dropping progress {} of student {} in course {} after {} failed flushes",
+                    current.progress(), key.getStudentId(), key.getCourseId(), counted.failures());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(EnrollmentId key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<EnrollmentId, Pending> latest = new HashMap<>();
+    }
+
+    /**
+     * One buffered value; version tells a value written by a flush apart from a newer ping with the same progress
+     */
+    private record Pending(int progress, long version, int failures) {
+
+        private Pending failed() {
+            return new Pending(progress, version, failures + 1);
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package com.tarumt.lms.service;
 
-import com.tarumt.lms.model.Course;
 import com.tarumt.lms.model.Enrollment;
-import com.tarumt.lms.model.EnrollmentId;
-import com.tarumt.lms.model.Student;
-import com.tarumt.lms.repo.CourseRepository;
+import com.tarumt.lms.model.enums.EnrollmentOutcome;
+import com.tarumt.lms.repo.CourseWaitlistRepository;
 import com.tarumt.lms.repo.EnrollmentRepository;
-import com.tarumt.lms.repo.StudentRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,56 +20,34 @@ public class EnrollmentService {
     private EnrollmentRepository enrollmentRepository;
 
     @Autowired
-    private StudentRepository studentRepository;
+    private CourseWaitlistRepository courseWaitlistRepository;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private EnrollmentProgressBuffer progressBuffer;
+
+    @Autowired
+    private CourseSeatAllocator seatAllocator;
+
+    @Autowired
+    private EnrollmentMembershipIndex membershipIndex;
 
     /**
-     * Enroll a student in a course
+     * Enroll a student in a course, or put them on its waitlist when the course is full
      */
     @Transactional
-    public Enrollment enrollStudent(Long studentId, Long courseId) {
+    public EnrollmentOutcome enrollStudent(Long studentId, Long courseId) {
         log.info("Enrolling student {} in course {}", studentId, courseId);
+        EnrollmentOutcome outcome = seatAllocator.enroll(studentId, courseId);
+        log.info("Student {} {} in course {}", studentId, outcome == EnrollmentOutcome.ENROLLED ? "successfully enrolled" : "waitlisted", courseId);
+        return outcome;
+    }
 
-        // Validate student exists
-        Optional<Student> studentOpt = studentRepository.findByStudentId(studentId);
-        if (studentOpt.isEmpty()) {
-            throw new RuntimeException("Student not found with ID: " + studentId);
-        }
-
-        // Validate course exists
-        Optional<Course> courseOpt = courseRepository.findByCourseId(courseId);
-        if (courseOpt.isEmpty()) {
-            throw new RuntimeException("Course not found with ID: " + courseId);
-        }
-
-        Course course = courseOpt.get();
-
-        // Check if course is active
-        if (!"Active".equalsIgnoreCase(course.getStatus())) {
-            throw new RuntimeException("Cannot enroll in a course that is not active. Course status: " + course.getStatus());
-        }
-
-        // Check if already enrolled
-        if (enrollmentRepository.existsById_StudentIdAndId_CourseId(studentId, courseId)) {
-            throw new RuntimeException("Student is already enrolled in this course");
-        }
-
-        // Create enrollment
-        Enrollment enrollment = new Enrollment();
-        EnrollmentId enrollmentId = new EnrollmentId();
-        enrollmentId.setStudentId(studentId);
-        enrollmentId.setCourseId(courseId);
-        enrollment.setId(enrollmentId);
-        enrollment.setStudent(studentOpt.get());
-        enrollment.setCourse(course);
-        enrollment.setStatus("Enrolled");
-        enrollment.setProgress(0);
-
-        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
-        log.info("Student {} successfully enrolled in course {}", studentId, courseId);
-        return savedEnrollment;
+    /**
+     * 1-based position of a student in a course's waitlist, empty when not waiting
+     */
+    public Optional<Long> getWaitlistPosition(Long studentId, Long courseId) {
+        long position = courseWaitlistRepository.findPosition(studentId, courseId);
+        return position > 0 ? Optional.of(position) : Optional.empty();
     }
 
     /**
@@ -80,7 +55,7 @@ public class EnrollmentService {
      */
     public List<Enrollment> getEnrollmentsByStudentId(Long studentId) {
         log.info("Fetching enrollments for student {}", studentId);
-        return enrollmentRepository.findByStudentId(studentId);
+        return withPendingProgress(enrollmentRepository.findByStudentId(studentId));
     }
 
     /**
@@ -88,14 +63,46 @@ public class EnrollmentService {
      */
     public Optional<Enrollment> getEnrollment(Long studentId, Long courseId) {
         log.info("Fetching enrollment for student {} and course {}", studentId, courseId);
-        return enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId);
+        Optional<Enrollment> enrollment = enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId);
+        enrollment.ifPresent(this::applyPendingProgress);
+        return enrollment;
+    }
+
+    /**
+     * Record a student's progress (0-100) in a course; written to the database in batches
+     * by {@link EnrollmentProgressBuffer}
+     */
+    public void recordProgress(Long studentId, Long courseId, int progress) {
+        progressBuffer.record(studentId, courseId, progress);
     }
 
     /**
      * Check if student is enrolled in a course
      */
     public boolean isEnrolled(Long studentId, Long courseId) {
-        return enrollmentRepository.existsById_StudentIdAndId_CourseId(studentId, courseId);
+        // A hit is final; a miss may be an enrollment the index has not picked up yet
+        return membershipIndex.contains(studentId, courseId)
+                || enrollmentRepository.existsById_StudentIdAndId_CourseId(studentId, courseId);
+    }
+
+    /**
+     * Number of students who ever enrolled in a course: rows of any status, so withdrawn and completed
+     * students count too (unlike course.enrolled_count, which only counts 'Enrolled' seats).
+     * Served from the membership index once loaded; enrollments made through other instances or
+     * manual SQL only show up after its next rebuild (enrollment.index.rebuild-interval-ms, 10 min default)
+     */
+    public long getAllTimeRosterSize(Long courseId) {
+        return membershipIndex.rosterSize(courseId)
+                .orElseGet(() -> enrollmentRepository.countById_CourseId(courseId));
+    }
+
+    /**
+     * Number of students who ever enrolled in both courses (rows of any status).
+     * Same source and staleness as {@link #getAllTimeRosterSize(Long)}
+     */
+    public long countAllTimeCoEnrolledStudents(Long courseId, Long otherCourseId) {
+        return membershipIndex.coEnrolledCount(courseId, otherCourseId)
+                .orElseGet(() -> enrollmentRepository.countCoEnrolledStudents(courseId, otherCourseId));
     }
 
     /**
@@ -103,7 +110,7 @@ public class EnrollmentService {
      */
     public List<Enrollment> getEnrollmentsByStudentIdAndStatus(Long studentId, String status) {
         log.info("Fetching enrollments for student {} with status {}", studentId, status);
-        return enrollmentRepository.findByStudentIdAndStatus(studentId, status);
+        return withPendingProgress(enrollmentRepository.findByStudentIdAndStatus(studentId, status));
     }
 
     /**
@@ -113,6 +120,12 @@ public class EnrollmentService {
     public void unenrollStudent(Long studentId, Long courseId) {
         log.info("Unenrolling student {} from course {}", studentId, courseId);
 
+        // Frees the seat for the next student on the waitlist
+        if (seatAllocator.withdraw(studentId, courseId)) {
+            log.info("Student {} successfully unenrolled from course {}", studentId, courseId);
+            return;
+        }
+
         Optional<Enrollment> enrollmentOpt = enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId);
         if (enrollmentOpt.isEmpty()) {
             throw new RuntimeException("Enrollment not found");
@@ -123,5 +136,17 @@ public class EnrollmentService {
         enrollmentRepository.save(enrollment);
         log.info("Student {} successfully unenrolled from course {}", studentId, courseId);
     }
-}
 
+    private List<Enrollment> withPendingProgress(List<Enrollment> enrollments) {
+        enrollments.forEach(this::applyPendingProgress);
+        return enrollments;
+    }
+
+    // Progress may still be waiting in the write-behind buffer
+    private void applyPendingProgress(Enrollment enrollment) {
+        Integer pendingProgress = progressBuffer.pendingProgress(enrollment.getId().getStudentId(), enrollment.getId().getCourseId());
+        if (pendingProgress != null) {
+            enrollment.setProgress(pendingProgress);
+        }
+    }
+}
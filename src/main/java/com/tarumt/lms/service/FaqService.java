@@ -4,11 +4,15 @@ import com.tarumt.lms.model.Faq;
 import com.tarumt.lms.repo.FaqRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -17,6 +21,9 @@ import java.util.stream.Collectors;
 public class FaqService {
 
     private final FaqRepository faqRepository;
+    private final SemanticSearchService semanticSearchService;
+
+    private static final int MAX_SEMANTIC_FAQS = 5;
 
     @Transactional(readOnly = true)
     public List<Faq> getAllActiveFaqs() {
@@ -72,9 +79,35 @@ public class FaqService {
             }
         }
 
+        // Still nothing - fall back to semantic similarity over the active FAQs
+        if (matchingFaqs.isEmpty()) {
+            matchingFaqs = findSemanticallySimilarFaqs(userQuery);
+        }
+
         // Return all matching FAQs (no limit since we only have 10 FAQs total)
         // They are already ordered by displayOrder from the repository query
         return matchingFaqs;
     }
-}
 
+    /**
+     * Re-sync the semantic FAQ index with the active FAQs (also runs at startup).
+     * FAQs added or edited since the last pass are matched by keyword only until the next one.
+     */
+    @Scheduled(fixedDelayString = "${llm.semantic-index.refresh-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void refreshSemanticIndex() {
+        semanticSearchService.syncFaqs(faqRepository.findByIsActiveTrueOrderByDisplayOrderAsc());
+    }
+
+    private List<Faq> findSemanticallySimilarFaqs(String userQuery) {
+        List<Long> rankedIds = semanticSearchService.rankFaqIds(userQuery, MAX_SEMANTIC_FAQS);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        // The index may lag behind deactivations, so only the current active rows are returned
+        Map<Long, Faq> byId = faqRepository.findAllById(rankedIds).stream()
+                .filter(faq -> Boolean.TRUE.equals(faq.getIsActive()))
+                .collect(Collectors.toMap(Faq::getFaqId, Function.identity()));
+        return rankedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,240 @@
+package com.tarumt.lms.service;
+
+import com.tarumt.lms.model.Faq;
+import com.tarumt.lms.utility.TextEmbeddingUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Semantic Search Service - In-process embedding retrieval for the AI chat context.
+ * Courses and FAQs are embedded with hashed character n-grams (see TextEmbeddingUtils)
+ * and kept in off-heap vector indexes. The owners of the documents sync them on a schedule, off the
+ * query path; a document is re-embedded only when its text differs from the text it was last embedded from.
+ */
+@Slf4j
+@Service
+public class SemanticSearchService {
+
+    // Cosine similarity below this is treated as "unrelated"
+    public static final float MIN_SIMILARITY = 0.15f;
+
+    private final VectorIndex<Long> courseIndex = new VectorIndex<>();
+    private final VectorIndex<Long> faqIndex = new VectorIndex<>();
+
+    /**
+     * Bring the course index in line with the current catalog; only new or edited texts are embedded.
+     *
+     * @param documents courseId -> searchable text of every current course (others are dropped)
+     */
+    public void syncCourses(Map<Long, String> documents) {
+        courseIndex.sync(documents);
+    }
+
+    /**
+     * Rank courses by semantic similarity to the query, against the last synced catalog.
+     *
+     * @param query User query
+     * @param limit Maximum number of results
+     * @return courseId -> similarity, best first, only entries >= MIN_SIMILARITY
+     */
+    public Map<Long, Float> rankCourses(String query, int limit) {
+        return courseIndex.search(query, limit);
+    }
+
+    /**
+     * Bring the FAQ index in line with the given (active) FAQs.
+     */
+    public void syncFaqs(List<Faq> faqs) {
+        Map<Long, String> documents = new HashMap<>();
+        for (Faq faq : faqs) {
+            if (faq.getFaqId() != null) {
+                documents.put(faq.getFaqId(), faq.getQuestion() + " " + faq.getAnswer() + " "
+                        + (faq.getKeywords() != null ? faq.getKeywords() : ""));
+            }
+        }
+        faqIndex.sync(documents);
+    }
+
+    /**
+     * Rank FAQs by semantic similarity to the query, against the last synced FAQs.
+     *
+     * @return ids of matching FAQs, best first
+     */
+    public List<Long> rankFaqIds(String query, int limit) {
+        return new ArrayList<>(faqIndex.search(query, limit).keySet());
+    }
+
+
+    /**
+     * Flat vector index backed by a single off-heap float matrix (one row per document).
+     * Rows of removed documents are recycled; the matrix doubles in size when full.
+     */
+    static class VectorIndex<K> {
+
+        private static final int DIM = TextEmbeddingUtils.DIMENSIONS;
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<K, Integer> rowByKey = new HashMap<>();
+        // Text each row was embedded from; compared exactly, so no edit can go unnoticed
+        private final Map<K, String> textByKey = new HashMap<>();
+        private final Deque<Integer> freeRows = new ArrayDeque<>();
+        private Object[] keyByRow = new Object[INITIAL_CAPACITY];
+        private FloatBuffer matrix = allocate(INITIAL_CAPACITY);
+        private int rowCount = 0;
+
+        /**
+         * Bring the index in line with the given documents: embed new or changed
+         * texts, drop keys that are no longer present, leave the rest untouched.
+         */
+        void sync(Map<K, String> documents) {
+            List<K> changed = new ArrayList<>();
+            List<K> removed = new ArrayList<>();
+
+            lock.readLock().lock();
+            try {
+                documents.forEach((key, text) -> {
+                    if (!textByKey.containsKey(key) || !Objects.equals(textByKey.get(key), text)) {
+                        changed.add(key);
+                    }
+                });
+                rowByKey.keySet().stream().filter(key -> !documents.containsKey(key)).forEach(removed::add);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+
+            // Embed outside the write lock so searches are not blocked
+            Map<K, float[]> embedded = new LinkedHashMap<>();
+            for (K key : changed) {
+                float[] vector = new float[DIM];
+                TextEmbeddingUtils.embed(documents.get(key), vector);
+                embedded.put(key, vector);
+            }
+
+            lock.writeLock().lock();
+            try {
+                removed.forEach(this::remove);
+                embedded.forEach((key, vector) -> put(key, vector, documents.get(key)));
+                log.debug("Vector index synced: {} embedded, {} removed, {} total", changed.size(), removed.size(), rowByKey.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Exact top-k cosine search over all live rows
+         */
+        @SuppressWarnings("unchecked")
+        Map<K, Float> search(String query, int limit) {
+            float[] q = new float[DIM];
+            if (!TextEmbeddingUtils.embed(query, q) || limit <= 0) {
+                return Map.of();
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>((a, b) -> Float.compare(a.score, b.score));
+            lock.readLock().lock();
+            try {
+                for (int row = 0; row < rowCount; row++) {
+                    if (keyByRow[row] == null) {
+                        continue;
+                    }
+                    float score = dotRow(row, q);
+                    if (score < MIN_SIMILARITY) {
+                        continue;
+                    }
+                    if (top.size() < limit) {
+                        top.add(new Hit(score, keyByRow[row]));
+                    } else if (score > top.peek().score) {
+                        top.poll();
+                        top.add(new Hit(score, keyByRow[row]));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort((a, b) -> Float.compare(b.score, a.score));
+            Map<K, Float> result = new LinkedHashMap<>();
+            hits.forEach(hit -> result.put((K) hit.key, hit.score));
+            return result;
+        }
+
+        private void put(K key, float[] vector, String text) {
+            Integer row = rowByKey.get(key);
+            if (row == null) {
+                row = freeRows.isEmpty() ? rowCount++ : freeRows.pop();
+                ensureCapacity(row + 1);
+                rowByKey.put(key, row);
+                keyByRow[row] = key;
+            }
+            matrix.put(row * DIM, vector);
+            textByKey.put(key, text);
+        }
+
+        private void remove(K key) {
+            Integer row = rowByKey.remove(key);
+            textByKey.remove(key);
+            if (row != null) {
+                keyByRow[row] = null;
+                freeRows.push(row);
+            }
+        }
+
+        private float dotRow(int row, float[] q) {
+            int offset = row * DIM;
+            float sum = 0f;
+            for (int i = 0; i < DIM; i++) {
+                sum += matrix.get(offset + i) * q[i];
+            }
+            return sum;
+        }
+
+        private void ensureCapacity(int rows) {
+            int capacity = keyByRow.length;
+            if (rows <= capacity) {
+                return;
+            }
+            int newCapacity = Math.max(rows, capacity * 2);
+            FloatBuffer grown = allocate(newCapacity);
+            grown.put(0, matrix, 0, capacity * DIM);
+            matrix = grown;
+            keyByRow = Arrays.copyOf(keyByRow, newCapacity);
+        }
+
+        private static FloatBuffer allocate(int rows) {
+            return ByteBuffer.allocateDirect(rows * DIM * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        }
+
+        private static class Hit {
+            private final float score;
+            private final Object key;
+
+            private Hit(float score, Object key) {
+                this.score = score;
+                this.key = key;
+            }
+        }
+    }
+}
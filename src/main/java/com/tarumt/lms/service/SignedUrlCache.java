@@ -0,0 +1,114 @@
+package com.tarumt.lms.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of signed URLs keyed by (bucket, path, requested expiry).
+ * The expiry is part of the key so a caller asking for a long-lived link never gets one signed for
+ * a shorter lifetime. An entry is served until {@code safetyMarginMillis} before the URL itself
+ * expires, so callers never receive a link that is about to stop working.
+ */
+public class SignedUrlCache {
+
+    private final int maxEntries;
+    private final long safetyMarginMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final LinkedHashMap<Key, Entry> entries;
+
+    public SignedUrlCache(int maxEntries, long safetyMarginMillis) {
+        this.maxEntries = maxEntries;
+        this.safetyMarginMillis = safetyMarginMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > SignedUrlCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return cached signed URL, or null if absent or too close to expiry
+     */
+    public String get(String bucket, String path, int expiresInSeconds) {
+        Key key = new Key(bucket, path, expiresInSeconds);
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now < entry.expiresAtMillis - safetyMarginMillis) {
+                hits.incrementAndGet();
+                return entry.signedUrl;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String bucket, String path, String signedUrl, int expiresInSeconds) {
+        // URLs that would be stale on arrival are not worth caching
+        if (expiresInSeconds * 1000L <= safetyMarginMillis) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + expiresInSeconds * 1000L;
+        synchronized (entries) {
+            entries.put(new Key(bucket, path, expiresInSeconds), new Entry(signedUrl, expiresAt));
+        }
+    }
+
+    /**
+     * Drop the cached URLs of an object, whatever expiry they were signed for
+     */
+    public void invalidate(String bucket, String path) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.bucket().equals(bucket) && key.path().equals(path));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private record Key(String bucket, String path, int expiresInSeconds) {
+    }
+
+    private static class Entry {
+        private final String signedUrl;
+        private final long expiresAtMillis;
+
+        private Entry(String signedUrl, long expiresAtMillis) {
+            this.signedUrl = signedUrl;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -1,67 +1,270 @@
 package com.tarumt.lms.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarumt.lms.model.StorageDeletionOutbox;
+import com.tarumt.lms.repo.StorageDeletionOutboxRepository;
+import com.tarumt.lms.service.storage.StorageBackend;
+import com.tarumt.lms.service.storage.StoredObject;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Storage facade used by the services: content addressing, signed URL caching and
+ * URL/path handling on top of the configured {@link StorageBackend} (Supabase by default).
+ */
 @Slf4j
 @Service
-public class SupabaseStorageService {
+public class SupabaseStorageService implements MeterBinder {
 
-    @Value("${supabase.url}")
-    private String supabaseUrl;
+    @Value("${supabase.signed-url.cache.max-entries:2000}")
+    private int signedUrlCacheMaxEntries;
 
-    @Value("${supabase.service-key}")
-    private String supabaseKey;
+    @Value("${supabase.signed-url.cache.safety-margin-seconds:300}")
+    private int signedUrlSafetyMarginSeconds;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private StorageBackend backend;
+
+    @Autowired
+    private StorageDeletionOutboxRepository deletionOutboxRepository;
+
+    private SignedUrlCache signedUrlCache;
+
+    @PostConstruct
+    void initSignedUrlCache() {
+        signedUrlCache = new SignedUrlCache(signedUrlCacheMaxEntries, signedUrlSafetyMarginSeconds * 1000L);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("storage.signed_url.cache.requests", signedUrlCache, SignedUrlCache::getHits)
+                .tag("result", "hit")
+                .description("Signed URL lookups served from cache")
+                .register(registry);
+        FunctionCounter.builder("storage.signed_url.cache.requests", signedUrlCache, SignedUrlCache::getMisses)
+                .tag("result", "miss")
+                .description("Signed URL lookups that called Supabase")
+                .register(registry);
+        FunctionCounter.builder("storage.signed_url.cache.evictions", signedUrlCache, SignedUrlCache::getEvictions)
+                .description("Signed URLs evicted to stay within the size bound")
+                .register(registry);
+        Gauge.builder("storage.signed_url.cache.size", signedUrlCache, SignedUrlCache::size)
+                .register(registry);
+        Gauge.builder("storage.signed_url.cache.hit_rate", signedUrlCache, SignedUrlCache::getHitRate)
+                .register(registry);
+    }
 
     // Upload base64 (digital signature)
-    public String uploadBase64(String base64Data, String bucket, String folder, String filename, String mimeType) {
-        byte[] data = Base64.getDecoder().decode(base64Data.split(",")[1]);
-        return uploadBytes(data, bucket, folder, filename, mimeType);
+    public StoredObject uploadBase64(String base64Data, String bucket, String folder, String filename, String mimeType) {
+        int payloadStart = base64Data.indexOf(',') + 1;
+        if (payloadStart == 0) {
+            throw new IllegalArgumentException("Invalid base64 data URL");
+        }
+        // Decoded while hashing and again while sending instead of materialising the image on the heap
+        return store(new Base64DataUrlResource(base64Data, payloadStart), bucket, folder, filename, mimeType);
     }
 
 
     // Upload MultipartFile (certificate)
-    public String uploadFile(MultipartFile file, String bucket, String folder, String filename) {
+    public StoredObject uploadFile(MultipartFile file, String bucket, String folder, String filename) {
+        // Stream from the multipart temp file; the content is never fully loaded into memory
+        return store(file.getResource(), bucket, folder, filename, file.getContentType());
+    }
+
+
+    /**
+     * Content-addressed store: the object path is {folder}/{sha256}{extension}, so identical
+     * documents share one object and uploading content that is already stored is skipped.
+     */
+    private StoredObject store(Resource content, String bucket, String folder, String filename, String mimeType) {
         try {
-            // Use the actual content type of the file
-            return uploadBytes(file.getBytes(), bucket, folder, filename, file.getContentType());
+            long contentLength = content.contentLength();
+            String path = contentAddressedPath(folder, sha256(content), filename);
+
+            if (backend.exists(bucket, path)) {
+                log.info("Identical content already stored, skipping upload: bucket={}, path={}", bucket, path);
+                return new StoredObject(backend.objectUrl(bucket, path), false);
+            }
+
+            backend.upload(bucket, path, content, contentLength, mimeType);
+            return new StoredObject(backend.objectUrl(bucket, path), true);
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload file", e);
         }
     }
 
 
-    private String uploadBytes(byte[] data, String bucket, String folder, String filename, String mimeType) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(supabaseKey);
-        headers.setContentType(MediaType.parseMediaType(mimeType)); // <-- use correct MIME type
+    /**
+     * Urls among the given ones whose object has a deletion queued. Content-addressed paths are shared,
+     * so an upload (or an upload skipped as a duplicate) can land on an object the deletion outbox is
+     * about to remove. Read before the transaction that references the objects, and pass the result to
+     * {@link #cancelPendingDeletions}.
+     */
+    public Set<String> findQueuedDeletions(String bucket, Collection<String> urls) {
+        Map<String, String> urlByPath = pathsOf(bucket, urls);
+        if (urlByPath.isEmpty()) {
+            return Set.of();
+        }
+        return deletionOutboxRepository.findQueuedPaths(bucket, urlByPath.keySet()).stream()
+                .map(urlByPath::get)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Cancel the queued deletions of objects about to be referenced again. Database only: runs inside
+     * the transaction that writes the referencing rows, and never calls the storage backend there.
+     *
+     * @param queued what {@link #findQueuedDeletions} reported before the transaction
+     * @return urls whose queued deletion a worker completed first, so their object may be gone; usually
+     *         empty. Restore them once the transaction has committed.
+     */
+    public Set<String> cancelPendingDeletions(String bucket, Collection<String> urls, Set<String> queued) {
+        Map<String, String> urlByPath = pathsOf(bucket, urls);
+        if (urlByPath.isEmpty()) {
+            return Set.of();
+        }
+        List<String> stillQueued = deletionOutboxRepository.lockQueuedPaths(bucket, urlByPath.keySet());
+        if (!stillQueued.isEmpty()) {
+            int cancelled = deletionOutboxRepository.cancelPending(bucket, urlByPath.keySet());
+            log.info("Cancelled {} queued deletions of re-referenced objects in bucket={}", cancelled, bucket);
+        }
+        Set<String> handledByWorker = new HashSet<>(queued);
+        stillQueued.forEach(path -> handledByWorker.remove(urlByPath.get(path)));
+        if (!handledByWorker.isEmpty()) {
+            log.warn("Deletion worker got to {} re-referenced objects first in bucket={}", handledByWorker.size(), bucket);
+        }
+        return handledByWorker;
+    }
+
+    private Map<String, String> pathsOf(String bucket, Collection<String> urls) {
+        Map<String, String> urlByPath = new HashMap<>();
+        for (String url : urls) {
+            String path = url != null && !url.isBlank() ? extractPathFromUrl(url, bucket) : null;
+            if (path != null) {
+                urlByPath.put(path, url);
+            }
+        }
+        return urlByPath;
+    }
+
+
+    private static String contentAddressedPath(String folder, String hash, String filename) {
+        int dot = filename != null ? filename.lastIndexOf('.') : -1;
+        String extension = dot >= 0 ? filename.substring(dot).toLowerCase() : "";
+        String name = hash + extension;
+        return (folder != null && !folder.isBlank()) ? folder + "/" + name : name;
+    }
+
+
+    private static String sha256(Resource content) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = content.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+
+    /**
+     * Decoded view of the base64 payload of a data URL; each stream decodes the string afresh
+     */
+    private static class Base64DataUrlResource extends AbstractResource {
+
+        private final String dataUrl;
+        private final int payloadStart;
+
+        private Base64DataUrlResource(String dataUrl, int payloadStart) {
+            this.dataUrl = dataUrl;
+            this.payloadStart = payloadStart;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return Base64.getDecoder().wrap(new AsciiCharSequenceInputStream(dataUrl, payloadStart));
+        }
+
+        @Override
+        public long contentLength() {
+            int padding = 0;
+            for (int i = dataUrl.length() - 1; i >= payloadStart && dataUrl.charAt(i) == '='; i--) {
+                padding++;
+            }
+            return (long) (dataUrl.length() - payloadStart) / 4 * 3 - padding;
+        }
+
+        @Override
+        public String getDescription() {
+            return "base64 data URL";
+        }
+    }
+
+
+    /**
+     * Exposes the ASCII characters of a CharSequence as bytes without copying it
+     */
+    private static class AsciiCharSequenceInputStream extends InputStream {
 
-        HttpEntity<byte[]> request = new HttpEntity<>(data, headers);
+        private final CharSequence chars;
+        private int position;
 
-        String path = (folder != null && !folder.isBlank()) ? folder + "/" + filename : filename;
-        String url = supabaseUrl + "/storage/v1/object/" + bucket + "/" + path;
+        private AsciiCharSequenceInputStream(CharSequence chars, int start) {
+            this.chars = chars;
+            this.position = start;
+        }
 
-        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.PUT, request, String.class);
+        @Override
+        public int read() {
+            return position < chars.length() ? chars.charAt(position++) & 0xff : -1;
+        }
 
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return supabaseUrl + "/storage/v1/object/public/" + bucket + "/" + path;
-        } else {
-            throw new RuntimeException("Supabase upload failed: " + response.getBody());
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int available = chars.length() - position;
+            if (available <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, available);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) chars.charAt(position++);
+            }
+            return count;
         }
     }
 
@@ -87,48 +290,18 @@ public class SupabaseStorageService {
                 return fileUrl; // Return original URL as fallback
             }
 
-            // Prepare request to Supabase Storage API
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(supabaseKey);
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            // Request body for signed URL
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("expiresIn", expiresInSeconds);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            // Supabase Storage API endpoint for creating signed URLs
-            String apiUrl = supabaseUrl + "/storage/v1/object/sign/" + bucket + "/" + filePath;
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    apiUrl,
-                    HttpMethod.POST,
-                    request,
-                    String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                // Parse the response to get the signed URL
-                JsonNode jsonResponse = objectMapper.readTree(response.getBody());
-                String signedToken = jsonResponse.has("signedURL")
-                        ? jsonResponse.get("signedURL").asText()
-                        : null;
-
-                if (signedToken != null) {
-                    // Construct the full signed URL
-                    String signedUrl = supabaseUrl + "/storage/v1" + signedToken;
-                    log.debug("Generated signed URL for: {}", filePath);
-                    return signedUrl;
-                } else {
-                    log.warn("Signed URL not found in response: {}", response.getBody());
-                    return fileUrl; // Return original URL as fallback
-                }
-            } else {
-                log.error("Failed to generate signed URL. Status: {}, Body: {}",
-                        response.getStatusCode(), response.getBody());
+            String cached = signedUrlCache.get(bucket, filePath, expiresInSeconds);
+            if (cached != null) {
+                return cached;
+            }
+
+            String signedUrl = backend.sign(bucket, List.of(filePath), expiresInSeconds).get(filePath);
+            if (signedUrl == null) {
                 return fileUrl; // Return original URL as fallback
             }
+            signedUrlCache.put(bucket, filePath, signedUrl, expiresInSeconds);
+            log.debug("Generated signed URL for: {}", filePath);
+            return signedUrl;
 
         } catch (Exception e) {
             log.error("Error generating signed URL for: {}", fileUrl, e);
@@ -145,6 +318,66 @@ public class SupabaseStorageService {
     }
 
 
+    /**
+     * Generate signed URLs for many files in a single backend request (Supabase multi-path sign endpoint).
+     * Cached URLs are served without a network call; only the misses are sent to the backend.
+     *
+     * @param fileUrls Full URLs (or paths) of the files, blank values are ignored
+     * @param bucket The bucket name
+     * @param expiresInSeconds Number of seconds until the URLs expire
+     * @return Map of original file URL -> signed URL (original URL as fallback when signing fails)
+     */
+    public Map<String, String> generateSignedUrls(Collection<String> fileUrls, String bucket, int expiresInSeconds) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (fileUrls == null || fileUrls.isEmpty()) {
+            return result;
+        }
+
+        // path -> original URLs that resolve to it
+        Map<String, List<String>> pending = new LinkedHashMap<>();
+        for (String fileUrl : fileUrls) {
+            if (fileUrl == null || fileUrl.isBlank() || result.containsKey(fileUrl)) {
+                continue;
+            }
+            String filePath = extractPathFromUrl(fileUrl, bucket);
+            if (filePath == null) {
+                log.warn("Could not extract path from URL: {}", fileUrl);
+                result.put(fileUrl, fileUrl);
+                continue;
+            }
+            String cached = signedUrlCache.get(bucket, filePath, expiresInSeconds);
+            if (cached != null) {
+                result.put(fileUrl, cached);
+            } else {
+                result.put(fileUrl, fileUrl); // fallback until signed below
+                pending.computeIfAbsent(filePath, p -> new ArrayList<>()).add(fileUrl);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return result;
+        }
+
+        try {
+            Map<String, String> signed = backend.sign(bucket, pending.keySet(), expiresInSeconds);
+            signed.forEach((path, signedUrl) -> {
+                List<String> originals = pending.get(path);
+                if (originals == null) {
+                    return;
+                }
+                signedUrlCache.put(bucket, path, signedUrl, expiresInSeconds);
+                originals.forEach(fileUrl -> result.put(fileUrl, signedUrl));
+            });
+            log.debug("Generated {} signed URLs in one request", signed.size());
+
+        } catch (Exception e) {
+            log.error("Error generating signed URLs for {} paths", pending.size(), e);
+        }
+
+        return result;
+    }
+
+
     /**
      * Extract the file path from a Supabase Storage URL
      *
@@ -152,7 +385,7 @@ public class SupabaseStorageService {
      * @param bucket The bucket name
      * @return File path (e.g., folder/file.jpg)
      */
-    private String extractPathFromUrl(String fileUrl, String bucket) {
+    public String extractPathFromUrl(String fileUrl, String bucket) {
         try {
             // Pattern: /storage/v1/object/public/{bucket}/{path}
             // or: /storage/v1/object/{bucket}/{path}
@@ -189,7 +422,10 @@ public class SupabaseStorageService {
 
 
     /**
-     * Delete a file from Supabase Storage (works for both public and private buckets)
+     * Schedule a file for deletion (works for both public and private buckets).
+     * The deletion is recorded in the storage_deletion_outbox table and joins the caller's
+     * transaction, so it only happens if the caller's DB change commits;
+     * StorageDeletionWorker removes the object in the background.
      *
      * @param filePathOrUrl The full URL or relative path of the file
      * @param bucket The bucket name
@@ -206,76 +442,32 @@ public class SupabaseStorageService {
             return;
         }
 
-        try {
-            // Extract the actual file path from URL if full URL is provided
-            String actualFilePath = extractPathFromUrl(filePathOrUrl, bucket);
-
-            // If extractPathFromUrl returns null, try to use the path directly
-            if (actualFilePath == null || actualFilePath.isBlank()) {
-                // Check if it's already a relative path (doesn't contain http:// or https://)
-                if (!filePathOrUrl.startsWith("http://") && !filePathOrUrl.startsWith("https://")) {
-                    actualFilePath = filePathOrUrl;
-                } else {
-                    log.warn("Could not extract file path from: {}", filePathOrUrl);
-                    return;
-                }
-            }
-
-            // Remove leading slash if present (Supabase API doesn't need it)
-            if (actualFilePath.startsWith("/")) {
-                actualFilePath = actualFilePath.substring(1);
-            }
+        // Extract the actual file path from URL if full URL is provided
+        String actualFilePath = extractPathFromUrl(filePathOrUrl, bucket);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(supabaseKey); // Use service key for private buckets
-            // Don't set Content-Type for DELETE requests - Supabase Storage API doesn't require it
-            // Setting it to application/json without a body causes 400 Bad Request
-
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-
-            // Supabase Storage DELETE endpoint format: /storage/v1/object/{bucket}/{filePath}
-            // For private buckets, this works with service key authentication
-            // Use UriComponentsBuilder to properly URL-encode the path (handles spaces, special chars, etc.)
-            String deleteUrl = UriComponentsBuilder.fromHttpUrl(supabaseUrl)
-                    .path("/storage/v1/object/{bucket}/{filePath}")
-                    .buildAndExpand(bucket, actualFilePath)
-                    .toUriString();
-
-            log.info("Attempting to delete file from Supabase (private bucket): bucket={}, path={}, url={}",
-                    bucket, actualFilePath, deleteUrl);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    deleteUrl,
-                    HttpMethod.DELETE,
-                    request,
-                    String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("Successfully deleted file from Supabase: bucket={}, path={}", bucket, actualFilePath);
+        // If extractPathFromUrl returns null, try to use the path directly
+        if (actualFilePath == null || actualFilePath.isBlank()) {
+            // Check if it's already a relative path (doesn't contain http:// or https://)
+            if (!filePathOrUrl.startsWith("http://") && !filePathOrUrl.startsWith("https://")) {
+                actualFilePath = filePathOrUrl;
             } else {
-                log.warn("Failed to delete file from Supabase. Status: {}, Response: {}",
-                        response.getStatusCode(), response.getBody());
-                // Don't throw exception - just log the warning (file might already be deleted)
-                log.warn("Continuing despite delete failure - file will be marked as DELETED in database");
+                log.warn("Could not extract file path from: {}", filePathOrUrl);
+                return;
             }
+        }
 
-        } catch (org.springframework.web.client.HttpClientErrorException e) {
-            // Handle 404 (file not found) or 403 (access denied) gracefully
-            if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                log.warn("File not found in Supabase (may already be deleted): path={}", filePathOrUrl);
-            } else if (e.getStatusCode() == HttpStatus.FORBIDDEN) {
-                log.error("Access denied when deleting file from Supabase. Check service key permissions: path={}", filePathOrUrl);
-                // Don't throw - mark as DELETED in DB anyway
-            } else {
-                log.error("HTTP error deleting file from Supabase: status={}, path={}, error={}",
-                        e.getStatusCode(), filePathOrUrl, e.getMessage());
-            }
-            // Don't throw exception - continue to mark as DELETED in database
-        } catch (Exception e) {
-            log.error("Error deleting file from Supabase: path={}, error={}", filePathOrUrl, e.getMessage(), e);
-            // Don't throw exception - continue to mark as DELETED in database
-            // The file will be marked as DELETED in the database even if physical deletion fails
+        // Remove leading slash if present (Supabase API doesn't need it)
+        if (actualFilePath.startsWith("/")) {
+            actualFilePath = actualFilePath.substring(1);
         }
+
+        // Drop any cached signed URL so the deleted object is not handed out again
+        signedUrlCache.invalidate(bucket, actualFilePath);
+
+        deletionOutboxRepository.save(StorageDeletionOutbox.builder()
+                .bucket(bucket)
+                .objectPath(actualFilePath)
+                .build());
+        log.info("Queued storage deletion: bucket={}, path={}", bucket, actualFilePath);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.tarumt.lms.service;
 
+import com.tarumt.lms.dto.UserStatusChangeLogViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.UserStatusChangeLog;
 import com.tarumt.lms.model.enums.Role;
@@ -50,7 +51,7 @@ public class UserStatusChangeLogService {
      * @param userType The user type as string (e.g., "STUDENT", "INSTRUCTOR")
      * @return List of status change logs, ordered by most recent first
      */
-    public List<UserStatusChangeLog> getLogsByUserType(String userType) {
+    public List<UserStatusChangeLogViewDTO> getLogsByUserType(String userType) {
         if (userType == null || userType.isBlank()) {
             throw new IllegalArgumentException("UserType must not be null or blank");
         }
@@ -61,7 +62,7 @@ public class UserStatusChangeLogService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid userType. Must be STUDENT or INSTRUCTOR");
         }
-        return logRepository.findByUserTypeOrderByChangedAtDesc(role);
+        return logRepository.findViewsByUserType(role);
     }
 
     /**
@@ -69,11 +70,11 @@ public class UserStatusChangeLogService {
      * @param userId The user ID
      * @return List of status change logs, ordered by most recent first
      */
-    public List<UserStatusChangeLog> getLogsByUserId(Long userId) {
+    public List<UserStatusChangeLogViewDTO> getLogsByUserId(Long userId) {
         if (userId == null) {
             throw new IllegalArgumentException("UserId must not be null");
         }
-        return logRepository.findByUserIdOrderByChangedAtDesc(userId);
+        return logRepository.findViewsByUserId(userId);
     }
 
     /**
@@ -82,7 +83,7 @@ public class UserStatusChangeLogService {
      * @param userId The user ID
      * @return List of status change logs, ordered by most recent first
      */
-    public List<UserStatusChangeLog> getLogsByUserTypeAndUserId(String userType, Long userId) {
+    public List<UserStatusChangeLogViewDTO> getLogsByUserTypeAndUserId(String userType, Long userId) {
         if (userType == null || userType.isBlank()) {
             throw new IllegalArgumentException("UserType must not be null or blank");
         }
@@ -96,7 +97,7 @@ public class UserStatusChangeLogService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid userType. Must be STUDENT or INSTRUCTOR");
         }
-        return logRepository.findByUserTypeAndUserIdOrderByChangedAtDesc(role, userId);
+        return logRepository.findViewsByUserTypeAndUserId(role, userId);
     }
 }
 
@@ -0,0 +1,169 @@
+package com.tarumt.lms.service.storage;
+
+import com.tarumt.lms.repo.InstructorQualificationRepository;
+import com.tarumt.lms.service.SupabaseStorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Renders a small PNG of the first page of each certificate PDF so admins can review
+ * submissions without downloading the full document. The preview is stored next to the
+ * original as {path}.preview.png and its URL is saved in certificate_preview.
+ *
+ * Rendering runs in the background: a sweep picks up certificates without a preview,
+ * and submitRequirements nudges it right after new certificates are committed.
+ */
+@Slf4j
+@Service
+public class CertificatePreviewService {
+
+    public static final String PREVIEW_SUFFIX = ".preview.png";
+    public static final String PREVIEW_FAILED = "FAILED";
+
+    @Value("${supabase.bucket.name}")
+    private String bucketName;
+
+    @Value("${storage.preview.width-px:480}")
+    private int previewWidth;
+
+    @Value("${storage.preview.batch-size:20}")
+    private int batchSize;
+
+    @Autowired
+    private StorageBackend backend;
+
+    @Autowired
+    private SupabaseStorageService storageService;
+
+    @Autowired
+    private InstructorQualificationRepository instructorQualificationRepository;
+
+    // One renderer thread: previews are CPU heavy and never on a request path
+    private final ExecutorService renderer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "certificate-preview");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean sweepQueued = new AtomicBoolean();
+
+    /**
+     * Ask for a sweep soon, e.g. after new certificates were committed.
+     * Requests made while a sweep is already queued are coalesced.
+     */
+    public void requestPreviews() {
+        if (sweepQueued.compareAndSet(false, true)) {
+            renderer.execute(this::sweep);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storage.preview.sweep-interval-ms:300000}",
+            initialDelayString = "${storage.preview.sweep-interval-ms:300000}")
+    public void scheduledSweep() {
+        requestPreviews();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderer.shutdownNow();
+    }
+
+    private void sweep() {
+        sweepQueued.set(false);
+        try {
+            List<String> documents;
+            do {
+                documents = instructorQualificationRepository.findDocumentsWithoutPreview(PageRequest.of(0, batchSize));
+                documents.forEach(this::generatePreview);
+            } while (documents.size() == batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            log.error("Certificate preview sweep failed", e);
+        }
+    }
+
+    private void generatePreview(String documentUrl) {
+        String path = storageService.extractPathFromUrl(documentUrl, bucketName);
+        if (path == null) {
+            log.warn("Cannot preview certificate with unrecognised URL: {}", documentUrl);
+            instructorQualificationRepository.setCertificatePreview(documentUrl, PREVIEW_FAILED);
+            return;
+        }
+        String previewPath = path + PREVIEW_SUFFIX;
+
+        Path pdf = null;
+        Path png = null;
+        try {
+            // Identical certificates share their object, so the preview may already exist
+            if (!backend.exists(bucketName, previewPath)) {
+                pdf = Files.createTempFile("certificate-", ".pdf");
+                png = Files.createTempFile("certificate-", PREVIEW_SUFFIX);
+                backend.download(bucketName, path, pdf);
+                render(pdf, png);
+                backend.upload(bucketName, previewPath, new FileSystemResource(png), Files.size(png), "image/png");
+            }
+            instructorQualificationRepository.setCertificatePreview(documentUrl, backend.objectUrl(bucketName, previewPath));
+            log.info("Generated certificate preview: {}", previewPath);
+        } catch (IOException e) {
+            // Unreadable or missing PDF: mark it so the sweep does not retry forever
+            log.warn("Failed to generate preview for {}: {}", documentUrl, e.getMessage());
+            instructorQualificationRepository.setCertificatePreview(documentUrl, PREVIEW_FAILED);
+        } catch (RuntimeException e) {
+            // Storage or DB unavailable: leave the row for the next sweep
+            log.warn("Preview generation for {} will be retried: {}", documentUrl, e.getMessage());
+        } finally {
+            deleteQuietly(pdf);
+            deleteQuietly(png);
+        }
+    }
+
+    private void render(Path pdf, Path png) throws IOException {
+        // Temp-file stream cache keeps large PDFs off the heap while parsing
+        try (PDDocument document = Loader.loadPDF(pdf.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            if (document.getNumberOfPages() == 0) {
+                throw new IOException("PDF has no pages");
+            }
+            PDPage firstPage = document.getPage(0);
+            float pageWidth = firstPage.getCropBox().getWidth();
+            // Rotated pages are rendered sideways; their visible width is the box height
+            if (firstPage.getRotation() % 180 != 0) {
+                pageWidth = firstPage.getCropBox().getHeight();
+            }
+            float scale = pageWidth > 0 ? previewWidth / pageWidth : 1f;
+
+            BufferedImage image = new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+            ImageIO.write(image, "png", png.toFile());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete temp file {}", file, e);
+        }
+    }
+}
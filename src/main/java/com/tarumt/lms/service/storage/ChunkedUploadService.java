@@ -0,0 +1,355 @@
+package com.tarumt.lms.service.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Resumable (tus-style) uploads: a client creates an upload with its total length,
+ * PATCHes chunks at the current offset and, once complete, references the upload id
+ * when submitting requirements. Chunks are appended to a temp file, so server memory
+ * and retry cost are proportional to the chunk size, not the file size.
+ *
+ * State lives entirely on disk ({id}.part + {id}.properties): the size of the part file
+ * is the offset, so an interrupted chunk resumes from whatever reached the disk, and its
+ * modification time is the last activity an idle upload expires from. Each instructor may
+ * have a limited number of open uploads.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+    public static final long MAX_UPLOAD_LENGTH = 10 * 1024 * 1024;
+
+    private final Path directory;
+    private final Duration expiry;
+    private final int maxOpenUploads;
+    private final ConcurrentHashMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+    // Serializes create() per instructor so concurrent requests cannot slip past the open-upload cap
+    private final ConcurrentHashMap<Long, ReentrantLock> instructorLocks = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(@Value("${storage.chunked.dir:${java.io.tmpdir}/lms-chunked-uploads}") String directory,
+                                @Value("${storage.chunked.expiry-hours:24}") long expiryHours,
+                                @Value("${storage.chunked.max-open-per-instructor:5}") int maxOpenUploads) throws IOException {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.expiry = Duration.ofHours(expiryHours);
+        this.maxOpenUploads = maxOpenUploads;
+        Files.createDirectories(this.directory);
+    }
+
+    public Upload create(Long instructorId, long length, String filename, String contentType) throws IOException {
+        if (length <= 0 || length > MAX_UPLOAD_LENGTH) {
+            throw new IllegalArgumentException("Upload length must be between 1 byte and 10 MB");
+        }
+        if (!"application/pdf".equals(contentType)) {
+            throw new IllegalArgumentException("Only PDF files are allowed for certificates");
+        }
+
+        ReentrantLock instructorLock = instructorLocks.computeIfAbsent(instructorId, id -> new ReentrantLock());
+        instructorLock.lock();
+        try {
+            if (openUploads(instructorId) >= maxOpenUploads) {
+                throw new IllegalStateException("Too many unfinished uploads; complete or wait for earlier ones to expire");
+            }
+            return createUpload(instructorId, length, filename, contentType);
+        } finally {
+            instructorLock.unlock();
+        }
+    }
+
+    private Upload createUpload(Long instructorId, long length, String filename, String contentType) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Properties info = new Properties();
+        info.setProperty("instructorId", String.valueOf(instructorId));
+        info.setProperty("length", String.valueOf(length));
+        info.setProperty("filename", filename != null && !filename.isBlank() ? filename : "certificate.pdf");
+        info.setProperty("contentType", contentType);
+        info.setProperty("createdAt", Instant.now().toString());
+
+        // Write metadata first and atomically: an upload exists once its properties file does, and a
+        // part file only ever follows it (a crash in between leaves an upload at offset 0, not an orphan)
+        Path temp = Files.createTempFile(directory, uploadId, ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp)) {
+            info.store(writer, null);
+        }
+        Files.move(temp, infoFile(uploadId), StandardCopyOption.ATOMIC_MOVE);
+        Files.createFile(partFile(uploadId));
+
+        log.info("Created chunked upload id={} for instructorId={}, length={}", uploadId, instructorId, length);
+        return load(uploadId);
+    }
+
+    /**
+     * Append a chunk that starts at clientOffset.
+     *
+     * @return the new offset
+     * @throws IllegalStateException if clientOffset does not match the stored offset
+     *                               or another chunk for the same upload is in progress
+     */
+    public long append(String uploadId, Long instructorId, long clientOffset, InputStream body) throws IOException {
+        Upload upload = get(uploadId, instructorId);
+        ReentrantLock lock = locks.computeIfAbsent(uploadId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new IllegalStateException("Another chunk is being written to this upload");
+        }
+        try (FileChannel out = FileChannel.open(partFile(uploadId), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = out.size();
+            if (offset != clientOffset) {
+                throw new IllegalStateException("Upload-Offset " + clientOffset + " does not match current offset " + offset);
+            }
+
+            // Copy straight from the request stream to the file; stops at the declared length
+            ReadableByteChannel in = Channels.newChannel(body);
+            long remaining = upload.getLength() - offset;
+            while (remaining > 0) {
+                long transferred = out.transferFrom(in, offset, remaining);
+                if (transferred <= 0) {
+                    break;
+                }
+                offset += transferred;
+                remaining -= transferred;
+            }
+            if (remaining == 0 && body.read() != -1) {
+                throw new IllegalArgumentException("Chunk exceeds the declared upload length");
+            }
+            out.force(false);
+            return offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Upload get(String uploadId, Long instructorId) throws IOException {
+        Upload upload = load(uploadId);
+        if (!upload.getInstructorId().equals(instructorId)) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+        return upload;
+    }
+
+    /**
+     * Wrap a finished upload as a MultipartFile so it goes through the regular submission path
+     */
+    public MultipartFile completedFile(String uploadId, Long instructorId) throws IOException {
+        Upload upload = get(uploadId, instructorId);
+        if (!upload.isComplete()) {
+            throw new IllegalArgumentException("Upload " + uploadId + " is incomplete (" + upload.getOffset() + "/" + upload.getLength() + " bytes)");
+        }
+        return new CompletedUploadFile(upload);
+    }
+
+    public void delete(String uploadId) {
+        try {
+            Files.deleteIfExists(infoFile(uploadId));
+            Files.deleteIfExists(partFile(uploadId));
+            locks.remove(uploadId);
+        } catch (IOException e) {
+            log.warn("Failed to remove chunked upload id={}", uploadId, e);
+        }
+    }
+
+    // Abandoned uploads are removed once they have been idle for the expiry period, along with part
+    // and temp files whose upload is gone (a failed delete, or a crash while writing metadata)
+    @Scheduled(fixedDelayString = "${storage.chunked.cleanup-interval-ms:3600000}")
+    public void removeExpiredUploads() {
+        Instant cutoff = Instant.now().minus(expiry);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                try {
+                    if (name.endsWith(".properties")) {
+                        String uploadId = name.substring(0, name.length() - ".properties".length());
+                        if (load(uploadId).getLastActivityAt().isBefore(cutoff)) {
+                            log.info("Removing expired chunked upload id={}", uploadId);
+                            delete(uploadId);
+                        }
+                    } else if (name.endsWith(".part")) {
+                        // Metadata is written before the part file, so a part file without it is never mid-create
+                        if (!Files.exists(directory.resolve(name.replace(".part", ".properties")))) {
+                            log.info("Removing orphaned chunked upload part {}", name);
+                            Files.deleteIfExists(file);
+                        }
+                    } else if (name.endsWith(".tmp") && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable chunked upload file {}", name, e);
+                }
+            });
+        } catch (IOException e) {
+            log.error("Failed to scan chunked upload directory {}", directory, e);
+        }
+    }
+
+    // Uploads of this instructor that have not expired yet, finished or not (submitted ones are deleted)
+    private long openUploads(Long instructorId) throws IOException {
+        Instant cutoff = Instant.now().minus(expiry);
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(".properties"))
+                    .map(name -> name.substring(0, name.length() - ".properties".length()))
+                    .filter(uploadId -> {
+                        try {
+                            Upload upload = load(uploadId);
+                            return upload.getInstructorId().equals(instructorId) && !upload.getLastActivityAt().isBefore(cutoff);
+                        } catch (IOException | RuntimeException e) {
+                            return false;
+                        }
+                    })
+                    .count();
+        }
+    }
+
+    private Upload load(String uploadId) throws IOException {
+        // Upload ids are UUIDs; anything else could point outside the directory
+        try {
+            UUID.fromString(uploadId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+        Path info = infoFile(uploadId);
+        if (!Files.exists(info)) {
+            throw new IllegalArgumentException("Upload not found: " + uploadId);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(info)) {
+            properties.load(reader);
+        }
+        Instant createdAt = Instant.parse(properties.getProperty("createdAt"));
+        Path part = partFile(uploadId);
+        boolean started = Files.exists(part);
+        // Every appended chunk touches the part file, so its modification time is the last activity
+        Instant lastChunkAt = started ? Files.getLastModifiedTime(part).toInstant() : createdAt;
+        return new Upload(
+                uploadId,
+                Long.valueOf(properties.getProperty("instructorId")),
+                Long.parseLong(properties.getProperty("length")),
+                started ? Files.size(part) : 0,
+                properties.getProperty("filename"),
+                properties.getProperty("contentType"),
+                createdAt,
+                lastChunkAt.isAfter(createdAt) ? lastChunkAt : createdAt,
+                part);
+    }
+
+    private Path partFile(String uploadId) {
+        return directory.resolve(uploadId + ".part");
+    }
+
+    private Path infoFile(String uploadId) {
+        return directory.resolve(uploadId + ".properties");
+    }
+
+    @Getter
+    public static class Upload {
+        private final String uploadId;
+        private final Long instructorId;
+        private final long length;
+        private final long offset;
+        private final String filename;
+        private final String contentType;
+        private final Instant createdAt;
+        private final Instant lastActivityAt;
+        private final Path file;
+
+        private Upload(String uploadId, Long instructorId, long length, long offset, String filename,
+                       String contentType, Instant createdAt, Instant lastActivityAt, Path file) {
+            this.uploadId = uploadId;
+            this.instructorId = instructorId;
+            this.length = length;
+            this.offset = offset;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.createdAt = createdAt;
+            this.lastActivityAt = lastActivityAt;
+            this.file = file;
+        }
+
+        public boolean isComplete() {
+            return offset == length;
+        }
+    }
+
+    /**
+     * Completed upload exposed through the MultipartFile interface, backed by the part file
+     */
+    private static class CompletedUploadFile implements MultipartFile {
+
+        private final Upload upload;
+
+        private CompletedUploadFile(Upload upload) {
+            this.upload = upload;
+        }
+
+        @Override
+        public String getName() {
+            return upload.getUploadId();
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return upload.getFilename();
+        }
+
+        @Override
+        public String getContentType() {
+            return upload.getContentType();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return upload.getLength() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return upload.getLength();
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(upload.getFile());
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(upload.getFile());
+        }
+
+        @Override
+        public Resource getResource() {
+            return new FileSystemResource(upload.getFile());
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(upload.getFile(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.tarumt.lms.service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU cache of private storage objects on local disk, used by the document
+ * download endpoint. Each entry is the object's bytes ({key}.bin) plus the SHA-256 of the
+ * content ({key}.sha256), which is served as a strong ETag.
+ * The cache survives restarts: existing entries are re-indexed on startup.
+ */
+@Slf4j
+@Service
+public class DocumentDiskCache {
+
+    private final Path directory;
+    private final long maxBytes;
+
+    @Autowired
+    private StorageBackend backend;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final ConcurrentHashMap<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    public DocumentDiskCache(@Value("${storage.download-cache.dir:${java.io.tmpdir}/lms-document-cache}") String directory,
+                             @Value("${storage.download-cache.max-mb:512}") long maxMegabytes) throws IOException {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.maxBytes = maxMegabytes * 1024 * 1024;
+        Files.createDirectories(this.directory);
+        reindex();
+    }
+
+    /**
+     * Return the cached copy of an object, downloading it from the storage backend on a miss.
+     * Concurrent misses for the same object share one download.
+     */
+    public CachedDocument get(String bucket, String path) throws IOException {
+        String key = key(bucket, path);
+        String filename = path.substring(path.lastIndexOf('/') + 1);
+        CachedDocument cached = lookup(key, filename);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object lock = loadLocks.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (lock) {
+                cached = lookup(key, filename);
+                if (cached != null) {
+                    return cached;
+                }
+                return load(bucket, path, key, filename);
+            }
+        } finally {
+            loadLocks.remove(key, lock);
+        }
+    }
+
+    public void invalidate(String bucket, String path) {
+        String key = key(bucket, path);
+        synchronized (sizes) {
+            Long size = sizes.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+        deleteEntryFiles(key);
+    }
+
+    private CachedDocument lookup(String key, String filename) throws IOException {
+        synchronized (sizes) {
+            if (sizes.get(key) == null) {
+                return null;
+            }
+        }
+        Path data = dataFile(key);
+        Path hash = hashFile(key);
+        if (!Files.exists(data) || !Files.exists(hash)) {
+            return null;
+        }
+        return new CachedDocument(data, filename, Files.size(data), Files.readString(hash, StandardCharsets.US_ASCII));
+    }
+
+    private CachedDocument load(String bucket, String path, String key, String filename) throws IOException {
+        Path temp = Files.createTempFile(directory, key, ".download");
+        try {
+            backend.download(bucket, path, temp);
+            String sha256 = sha256(temp);
+            long size = Files.size(temp);
+
+            Files.writeString(hashFile(key), sha256, StandardCharsets.US_ASCII);
+            Files.move(temp, dataFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Cached document bucket={}, path={}, bytes={}", bucket, path, size);
+
+            synchronized (sizes) {
+                Long previous = sizes.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evictIfNeeded(key);
+            }
+            return new CachedDocument(dataFile(key), filename, size, sha256);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Caller holds the sizes lock; the entry just added is never evicted
+    private void evictIfNeeded(String keep) {
+        Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+            // Unlinking is safe while a response is still reading the file on Linux/macOS
+            deleteEntryFiles(entry.getKey());
+        }
+    }
+
+    private void reindex() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".download"))
+                    .forEach(this::deleteQuietly);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".bin"))
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .forEach(file -> {
+                        String key = file.getFileName().toString().replace(".bin", "");
+                        if (!Files.exists(hashFile(key))) {
+                            deleteQuietly(file);
+                            return;
+                        }
+                        long size = file.toFile().length();
+                        sizes.put(key, size);
+                        totalBytes += size;
+                    });
+        }
+        synchronized (sizes) {
+            evictIfNeeded(null);
+        }
+        log.info("Document cache at {}: {} entries, {} bytes", directory, sizes.size(), totalBytes);
+    }
+
+    private long lastModified(Path file) {
+        return file.toFile().lastModified();
+    }
+
+    private void deleteEntryFiles(String key) {
+        deleteQuietly(dataFile(key));
+        deleteQuietly(hashFile(key));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete cached file {}", file, e);
+        }
+    }
+
+    private Path dataFile(String key) {
+        return directory.resolve(key + ".bin");
+    }
+
+    private Path hashFile(String key) {
+        return directory.resolve(key + ".sha256");
+    }
+
+    private static String key(String bucket, String path) {
+        return HexFormat.of().formatHex(digest().digest((bucket + "/" + path).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = digest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedDocument {
+        private final Path file;
+        private final String filename;
+        private final long size;
+        private final String sha256;
+    }
+}
@@ -0,0 +1,140 @@
+package com.tarumt.lms.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Local filesystem implementation for development, tests and on-prem nodes.
+ * Objects live at {storage.local.root}/{bucket}/{path}; there is no access control,
+ * so "signed" URLs are plain file URIs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalFileSystemStorageBackend implements StorageBackend {
+
+    public static final String URL_PREFIX = "local://";
+
+    private final Path root;
+
+    public LocalFileSystemStorageBackend(@Value("${storage.local.root:${java.io.tmpdir}/lms-storage}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public boolean exists(String bucket, String path) {
+        return Files.isRegularFile(resolve(bucket, path));
+    }
+
+    @Override
+    public void upload(String bucket, String path, Resource content, long contentLength, String contentType) throws IOException {
+        Path target = resolve(bucket, path);
+        Files.createDirectories(target.getParent());
+
+        // Write next to the target and move into place so readers never see a partial object
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try (ReadableByteChannel source = content.readableChannel();
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // FileChannel.transferFrom lets the OS copy file-backed sources without a user-space buffer
+            long position = 0;
+            while (position < contentLength) {
+                long transferred = out.transferFrom(source, position, contentLength - position);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+            if (position != contentLength) {
+                throw new IOException("Expected " + contentLength + " bytes but received " + position);
+            }
+            out.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Stored {} bytes at {}", contentLength, target);
+    }
+
+    @Override
+    public void download(String bucket, String path, Path target) throws IOException {
+        Files.copy(resolve(bucket, path), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void delete(String bucket, Collection<String> paths) throws IOException {
+        for (String path : paths) {
+            if (!Files.deleteIfExists(resolve(bucket, path))) {
+                log.warn("File not found in local storage (may already be deleted): bucket={}, path={}", bucket, path);
+            }
+        }
+    }
+
+    @Override
+    public String objectUrl(String bucket, String path) {
+        return URL_PREFIX + bucket + "/" + path;
+    }
+
+    @Override
+    public Map<String, String> sign(String bucket, Collection<String> paths, int expiresInSeconds) {
+        Map<String, String> signed = new LinkedHashMap<>();
+        for (String path : paths) {
+            Path file = resolve(bucket, path);
+            if (Files.isRegularFile(file)) {
+                signed.put(path, file.toUri().toString());
+            }
+        }
+        return signed;
+    }
+
+    @Override
+    public void list(String bucket, Consumer<StorageObjectSummary> consumer) throws IOException {
+        Path bucketRoot = root.resolve(bucket);
+        if (!Files.isDirectory(bucketRoot)) {
+            return;
+        }
+        // Files.walk is lazy, so large trees are not materialised
+        try (Stream<Path> files = Files.walk(bucketRoot)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith(".upload-"))
+                    .forEach(file -> {
+                        try {
+                            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                            String path = bucketRoot.relativize(file).toString().replace(File.separatorChar, '/');
+                            consumer.accept(new StorageObjectSummary(path, attributes.creationTime().toInstant()));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        }
+    }
+
+    public Path resolve(String bucket, String path) {
+        Path resolved = root.resolve(bucket).resolve(path).normalize();
+        // Reject "../" tricks that would escape the storage root
+        if (!resolved.startsWith(root.resolve(bucket))) {
+            throw new IllegalArgumentException("Invalid storage path: " + path);
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tarumt.lms.service.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Object store behind SupabaseStorageService.
+ * Paths are bucket-relative (e.g. certificates/ab12...ef.pdf); implementations are selected with storage.backend.
+ */
+public interface StorageBackend {
+
+    /**
+     * @return true if an object is already stored at the path
+     */
+    boolean exists(String bucket, String path) throws IOException;
+
+    /**
+     * Store content at the path, replacing any existing object.
+     * The content is streamed; implementations must not load it fully into memory.
+     */
+    void upload(String bucket, String path, Resource content, long contentLength, String contentType) throws IOException;
+
+    /**
+     * Stream the object at the path into a local file
+     */
+    void download(String bucket, String path, Path target) throws IOException;
+
+    /**
+     * Delete the objects at the given paths in as few requests as the backend allows.
+     * Missing objects are not an error.
+     */
+    void delete(String bucket, Collection<String> paths) throws IOException;
+
+    /**
+     * @return the URL persisted in the database for an object
+     */
+    String objectUrl(String bucket, String path);
+
+    /**
+     * Create time-limited URLs for reading private objects.
+     *
+     * @return path -> signed URL, paths that could not be signed are left out
+     */
+    Map<String, String> sign(String bucket, Collection<String> paths, int expiresInSeconds) throws IOException;
+
+    /**
+     * Stream every object in the bucket (recursively) to the consumer, page by page,
+     * without holding the whole listing in memory.
+     */
+    void list(String bucket, Consumer<StorageObjectSummary> consumer) throws IOException;
+}
@@ -0,0 +1,130 @@
+package com.tarumt.lms.service.storage;
+
+import com.tarumt.lms.model.StorageDeletionOutbox;
+import com.tarumt.lms.repo.InstructorQualificationRepository;
+import com.tarumt.lms.repo.InstructorRepository;
+import com.tarumt.lms.repo.StorageDeletionOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drains storage_deletion_outbox: claims due rows, deletes their objects with one
+ * multi-object request per bucket and removes the rows. Failed batches are retried
+ * with capped exponential backoff; rows are never dropped until the delete succeeds.
+ */
+@Slf4j
+@Component
+public class StorageDeletionWorker {
+
+    @Value("${storage.deletion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${storage.deletion.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${storage.deletion.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Autowired
+    private StorageDeletionOutboxRepository outboxRepository;
+
+    @Autowired
+    private InstructorQualificationRepository instructorQualificationRepository;
+
+    @Autowired
+    private InstructorRepository instructorRepository;
+
+    @Autowired
+    private StorageBackend backend;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DocumentDiskCache documentDiskCache;
+
+    @Scheduled(fixedDelayString = "${storage.deletion.poll-interval-ms:10000}",
+            initialDelayString = "${storage.deletion.poll-interval-ms:10000}")
+    public void drain() {
+        try {
+            Integer claimed;
+            do {
+                claimed = transactionTemplate.execute(status -> processBatch());
+            } while (claimed != null && claimed == batchSize);
+        } catch (Exception e) {
+            log.error("Storage deletion worker failed", e);
+        }
+    }
+
+    private int processBatch() {
+        List<StorageDeletionOutbox> batch = outboxRepository.lockDueBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<StorageDeletionOutbox>> byBucket = new LinkedHashMap<>();
+        batch.forEach(row -> byBucket.computeIfAbsent(row.getBucket(), b -> new ArrayList<>()).add(row));
+
+        byBucket.forEach((bucket, rows) -> {
+            // Content-addressed objects may have been re-referenced since the delete was queued
+            Set<String> referenced = referencedUrls(bucket, rows);
+            List<StorageDeletionOutbox> deletable = new ArrayList<>();
+            for (StorageDeletionOutbox row : rows) {
+                if (referenced.contains(backend.objectUrl(bucket, row.getObjectPath()))) {
+                    log.info("Skipping queued deletion of referenced object: bucket={}, path={}", bucket, row.getObjectPath());
+                } else {
+                    deletable.add(row);
+                }
+            }
+
+            try {
+                backend.delete(bucket, deletable.stream().map(StorageDeletionOutbox::getObjectPath).distinct().toList());
+                deletable.forEach(row -> documentDiskCache.invalidate(bucket, row.getObjectPath()));
+                outboxRepository.deleteAll(rows);
+            } catch (Exception e) {
+                log.warn("Batch delete of {} objects failed for bucket={}, will retry: {}", deletable.size(), bucket, e.getMessage());
+                deletable.forEach(row -> reschedule(row, e));
+                outboxRepository.saveAll(deletable);
+                rows.stream().filter(row -> !deletable.contains(row)).forEach(outboxRepository::delete);
+            }
+        });
+        return batch.size();
+    }
+
+    private Set<String> referencedUrls(String bucket, List<StorageDeletionOutbox> rows) {
+        List<String> urls = rows.stream().map(row -> backend.objectUrl(bucket, row.getObjectPath())).toList();
+        Set<String> referenced = new HashSet<>(instructorQualificationRepository.findReferencedCertificateDocuments(urls));
+        referenced.addAll(instructorQualificationRepository.findReferencedCertificatePreviews(urls));
+        referenced.addAll(instructorRepository.findReferencedDigitalSignatures(urls));
+        return referenced;
+    }
+
+    private void reschedule(StorageDeletionOutbox row, Exception error) {
+        int attempts = row.getAttempts() + 1;
+        // 30s, 60s, 120s ... capped, with up to 10% jitter so retries from many rows spread out
+        long backoff = Math.min(maxBackoffSeconds, initialBackoffSeconds << Math.min(attempts - 1, 20));
+        backoff += ThreadLocalRandom.current().nextLong(backoff / 10 + 1);
+
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        row.setAttempts(attempts);
+        row.setNextAttemptAt(OffsetDateTime.now().plusSeconds(backoff));
+        row.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (attempts >= 10) {
+            log.error("Storage deletion still failing after {} attempts: bucket={}, path={}", attempts, row.getBucket(), row.getObjectPath());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.tarumt.lms.service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * One entry of a bucket listing
+ */
+@Getter
+@AllArgsConstructor
+public class StorageObjectSummary {
+
+    private final String path;
+
+    // null when the backend does not report it
+    private final Instant createdAt;
+}
@@ -0,0 +1,186 @@
+package com.tarumt.lms.service.storage;
+
+import com.tarumt.lms.model.StorageDeletionOutbox;
+import com.tarumt.lms.repo.StorageDeletionOutboxRepository;
+import com.tarumt.lms.service.SupabaseStorageService;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds storage objects that no database row references any more (failed submissions,
+ * rollbacks after upload, lost deletes) and reports them, or queues them for deletion
+ * when storage.reconciliation.delete-orphans is enabled.
+ *
+ * Memory stays bounded for millions of objects: referenced paths are streamed from
+ * Postgres with a server-side cursor into a Bloom filter, and the bucket listing is
+ * streamed page by page and checked against it.
+ */
+@Slf4j
+@Component
+public class StorageReconciliationJob {
+
+    private static final String REFERENCED_DOCUMENTS_SQL =
+            "SELECT certificate_document FROM instructorqualification WHERE certificate_document IS NOT NULL " +
+            "UNION ALL SELECT certificate_preview FROM instructorqualification WHERE certificate_preview IS NOT NULL " +
+            "UNION ALL SELECT digital_signature FROM instructor WHERE digital_signature IS NOT NULL";
+
+    private static final String COUNT_REFERENCED_DOCUMENTS_SQL =
+            "SELECT (SELECT count(*) FROM instructorqualification WHERE certificate_document IS NOT NULL) + " +
+            "(SELECT count(*) FROM instructorqualification WHERE certificate_preview IS NOT NULL) + " +
+            "(SELECT count(*) FROM instructor WHERE digital_signature IS NOT NULL)";
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int QUEUE_BATCH_SIZE = 500;
+    private static final int MAX_LOGGED_ORPHANS = 100;
+
+    @Value("${supabase.bucket.name}")
+    private String bucketName;
+
+    @Value("${storage.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.reconciliation.delete-orphans:false}")
+    private boolean deleteOrphans;
+
+    @Value("${storage.reconciliation.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    @Value("${storage.reconciliation.false-positive-rate:0.0001}")
+    private double falsePositiveRate;
+
+    @Autowired
+    private StorageBackend backend;
+
+    @Autowired
+    private SupabaseStorageService storageService;
+
+    @Autowired
+    private StorageDeletionOutboxRepository outboxRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public StorageReconciliationJob(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Postgres only streams with a cursor (instead of buffering the result) when
+        // a fetch size is set and autocommit is off, i.e. inside a transaction
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${storage.reconciliation.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    public Report reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Storage reconciliation already running, skipping");
+            return null;
+        }
+        try {
+            Report report = new Report(bucketName, deleteOrphans);
+            BloomFilter referenced = loadReferencedPaths(report);
+            Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+
+            List<StorageDeletionOutbox> toQueue = new ArrayList<>();
+            backend.list(bucketName, object -> {
+                report.scanned++;
+                if (referenced.mightContain(object.getPath())) {
+                    return;
+                }
+                // Recent objects may belong to a submission whose transaction has not committed yet
+                if (object.getCreatedAt() == null || object.getCreatedAt().isAfter(cutoff)) {
+                    report.withinGracePeriod++;
+                    return;
+                }
+
+                report.orphans++;
+                if (report.orphans <= MAX_LOGGED_ORPHANS) {
+                    log.info("Orphaned storage object: bucket={}, path={}, createdAt={}", bucketName, object.getPath(), object.getCreatedAt());
+                }
+                if (deleteOrphans && !outboxRepository.existsByBucketAndObjectPath(bucketName, object.getPath())) {
+                    toQueue.add(StorageDeletionOutbox.builder().bucket(bucketName).objectPath(object.getPath()).build());
+                    if (toQueue.size() >= QUEUE_BATCH_SIZE) {
+                        report.queued += flush(toQueue);
+                    }
+                }
+            });
+            report.queued += flush(toQueue);
+
+            log.info("Storage reconciliation finished: {}", report);
+            return report;
+        } catch (Exception e) {
+            log.error("Storage reconciliation failed for bucket={}", bucketName, e);
+            return null;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BloomFilter loadReferencedPaths(Report report) {
+        return readOnlyTransaction.execute(status -> {
+            Long expected = jdbcTemplate.queryForObject(COUNT_REFERENCED_DOCUMENTS_SQL, Long.class);
+            BloomFilter filter = new BloomFilter(expected != null ? expected : 0, falsePositiveRate);
+            jdbcTemplate.query(REFERENCED_DOCUMENTS_SQL, rs -> {
+                String document = rs.getString(1);
+                if (document.isBlank() || document.equals("DELETED") || document.equals(CertificatePreviewService.PREVIEW_FAILED)) {
+                    return;
+                }
+                String path = storageService.extractPathFromUrl(document, bucketName);
+                filter.add(path != null ? path : document);
+                report.referenced++;
+            });
+            report.filterBytes = filter.sizeInBytes();
+            return filter;
+        });
+    }
+
+    private int flush(List<StorageDeletionOutbox> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        // StorageDeletionWorker re-checks references before anything is deleted
+        outboxRepository.saveAll(rows);
+        int count = rows.size();
+        rows.clear();
+        return count;
+    }
+
+    @Getter
+    @ToString
+    public static class Report {
+        private final String bucket;
+        private final boolean deleteOrphans;
+        private long referenced;
+        private long filterBytes;
+        private long scanned;
+        private long withinGracePeriod;
+        private long orphans;
+        private long queued;
+
+        private Report(String bucket, boolean deleteOrphans) {
+            this.bucket = bucket;
+            this.deleteOrphans = deleteOrphans;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.tarumt.lms.service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of storing content: the object URL and whether this call created it
+ * (false when identical content was already stored and the upload was skipped).
+ */
+@Getter
+@AllArgsConstructor
+public class StoredObject {
+
+    private final String url;
+    private final boolean created;
+}
@@ -0,0 +1,264 @@
+package com.tarumt.lms.service.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Supabase Storage REST implementation (default backend)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "supabase", matchIfMissing = true)
+public class SupabaseStorageBackend implements StorageBackend {
+
+    @Value("${supabase.url}")
+    private String supabaseUrl;
+
+    @Value("${supabase.service-key}")
+    private String supabaseKey;
+
+    @Autowired
+    @Qualifier("storageRestTemplate")
+    private RestTemplate restTemplate;
+
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    // Zero-byte object the Supabase dashboard creates to keep an empty folder; never referenced by a row
+    private static final String EMPTY_FOLDER_PLACEHOLDER = ".emptyFolderPlaceholder";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public boolean exists(String bucket, String path) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(supabaseKey);
+        try {
+            ResponseEntity<Void> response = restTemplate.exchange(
+                    objectEndpoint(bucket, path), HttpMethod.HEAD, new HttpEntity<>(headers), Void.class);
+            return response.getStatusCode().is2xxSuccessful();
+        } catch (HttpClientErrorException e) {
+            // Supabase answers 400 or 404 for missing objects
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND || e.getStatusCode() == HttpStatus.BAD_REQUEST) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void upload(String bucket, String path, Resource content, long contentLength, String contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(supabaseKey);
+        headers.setContentType(MediaType.parseMediaType(contentType)); // <-- use correct MIME type
+        // A known length lets the connection use fixed-length streaming instead of buffering the body
+        headers.setContentLength(contentLength);
+
+        HttpEntity<Resource> request = new HttpEntity<>(content, headers);
+
+        ResponseEntity<String> response = restTemplate.exchange(objectEndpoint(bucket, path), HttpMethod.PUT, request, String.class);
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("Supabase upload failed: " + response.getBody());
+        }
+    }
+
+    @Override
+    public void download(String bucket, String path, Path target) {
+        restTemplate.execute(objectEndpoint(bucket, path), HttpMethod.GET,
+                request -> request.getHeaders().setBearerAuth(supabaseKey),
+                response -> {
+                    // Copy the body straight to disk instead of reading it into a byte[]
+                    Files.copy(response.getBody(), target, StandardCopyOption.REPLACE_EXISTING);
+                    return null;
+                });
+    }
+
+    @Override
+    public void delete(String bucket, Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(supabaseKey); // Use service key for private buckets
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // Multi-object delete: DELETE /storage/v1/object/{bucket} with {"prefixes": [...]}
+        // Objects that no longer exist are simply absent from the response
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("prefixes", new ArrayList<>(paths));
+
+        String deleteUrl = UriComponentsBuilder.fromHttpUrl(supabaseUrl)
+                .path("/storage/v1/object/{bucket}")
+                .buildAndExpand(bucket)
+                .toUriString();
+
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(
+                    deleteUrl,
+                    HttpMethod.DELETE,
+                    new HttpEntity<>(requestBody, headers),
+                    String.class
+            );
+
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new RuntimeException("Supabase delete failed: " + response.getStatusCode() + " " + response.getBody());
+            }
+            log.info("Deleted {} objects from Supabase bucket={}", paths.size(), bucket);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.FORBIDDEN) {
+                log.error("Access denied when deleting files from Supabase. Check service key permissions: bucket={}", bucket);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String objectUrl(String bucket, String path) {
+        return supabaseUrl + "/storage/v1/object/public/" + bucket + "/" + path;
+    }
+
+    @Override
+    public Map<String, String> sign(String bucket, Collection<String> paths, int expiresInSeconds) throws IOException {
+        Map<String, String> signed = new LinkedHashMap<>();
+        if (paths.isEmpty()) {
+            return signed;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(supabaseKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("expiresIn", expiresInSeconds);
+
+        if (paths.size() == 1) {
+            // Single-path endpoint: POST /storage/v1/object/sign/{bucket}/{path}
+            String path = paths.iterator().next();
+            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+            ResponseEntity<String> response = restTemplate.exchange(
+                    supabaseUrl + "/storage/v1/object/sign/" + bucket + "/" + path, HttpMethod.POST, request, String.class);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                JsonNode jsonResponse = objectMapper.readTree(response.getBody());
+                if (jsonResponse.hasNonNull("signedURL")) {
+                    signed.put(path, supabaseUrl + "/storage/v1" + jsonResponse.get("signedURL").asText());
+                } else {
+                    log.warn("Signed URL not found in response: {}", response.getBody());
+                }
+            } else {
+                log.error("Failed to generate signed URL. Status: {}, Body: {}",
+                        response.getStatusCode(), response.getBody());
+            }
+            return signed;
+        }
+
+        // Multi-path endpoint: POST /storage/v1/object/sign/{bucket} with {expiresIn, paths}
+        requestBody.put("paths", new ArrayList<>(paths));
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+        ResponseEntity<String> response = restTemplate.exchange(
+                supabaseUrl + "/storage/v1/object/sign/" + bucket, HttpMethod.POST, request, String.class);
+
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            log.error("Failed to generate signed URLs. Status: {}, Body: {}",
+                    response.getStatusCode(), response.getBody());
+            return signed;
+        }
+
+        for (JsonNode item : objectMapper.readTree(response.getBody())) {
+            String path = item.path("path").asText(null);
+            if (path == null) {
+                continue;
+            }
+            if (!item.hasNonNull("signedURL")) {
+                log.warn("Signed URL not returned for path={}, error={}", path, item.path("error").asText(null));
+                continue;
+            }
+            signed.put(path, supabaseUrl + "/storage/v1" + item.get("signedURL").asText());
+        }
+        return signed;
+    }
+
+    @Override
+    public void list(String bucket, Consumer<StorageObjectSummary> consumer) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(supabaseKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String listUrl = supabaseUrl + "/storage/v1/object/list/" + bucket;
+
+        // Folders still to visit; the listing API is per folder, not recursive
+        Deque<String> folders = new ArrayDeque<>();
+        folders.push("");
+        while (!folders.isEmpty()) {
+            String prefix = folders.pop();
+            int offset = 0;
+            while (true) {
+                Map<String, Object> requestBody = new HashMap<>();
+                requestBody.put("prefix", prefix);
+                requestBody.put("limit", LIST_PAGE_SIZE);
+                requestBody.put("offset", offset);
+                requestBody.put("sortBy", Map.of("column", "name", "order", "asc"));
+
+                ResponseEntity<String> response = restTemplate.exchange(
+                        listUrl, HttpMethod.POST, new HttpEntity<>(requestBody, headers), String.class);
+                JsonNode page = objectMapper.readTree(response.getBody());
+                if (page == null || !page.isArray() || page.isEmpty()) {
+                    break;
+                }
+
+                for (JsonNode item : page) {
+                    String name = item.path("name").asText();
+                    if (name.startsWith(EMPTY_FOLDER_PLACEHOLDER)) {
+                        continue;
+                    }
+                    String path = prefix.isEmpty() ? name : prefix + "/" + name;
+                    if (item.path("id").isNull() || item.path("id").isMissingNode()) {
+                        folders.push(path); // folder placeholder
+                    } else {
+                        String createdAt = item.path("created_at").asText(null);
+                        consumer.accept(new StorageObjectSummary(path, createdAt != null ? OffsetDateTime.parse(createdAt).toInstant() : null));
+                    }
+                }
+
+                if (page.size() < LIST_PAGE_SIZE) {
+                    break;
+                }
+                offset += page.size();
+            }
+        }
+    }
+
+    // Supabase Storage object endpoint: /storage/v1/object/{bucket}/{filePath}
+    // UriComponentsBuilder URL-encodes the path (handles spaces, special chars, etc.)
+    private String objectEndpoint(String bucket, String path) {
+        return UriComponentsBuilder.fromHttpUrl(supabaseUrl)
+                .path("/storage/v1/object/{bucket}/{filePath}")
+                .buildAndExpand(bucket, path)
+                .toUriString();
+    }
+}
@@ -1,5 +1,6 @@
 package com.tarumt.lms.service.user;
 
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.dto.InstructorDetailViewDTO;
 import com.tarumt.lms.dto.InstructorListViewDTO;
 import com.tarumt.lms.model.Admin;
@@ -12,24 +13,33 @@ import com.tarumt.lms.repo.InstructorQualificationRepository;
 import com.tarumt.lms.repo.InstructorRepository;
 import com.tarumt.lms.repo.UserStatusChangeLogRepository;
 import com.tarumt.lms.service.SupabaseStorageService;
+import com.tarumt.lms.service.storage.CertificatePreviewService;
 import com.tarumt.lms.service.UserStatusChangeLogService;
+import com.tarumt.lms.utility.CursorUtils;
+import com.tarumt.lms.utility.SearchUtils;
+import com.tarumt.lms.utility.TrigramSearchUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.SimpleDateFormat;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class AdminInstructorManagementService {
 
+    private static final TrigramSearchUtils.SearchTable INSTRUCTOR_SEARCH =
+            new TrigramSearchUtils.SearchTable("instructor", "instructor_id", "name", "email");
+
     @Autowired
     private InstructorRepository instructorRepository;
 
@@ -42,30 +52,36 @@ public class AdminInstructorManagementService {
     @Autowired
     private UserStatusChangeLogService userStatusChangeLogService;
 
+    @Autowired
+    private TrigramSearchUtils trigramSearchUtils;
+
     @Value("${supabase.bucket.name}")
     private String bucketName;
 
     @Transactional(readOnly = true)
-    public List<InstructorListViewDTO> getAllInstructors(String status, String search) {
-        log.info("Fetching all instructors (basic info): status={}, search={}", status, search);
+    public CursorPageDTO<InstructorListViewDTO> getAllInstructors(String status, String search, boolean fuzzy,
+                                                                  String cursor, int limit) {
+        log.info("Fetching instructors page (basic info): status={}, search={}, fuzzy={}, cursor={}", status, search, fuzzy, cursor);
 
-        Sort sortByRegisteredDesc = Sort.by(Sort.Direction.DESC, "registeredDate");
         AccountStatus filterStatus = parseStatus(status);
+        String pattern = SearchUtils.containsPattern(search);
+        int pageSize = CursorUtils.clampLimit(limit);
 
-        List<Instructor> instructors = (filterStatus != null)
-                ? instructorRepository.findByStatus(filterStatus, sortByRegisteredDesc)
-                : instructorRepository.findAll(sortByRegisteredDesc);
-
-        if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.trim().toLowerCase();
-            instructors = instructors.stream()
-                    .filter(i -> contains(i.getName(), searchLower) || contains(i.getEmail(), searchLower))
-                    .collect(Collectors.toList());
+        if (fuzzy && pattern != null) {
+            List<Long> rankedIds = trigramSearchUtils.findRankedIds(INSTRUCTOR_SEARCH, filterStatus, search, pageSize + 1);
+            return CursorPageDTO.ranked(rankedIds, pageSize, instructorRepository::findListViewsByIds, InstructorListViewDTO::getInstructorId);
         }
-
-        return instructors.stream()
-                .map(this::convertToListViewDTO)
-                .collect(Collectors.toList());
+        // One extra row tells us whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<InstructorListViewDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = instructorRepository.findListPage(filterStatus, pattern, page);
+        } else {
+            CursorUtils.Key after = CursorUtils.decode(cursor);
+            rows = instructorRepository.findListPageAfter(filterStatus, pattern, after.getTimestamp(), after.getId(), page);
+        }
+        return CursorPageDTO.of(rows, pageSize, last -> CursorUtils.encode(last.getRegisteredDate(), last.getInstructorId()));
     }
 
     private AccountStatus parseStatus(String status) {
@@ -80,8 +96,12 @@ public class AdminInstructorManagementService {
         }
     }
 
-    private boolean contains(String value, String needle) {
-        return value != null && value.toLowerCase().contains(needle);
+    private boolean isStoredDocument(String document) {
+        return document != null && !document.isBlank() && !document.equals("DELETED");
+    }
+
+    private boolean isStoredPreview(String preview) {
+        return preview != null && !preview.isBlank() && !preview.equals(CertificatePreviewService.PREVIEW_FAILED);
     }
 
     // ================================
@@ -111,27 +131,42 @@ public class AdminInstructorManagementService {
         dto.setRegisteredDate(instructor.getRegisteredDate());
         dto.setEndDate(instructor.getEndDate());
 
-        // Generate signed URL for digital signature
+        // FILTER: Only show VERIFIED certificates
+        List<InstructorQualification> verifiedQualifications = qualifications.stream()
+                .filter(qual -> qual.getStatus() == QualificationStatus.VERIFIED)
+                .collect(Collectors.toList());
+
+        // Sign the signature and every certificate in one storage request
+        List<String> documentUrls = new ArrayList<>();
+        if (instructor.getDigitalSignature() != null && !instructor.getDigitalSignature().isBlank()) {
+            documentUrls.add(instructor.getDigitalSignature());
+        }
+        verifiedQualifications.stream()
+                .map(InstructorQualification::getCertificateDocument)
+                .filter(this::isStoredDocument)
+                .forEach(documentUrls::add);
+        verifiedQualifications.stream()
+                .map(InstructorQualification::getCertificatePreview)
+                .filter(this::isStoredPreview)
+                .forEach(documentUrls::add);
+
+        Map<String, String> signedUrls;
+        try {
+            signedUrls = storageService.generateSignedUrls(documentUrls, bucketName, 3600); // 1 hour expiry
+            log.debug("Generated {} signed URLs for instructorId={}", signedUrls.size(), instructorId);
+        } catch (Exception e) {
+            log.error("Failed to generate signed URLs for instructorId={}", instructorId, e);
+            signedUrls = Collections.emptyMap();
+        }
+
         if (instructor.getDigitalSignature() != null && !instructor.getDigitalSignature().isBlank()) {
-            try {
-                String signedUrl = storageService.generateSignedUrl(
-                        instructor.getDigitalSignature(),
-                        bucketName,
-                        3600 // 1 hour expiry
-                );
-                dto.setDigitalSignatureUrl(signedUrl);
-                log.debug("Generated signed URL for digital signature: instructorId={}", instructorId);
-            } catch (Exception e) {
-                log.error("Failed to generate signed URL for digital signature: {}",
-                        instructor.getDigitalSignature(), e);
-                dto.setDigitalSignatureUrl(instructor.getDigitalSignature()); // Fallback
-            }
+            dto.setDigitalSignatureUrl(signedUrls.getOrDefault(
+                    instructor.getDigitalSignature(), instructor.getDigitalSignature())); // Fallback
         }
 
         // Convert qualifications to DTOs with signed URLs
-        // FILTER: Only show VERIFIED certificates
-        List<InstructorDetailViewDTO.CertificateInfoDTO> certificateDTOs = qualifications.stream()
-                .filter(qual -> qual.getStatus() == QualificationStatus.VERIFIED) // Only VERIFIED certificates
+        Map<String, String> certificateUrls = signedUrls;
+        List<InstructorDetailViewDTO.CertificateInfoDTO> certificateDTOs = verifiedQualifications.stream()
                 .map(qual -> {
                     InstructorDetailViewDTO.CertificateInfoDTO certDTO =
                             new InstructorDetailViewDTO.CertificateInfoDTO();
@@ -142,23 +177,12 @@ public class AdminInstructorManagementService {
                     certDTO.setFieldOfStudy(qual.getFieldOfStudy());
                     certDTO.setRejectionReason(qual.getRejectionReason());
 
-                    // Generate signed URL for certificate document
-                    if (qual.getCertificateDocument() != null &&
-                            !qual.getCertificateDocument().isBlank() &&
-                            !qual.getCertificateDocument().equals("DELETED")) {
-                        try {
-                            String signedUrl = storageService.generateSignedUrl(
-                                    qual.getCertificateDocument(),
-                                    bucketName,
-                                    3600 // 1 hour expiry
-                            );
-                            certDTO.setDocumentUrl(signedUrl);
-                            log.debug("Generated signed URL for certificate: qualificationId={}", qual.getId());
-                        } catch (Exception e) {
-                            log.error("Failed to generate signed URL for certificate: {}",
-                                    qual.getCertificateDocument(), e);
-                            certDTO.setDocumentUrl(qual.getCertificateDocument()); // Fallback
-                        }
+                    if (isStoredDocument(qual.getCertificateDocument())) {
+                        certDTO.setDocumentUrl(certificateUrls.getOrDefault(
+                                qual.getCertificateDocument(), qual.getCertificateDocument())); // Fallback
+                    }
+                    if (isStoredPreview(qual.getCertificatePreview())) {
+                        certDTO.setPreviewUrl(certificateUrls.get(qual.getCertificatePreview()));
                     }
 
                     return certDTO;
@@ -227,23 +251,4 @@ public class AdminInstructorManagementService {
             return false;
         }
     }
-
-
-
-    // ================================
-    // Helper Method: Convert to List View DTO (Basic Info Only - 5 Fields)
-    // ================================
-    private InstructorListViewDTO convertToListViewDTO(Instructor instructor) {
-        InstructorListViewDTO dto = new InstructorListViewDTO();
-        dto.setInstructorId(instructor.getInstructorId());
-        dto.setName(instructor.getName());
-        dto.setEmail(instructor.getEmail());
-        dto.setStatus(instructor.getStatus().name());
-        dto.setRegisteredDate(instructor.getRegisteredDate());
-        // Only these 5 fields - removed phoneNum and endDate
-        return dto;
-    }
-
-
-
-}
\ No newline at end of file
+}
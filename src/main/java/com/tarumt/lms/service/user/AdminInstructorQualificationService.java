@@ -1,6 +1,8 @@
 package com.tarumt.lms.service.user;
 
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.dto.InstructorRequirementViewDTO;
+import com.tarumt.lms.dto.QualificationHistoryViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.Instructor;
 import com.tarumt.lms.model.InstructorQualification;
@@ -9,16 +11,23 @@ import com.tarumt.lms.model.enums.QualificationStatus;
 import com.tarumt.lms.repo.InstructorQualificationRepository;
 import com.tarumt.lms.repo.InstructorRepository;
 import com.tarumt.lms.service.SupabaseStorageService;
+import com.tarumt.lms.service.storage.CertificatePreviewService;
+import com.tarumt.lms.service.storage.DocumentDiskCache;
+import com.tarumt.lms.utility.CursorUtils;
+import com.tarumt.lms.utility.SearchUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -33,6 +42,9 @@ public class AdminInstructorQualificationService {
     @Autowired
     private SupabaseStorageService storageService;
 
+    @Autowired
+    private DocumentDiskCache documentDiskCache;
+
     @Value("${supabase.bucket.name}")
     private String bucketName;
 
@@ -41,38 +53,31 @@ public class AdminInstructorQualificationService {
     // GET All Instructor Requirements (Admin Table View - Basic Info Only)
     // ================================
     @Transactional(readOnly = true)
-    public List<InstructorRequirementViewDTO> getAllInstructorRequirements(String status, String search) {
-        List<InstructorQualification> qualifications;
-
-        // Filter by status if provided (with instructor loaded)
+    public CursorPageDTO<InstructorRequirementViewDTO> getAllInstructorRequirements(String status, String search,
+                                                                                    String cursor, int limit) {
+        QualificationStatus statusEnum = null;
         if (status != null && !status.trim().isEmpty()) {
             try {
-                QualificationStatus statusEnum = QualificationStatus.valueOf(status.toUpperCase());
-                qualifications = instructorQualificationRepository.findByStatusWithInstructor(statusEnum);
+                statusEnum = QualificationStatus.valueOf(status.toUpperCase());
             } catch (IllegalArgumentException e) {
                 throw new RuntimeException("Invalid status: " + status);
             }
-        } else {
-            // Load all with instructor
-            qualifications = instructorQualificationRepository.findAllWithInstructor();
         }
 
-        // Apply search filter if provided
-        if (search != null && !search.trim().isEmpty()) {
-            String searchLower = search.toLowerCase().trim();
-            qualifications = qualifications.stream()
-                    .filter(q -> {
-                        Instructor instructor = q.getInstructor();
-                        return instructor.getName().toLowerCase().contains(searchLower) ||
-                                instructor.getEmail().toLowerCase().contains(searchLower);
-                    })
-                    .collect(Collectors.toList());
-        }
+        String pattern = SearchUtils.containsPattern(search);
+        int pageSize = CursorUtils.clampLimit(limit);
+        // One extra row tells us whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
 
-        // Convert to DTO WITHOUT document/signature URLs (for table view - faster performance)
-        return qualifications.stream()
-                .map(this::convertToListViewDTO)
-                .collect(Collectors.toList());
+        // Rows are projected straight into DTOs WITHOUT document/signature URLs (table view)
+        List<InstructorRequirementViewDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = instructorQualificationRepository.findListPage(statusEnum, pattern, page);
+        } else {
+            CursorUtils.Key after = CursorUtils.decode(cursor);
+            rows = instructorQualificationRepository.findListPageAfter(statusEnum, pattern, after.getTimestamp(), after.getId(), page);
+        }
+        return CursorPageDTO.of(rows, pageSize, last -> CursorUtils.encode(last.getSubmittedAt(), last.getQualificationId()));
     }
 
 
@@ -99,6 +104,40 @@ public class AdminInstructorQualificationService {
     }
 
 
+    // ================================
+    // GET Stored Document URL (For the document download endpoint)
+    // ================================
+    public String getDocumentUrl(Long qualificationId, String variant) {
+        InstructorQualification qualification = instructorQualificationRepository.findWithInstructorById(qualificationId)
+                .orElseThrow(() -> new RuntimeException("Qualification not found"));
+
+        String url = switch (variant) {
+            case "certificate" -> qualification.getCertificateDocument();
+            case "preview" -> qualification.getCertificatePreview();
+            case "signature" -> qualification.getInstructor().getDigitalSignature();
+            default -> throw new IllegalArgumentException("Unknown document variant: " + variant);
+        };
+
+        if (url == null || url.isBlank() || url.equals("DELETED") || url.equals(CertificatePreviewService.PREVIEW_FAILED)) {
+            throw new RuntimeException("Document not found");
+        }
+        return url;
+    }
+
+
+    // ================================
+    // GET Stored Document (Served from the local document cache)
+    // ================================
+    public DocumentDiskCache.CachedDocument getDocument(Long qualificationId, String variant) throws IOException {
+        String url = getDocumentUrl(qualificationId, variant);
+        String path = storageService.extractPathFromUrl(url, bucketName);
+        if (path == null) {
+            throw new RuntimeException("Document not found");
+        }
+        return documentDiskCache.get(bucketName, path);
+    }
+
+
     // ================================
     // UPDATE Qualification Status (Approve/Reject)
     // ================================
@@ -120,21 +159,26 @@ public class AdminInstructorQualificationService {
         // If rejecting, delete file from Supabase and mark as DELETED
         if (newStatus == QualificationStatus.REJECTED && qual.getCertificateDocument() != null
                 && !qual.getCertificateDocument().equals("DELETED")) {
-            try {
-                // Delete file from Supabase
-                storageService.deleteFile(qual.getCertificateDocument(), bucketName);
-
-                //reason for reject
-                qual.setRejectionReason(rejectionReason);
-
-                log.info("Successfully deleted and marked certificate document as DELETED for qualificationId={}", qualificationId);
-            } catch (Exception e) {
-                log.error("Error deleting file from Supabase for qualificationId={}: {}", qualificationId, e.getMessage(), e);
-                // Mark as DELETED in DB even if physical deletion fails (for audit trail)
-                qual.setCertificateDocument("DELETED");
-                log.warn("Marked certificate document as DELETED in database despite deletion failure for qualificationId={}", qualificationId);
-                // Continue with status update even if deletion fails
+            // Queue the file (and its preview) for deletion unless another record still points at the same content.
+            // The outbox rows commit with the status change, so a failure here rolls the rejection back.
+            String document = qual.getCertificateDocument();
+            String preview = qual.getCertificatePreview();
+            boolean shared = instructorQualificationRepository.countByCertificateDocumentAndIdNot(document, qualificationId) > 0;
+            if (!shared) {
+                storageService.deleteFile(document, bucketName);
+                if (preview != null && !preview.equals(CertificatePreviewService.PREVIEW_FAILED)) {
+                    storageService.deleteFile(preview, bucketName);
+                }
+            } else {
+                log.info("Certificate content is shared with other qualifications, keeping stored file for qualificationId={}", qualificationId);
             }
+            qual.setCertificateDocument("DELETED");
+            qual.setCertificatePreview(null);
+
+            //reason for reject
+            qual.setRejectionReason(rejectionReason);
+
+            log.info("Queued certificate document for deletion and marked it as DELETED for qualificationId={}", qualificationId);
         }
 
         // Note: Digital signature is stored in Instructor entity, not in qualification
@@ -164,68 +208,16 @@ public class AdminInstructorQualificationService {
     // GET Qualification History (All processed qualifications)
     // ================================
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getQualificationHistory() {
+    public List<QualificationHistoryViewDTO> getQualificationHistory() {
         log.info("Fetching qualification history (all processed qualifications)");
 
-        // Get all qualifications that have been processed by admin (madeByAdmin is not null)
-        List<InstructorQualification> processedQualifications =
-                instructorQualificationRepository.findAllProcessedQualifications();
-
-        log.info("Found {} processed qualifications", processedQualifications.size());
-
-        // Transform to history log format
-        return processedQualifications.stream()
-                .map(qual -> {
-                    Map<String, Object> logEntry = new java.util.HashMap<>();
-                    logEntry.put("logId", qual.getId()); // Use qualification ID as log ID
-                    logEntry.put("qualificationId", qual.getId());
-                    logEntry.put("userId", qual.getInstructor() != null ? qual.getInstructor().getInstructorId() : null);
-                    logEntry.put("instructorId", qual.getInstructor() != null ? qual.getInstructor().getInstructorId() : null);
-                    logEntry.put("instructorName", qual.getInstructor() != null ? qual.getInstructor().getName() : null);
-                    logEntry.put("instructorEmail", qual.getInstructor() != null ? qual.getInstructor().getEmail() : null);
-                    logEntry.put("oldStatus", "PENDING"); // Always PENDING before admin action
-                    logEntry.put("newStatus", qual.getStatus() != null ? qual.getStatus().toString() : null);
-                    logEntry.put("qualificationLevel", qual.getQualificationLevel());
-                    logEntry.put("fieldOfStudy", qual.getFieldOfStudy());
-                    logEntry.put("changedByAdminId", qual.getMadeByAdmin() != null ? qual.getMadeByAdmin().getAdminId() : null);
-                    logEntry.put("changedByAdminName", qual.getMadeByAdmin() != null ? qual.getMadeByAdmin().getName() : null);
-                    logEntry.put("reason", qual.getRejectionReason()); // Only set if REJECTED
-                    logEntry.put("changedAt", qual.getMadeAt() != null ? qual.getMadeAt().toInstant() : null);
-                    logEntry.put("submittedAt", qual.getSubmittedAt() != null ? qual.getSubmittedAt().toInstant() : null);
-                    return logEntry;
-                })
-                .collect(Collectors.toList());
-    }
-
-    // ================================
-    // Helper Method: Convert to List View DTO (Table View - No URLs)
-    // ================================
-    private InstructorRequirementViewDTO convertToListViewDTO(InstructorQualification qualification) {
-        Instructor instructor = qualification.getInstructor();
-
-        InstructorRequirementViewDTO dto = new InstructorRequirementViewDTO();
-        dto.setQualificationId(qualification.getId());
-        dto.setInstructorId(instructor.getInstructorId());
-        dto.setInstructorName(instructor.getName());
-        dto.setInstructorEmail(instructor.getEmail());
-        dto.setStatus(qualification.getStatus());
-        dto.setQualificationLevel(qualification.getQualificationLevel());
-        dto.setFieldOfStudy(qualification.getFieldOfStudy());
-        dto.setRejectionReason(qualification.getRejectionReason());
-        // DO NOT set documentUrl or digitalSignatureUrl for table view
-        // These will be null/empty to improve performance
-        // URLs are only generated when viewing details
+        // Processed = decided by an admin (madeByAdmin is not null)
+        List<QualificationHistoryViewDTO> history = instructorQualificationRepository.findProcessedHistory();
 
-        // Convert OffsetDateTime to LocalDateTime
-        if (qualification.getSubmittedAt() != null) {
-            dto.setSubmittedDate(qualification.getSubmittedAt().toLocalDateTime());
-        }
-        dto.setUpdatedDate(null);
-
-        return dto;
+        log.info("Found {} processed qualifications", history.size());
+        return history;
     }
 
-
     // ================================
     // Helper Method: Convert to View DTO (Detail View - With Signed URLs)
     // ================================
@@ -242,39 +234,38 @@ public class AdminInstructorQualificationService {
         dto.setFieldOfStudy(qualification.getFieldOfStudy());
         dto.setRejectionReason(qualification.getRejectionReason());
 
-        // Generate signed URLs for private bucket files
-        if (qualification.getCertificateDocument() != null &&
-                !qualification.getCertificateDocument().isBlank() &&
-                !qualification.getCertificateDocument().equals("DELETED")) {
-            try {
-                String signedUrl = storageService.generateSignedUrl(
-                        qualification.getCertificateDocument(),
-                        bucketName,
-                        3600 // 1 hour expiry
-                );
-                dto.setDocumentUrl(signedUrl);
-                log.debug("Generated signed URL for certificate document: qualificationId={}", qualification.getId());
-            } catch (Exception e) {
-                log.error("Failed to generate signed URL for certificate document: {}",
-                        qualification.getCertificateDocument(), e);
-                dto.setDocumentUrl(qualification.getCertificateDocument()); // Fallback to original URL
-            }
+        // Generate signed URLs for private bucket files (certificate + signature in one request)
+        String certificate = qualification.getCertificateDocument();
+        boolean hasCertificate = certificate != null && !certificate.isBlank() && !certificate.equals("DELETED");
+        String signature = instructor.getDigitalSignature();
+        boolean hasSignature = signature != null && !signature.isBlank();
+
+        String preview = qualification.getCertificatePreview();
+        boolean hasPreview = hasCertificate && preview != null && !preview.isBlank()
+                && !preview.equals(CertificatePreviewService.PREVIEW_FAILED);
+
+        List<String> documentUrls = new ArrayList<>();
+        if (hasCertificate) documentUrls.add(certificate);
+        if (hasSignature) documentUrls.add(signature);
+        if (hasPreview) documentUrls.add(preview);
+
+        Map<String, String> signedUrls;
+        try {
+            signedUrls = storageService.generateSignedUrls(documentUrls, bucketName, 3600); // 1 hour expiry
+            log.debug("Generated signed URLs for qualificationId={}", qualification.getId());
+        } catch (Exception e) {
+            log.error("Failed to generate signed URLs for qualificationId={}", qualification.getId(), e);
+            signedUrls = Collections.emptyMap();
         }
 
-        if (instructor.getDigitalSignature() != null && !instructor.getDigitalSignature().isBlank()) {
-            try {
-                String signedUrl = storageService.generateSignedUrl(
-                        instructor.getDigitalSignature(),
-                        bucketName,
-                        3600 // 1 hour expiry
-                );
-                dto.setDigitalSignatureUrl(signedUrl);
-                log.debug("Generated signed URL for digital signature: instructorId={}", instructor.getInstructorId());
-            } catch (Exception e) {
-                log.error("Failed to generate signed URL for digital signature: {}",
-                        instructor.getDigitalSignature(), e);
-                dto.setDigitalSignatureUrl(instructor.getDigitalSignature()); // Fallback to original URL
-            }
+        if (hasCertificate) {
+            dto.setDocumentUrl(signedUrls.getOrDefault(certificate, certificate)); // Fallback to original URL
+        }
+        if (hasSignature) {
+            dto.setDigitalSignatureUrl(signedUrls.getOrDefault(signature, signature)); // Fallback to original URL
+        }
+        if (hasPreview) {
+            dto.setPreviewUrl(signedUrls.get(preview)); // No fallback: clients show the full document instead
         }
 
         // Convert OffsetDateTime to LocalDateTime
@@ -1,6 +1,9 @@
 package com.tarumt.lms.service.user;
 
+import com.tarumt.lms.config.ReplicaRoutingDataSource;
+import com.tarumt.lms.dto.AdminListViewDTO;
 import com.tarumt.lms.dto.AdminProfileUpdateDTO;
+import com.tarumt.lms.dto.CursorPageDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.AdminStatusChangeLog;
 import com.tarumt.lms.model.SuperAdmin;
@@ -11,6 +14,9 @@ import com.tarumt.lms.repo.AdminStatusChangeLogRepository;
 import com.tarumt.lms.repo.UserRoleRepository;
 import com.tarumt.lms.service.AdminStatusChangeLogService;
 import com.tarumt.lms.service.UserRoleService;
+import com.tarumt.lms.utility.CursorUtils;
+import com.tarumt.lms.utility.TrigramSearchUtils;
+import com.tarumt.lms.utility.EmailUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -30,6 +36,9 @@ import java.util.UUID;
 @Service
 public class AdminService {
 
+    private static final TrigramSearchUtils.SearchTable ADMIN_SEARCH =
+            new TrigramSearchUtils.SearchTable("admin", "admin_id", "name", "email");
+
     @Autowired
     private AdminRepository adminRepository;
 
@@ -39,6 +48,9 @@ public class AdminService {
     @Autowired
     private AdminStatusChangeLogService adminStatusChangeLogService;
 
+    @Autowired
+    private TrigramSearchUtils trigramSearchUtils;
+
 
     // ================================
     // Basic CRUD Operations
@@ -90,7 +102,7 @@ public class AdminService {
 
     public Optional<Admin> getActiveByEmail(String email) {
         log.info("Fetching active admin profile for email={}", email);
-        return adminRepository.findByEmailAndStatus(email, AccountStatus.ACTIVE)
+        return ReplicaRoutingDataSource.readFromPrimary(() -> adminRepository.findByEmailAndStatus(email, AccountStatus.ACTIVE))
                 .map(admin -> {
                     log.info("Active admin found: adminId={}, email={}", admin.getAdminId(), admin.getEmail());
                     return admin;
@@ -103,7 +115,7 @@ public class AdminService {
 
     public Optional<Admin> getActiveAdminById(Long adminId) {
         log.info("Fetching active admin profile for adminId={}", adminId);
-        return adminRepository.findByAdminIdAndStatus(adminId, AccountStatus.ACTIVE)
+        return ReplicaRoutingDataSource.readFromPrimary(() -> adminRepository.findByAdminIdAndStatus(adminId, AccountStatus.ACTIVE))
                 .map(admin -> {
                     log.info("Active admin found: adminId={}, email={}", admin.getAdminId(), admin.getEmail());
                     return admin;
@@ -116,7 +128,7 @@ public class AdminService {
 
     public Optional<Admin> getActiveByUserId(UUID userId) {
         log.info("Fetching ACTIVE admin by userId={}", userId);
-        return adminRepository.findByUserIdAndStatus(userId, AccountStatus.ACTIVE)
+        return ReplicaRoutingDataSource.readFromPrimary(() -> adminRepository.findByUserIdAndStatus(userId, AccountStatus.ACTIVE))
                 .map(admin -> {
                     log.info("Active admin found: adminId={}, userId={}", admin.getAdminId(), admin.getUserId());
                     return admin;
@@ -141,6 +153,20 @@ public class AdminService {
         return admins;
     }
 
+    // Fuzzy, typo-tolerant admin search ranked by relevance (best first); a single page, like the
+    // student and instructor searches
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AdminListViewDTO> searchAdmins(AccountStatus status, String search, int limit) {
+        log.info("Searching admins status={}, search={}", status, search);
+
+        int pageSize = CursorUtils.clampLimit(limit);
+        List<Long> rankedIds = trigramSearchUtils.findRankedIds(ADMIN_SEARCH, status, search, pageSize + 1);
+        CursorPageDTO<AdminListViewDTO> page = CursorPageDTO.ranked(rankedIds, pageSize,
+                adminRepository::findListViewsByIds, AdminListViewDTO::getAdminId);
+        log.info("Found {} admins matching search={}", page.getItems().size(), search);
+        return page;
+    }
+
     @Transactional(readOnly = true)
     public List<Admin> getAllAdmins() {
         log.info("Fetching all admins");
@@ -176,7 +202,7 @@ public class AdminService {
         log.info("Creating new admin: email={}, supabaseUserId={}", email, supabaseUserId);
 
         Admin admin = Admin.builder()
-                .email(email)
+                .email(EmailUtils.normalize(email))
                 .name(name)
                 .status(AccountStatus.ACTIVE)
                 .registeredDate(LocalDate.now().atStartOfDay().atOffset(ZoneOffset.UTC))
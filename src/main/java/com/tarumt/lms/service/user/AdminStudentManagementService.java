@@ -1,5 +1,7 @@
 package com.tarumt.lms.service.user;
 
+import com.tarumt.lms.dto.CursorPageDTO;
+import com.tarumt.lms.dto.StudentListViewDTO;
 import com.tarumt.lms.model.Admin;
 import com.tarumt.lms.model.Student;
 import com.tarumt.lms.model.enums.AccountStatus;
@@ -7,9 +9,12 @@ import com.tarumt.lms.model.enums.Role;
 import com.tarumt.lms.repo.StudentRepository;
 import com.tarumt.lms.repo.UserStatusChangeLogRepository;
 import com.tarumt.lms.model.UserStatusChangeLog;
+import com.tarumt.lms.utility.CursorUtils;
+import com.tarumt.lms.utility.SearchUtils;
+import com.tarumt.lms.utility.TrigramSearchUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,26 +27,38 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AdminStudentManagementService {
 
+    private static final TrigramSearchUtils.SearchTable STUDENT_SEARCH =
+            new TrigramSearchUtils.SearchTable("student", "student_id", "name", "email");
+
     private final StudentRepository studentRepository;
     private final UserStatusChangeLogRepository userStatusChangeLogRepository;
+    private final TrigramSearchUtils trigramSearchUtils;
 
     // =====================================================
-    // GET ALL STUDENTS (OPTIONAL STATUS FILTER & SEARCH)
+    // GET STUDENTS PAGE (OPTIONAL STATUS FILTER & SEARCH, KEYSET CURSOR OR FUZZY RANKED)
     // =====================================================
-    public List<Student> getAllStudents(AccountStatus status, String search) {
-        Sort sortByJoinDateDesc = Sort.by(Sort.Direction.DESC, "registeredDate");
-        boolean hasSearch = search != null && !search.isBlank();
-
-        if (status != null && hasSearch) {
-            return studentRepository
-                    .findByStatusAndNameOrEmailContainingIgnoreCase(status, search, sortByJoinDateDesc);
-        } else if (status != null) {
-            return studentRepository.findByStatus(status, sortByJoinDateDesc);
-        } else if (hasSearch) {
-            return studentRepository
-                    .findByNameContainingIgnoreCaseOrEmailContainingIgnoreCase(search, search, sortByJoinDateDesc);
+    @Transactional(readOnly = true)
+    public CursorPageDTO<StudentListViewDTO> getStudents(AccountStatus status, String search, boolean fuzzy,
+                                                         String cursor, int limit) {
+        int pageSize = CursorUtils.clampLimit(limit);
+        String pattern = SearchUtils.containsPattern(search);
+
+        if (fuzzy && pattern != null) {
+            List<Long> rankedIds = trigramSearchUtils.findRankedIds(STUDENT_SEARCH, status, search, pageSize + 1);
+            return CursorPageDTO.ranked(rankedIds, pageSize, studentRepository::findListViewsByIds, StudentListViewDTO::getStudentId);
+        }
+
+        // One extra row tells us whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<StudentListViewDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = studentRepository.findListPage(status, pattern, page);
+        } else {
+            CursorUtils.Key after = CursorUtils.decode(cursor);
+            rows = studentRepository.findListPageAfter(status, pattern, after.getTimestamp(), after.getId(), page);
         }
-        return studentRepository.findAll(sortByJoinDateDesc);
+        return CursorPageDTO.of(rows, pageSize, last -> CursorUtils.encode(last.getRegisteredDate(), last.getStudentId()));
     }
 
     // =====================================================
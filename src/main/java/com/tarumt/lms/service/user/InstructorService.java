@@ -10,15 +10,25 @@ import com.tarumt.lms.model.enums.QualificationStatus;
 import com.tarumt.lms.repo.InstructorQualificationRepository;
 import com.tarumt.lms.repo.InstructorRepository;
 import com.tarumt.lms.service.SupabaseStorageService;
+import com.tarumt.lms.service.storage.CertificatePreviewService;
+import com.tarumt.lms.service.storage.ChunkedUploadService;
+import com.tarumt.lms.service.storage.StoredObject;
+import com.tarumt.lms.utility.EmailUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Slf4j
 @Service
@@ -33,6 +43,19 @@ public class InstructorService {
     @Autowired
     private SupabaseStorageService storageService;
 
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private Executor uploadExecutor;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private CertificatePreviewService certificatePreviewService;
+
 
     // ================================
     // Basic CRUD Operations
@@ -85,7 +108,7 @@ public class InstructorService {
         log.info("Creating new instructor: email={}, supabaseUserId={}", email, supabaseUserId);
         Instructor instructor = new Instructor();
         instructor.setUserId(supabaseUserId);
-        instructor.setEmail(email);
+        instructor.setEmail(EmailUtils.normalize(email));
         instructor.setName(name);
         Instructor savedInstructor = instructorRepository.save(instructor);
         log.info("Instructor created successfully: id={}", savedInstructor.getInstructorId());
@@ -222,88 +245,178 @@ public class InstructorService {
 
 
     // submitRequirements method
-    @Transactional
     public Instructor submitRequirements(Long instructorId, InstructorRequirementDTO dto) {
         Instructor instructor = instructorRepository.findById(instructorId)
                 .orElseThrow(() -> new RuntimeException("Instructor not found"));
 
         boolean firstSubmission = instructor.getDigitalSignature() == null;
 
-        // --- First submission: digital signature required ---
+        // --- Validate everything before any upload starts ---
         if (firstSubmission) {
             if (dto.getDigitalSignatureBase64() == null || dto.getDigitalSignatureBase64().isBlank()) {
                 throw new IllegalArgumentException("Digital signature is required for first submission");
             }
+        } else if (dto.getDigitalSignatureBase64() != null) {
+            log.info("Digital signature ignored for instructorId={} because it was already submitted", instructorId);
+        }
 
-            String signatureUrl = storageService.uploadBase64(
-                    dto.getDigitalSignatureBase64(),
-                    "Instructor-Docs",
-                    "digital-signature",
-                    "instructor_" + instructorId + ".png",
-                    "image/png"
-            );
-            instructor.setDigitalSignature(signatureUrl);
-        } else {
-            if (dto.getDigitalSignatureBase64() != null) {
-                log.info("Digital signature ignored for instructorId={} because it was already submitted", instructorId);
+        List<MultipartFile> files = dto.getQualificationFiles() != null ? new ArrayList<>(dto.getQualificationFiles()) : new ArrayList<>();
+        // Completed resumable uploads follow the multipart files (levels/fieldsOfStudy are indexed over both)
+        List<String> uploadIds = dto.getQualificationUploadIds() != null ? dto.getQualificationUploadIds() : new ArrayList<>();
+        for (String uploadId : uploadIds) {
+            try {
+                files.add(chunkedUploadService.completedFile(uploadId, instructorId));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read upload " + uploadId, e);
             }
         }
+        List<String> levels = dto.getQualificationLevels() != null ? dto.getQualificationLevels() : new ArrayList<>();
+        List<String> fieldsOfStudy = dto.getFieldOfStudy() != null ? dto.getFieldOfStudy() : new ArrayList<>();
 
-        // --- Qualification documents ---
-        if (dto.getQualificationFiles() != null && !dto.getQualificationFiles().isEmpty()) {
-            List<MultipartFile> files = dto.getQualificationFiles();
-            List<String> levels = dto.getQualificationLevels() != null ? dto.getQualificationLevels() : new ArrayList<>();
-            List<String> fieldsOfStudy = dto.getFieldOfStudy() != null ? dto.getFieldOfStudy() : new ArrayList<>();
-
-            // Validate that arrays have matching sizes (if provided)
-            if (!levels.isEmpty() && levels.size() != files.size()) {
-                throw new IllegalArgumentException("Number of qualification levels must match number of files");
+        if (files.isEmpty() && firstSubmission) {
+            throw new IllegalArgumentException("At least one qualification document is required for first submission");
+        }
+        // Validate that arrays have matching sizes (if provided)
+        if (!files.isEmpty() && !levels.isEmpty() && levels.size() != files.size()) {
+            throw new IllegalArgumentException("Number of qualification levels must match number of files");
+        }
+        if (!files.isEmpty() && !fieldsOfStudy.isEmpty() && fieldsOfStudy.size() != files.size()) {
+            throw new IllegalArgumentException("Number of fields of study must match number of files");
+        }
+        for (MultipartFile file : files) {
+            if (!"application/pdf".equals(file.getContentType())) {
+                throw new RuntimeException("Only PDF files are allowed for certificates");
             }
-            if (!fieldsOfStudy.isEmpty() && fieldsOfStudy.size() != files.size()) {
-                throw new IllegalArgumentException("Number of fields of study must match number of files");
+            if (file.getSize() > 10 * 1024 * 1024) {
+                throw new RuntimeException("File size exceeds 10 MB");
             }
+        }
+
+        // --- Upload signature and certificates concurrently, outside any DB transaction ---
+        CompletableFuture<StoredObject> signatureUpload = firstSubmission
+                ? CompletableFuture.supplyAsync(() -> storageService.uploadBase64(
+                        dto.getDigitalSignatureBase64(),
+                        "Instructor-Docs",
+                        "digital-signature",
+                        "instructor_" + instructorId + ".png",
+                        "image/png"
+                ), uploadExecutor)
+                : CompletableFuture.completedFuture(null);
+
+        List<CompletableFuture<StoredObject>> certificateUploads = new ArrayList<>();
+        for (MultipartFile file : files) {
+            // Stored name is derived from the content hash; the file name only supplies the extension
+            certificateUploads.add(CompletableFuture.supplyAsync(
+                    () -> storageService.uploadFile(file, "Instructor-Docs", "certificates", file.getOriginalFilename()), uploadExecutor));
+        }
 
-            for (int i = 0; i < files.size(); i++) {
-                MultipartFile file = files.get(i);
+        List<CompletableFuture<StoredObject>> allUploads = new ArrayList<>(certificateUploads);
+        allUploads.add(signatureUpload);
+        try {
+            CompletableFuture.allOf(allUploads.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            deleteUploaded(allUploads);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Requirement upload failed for instructorId={}, uploaded files removed", instructorId, cause);
+            throw new RuntimeException("Failed to upload requirement documents: " + cause.getMessage(), cause);
+        }
 
-                if (!"application/pdf".equals(file.getContentType())) {
-                    throw new RuntimeException("Only PDF files are allowed for certificates");
-                }
-                if (file.getSize() > 10 * 1024 * 1024) {
-                    throw new RuntimeException("File size exceeds 10 MB");
-                }
+        StoredObject signature = signatureUpload.join();
+        String signatureUrl = signature != null ? signature.getUrl() : null;
+        List<String> certificateUrls = certificateUploads.stream().map(upload -> upload.join().getUrl()).toList();
 
-                String fileUrl = storageService.uploadFile(
-                        file,
-                        "Instructor-Docs",
-                        "certificates",
-                        "instructor_" + instructorId + "_" + System.currentTimeMillis() + "_" + file.getOriginalFilename()
-                );
-
-                // Map DTO info to entity - FIXED: Use index to match file with its level and fieldOfStudy
-                InstructorQualification qual = new InstructorQualification();
-                qual.setInstructor(instructor);
-                qual.setCertificateDocument(fileUrl);
-                qual.setStatus(QualificationStatus.PENDING);
-
-                // Use index to get corresponding level and fieldOfStudy
-                if (i < levels.size() && levels.get(i) != null && !levels.get(i).isBlank()) {
-                    qual.setQualificationLevel(levels.get(i));
-                } else {
-                    qual.setQualificationLevel("CERTIFICATE"); // default if missing
+        // Objects may be shared with rows whose deletion is still queued
+        List<String> storedUrls = new ArrayList<>(certificateUrls);
+        if (signatureUrl != null) {
+            storedUrls.add(signatureUrl);
+        }
+        Set<String> queuedDeletions = storageService.findQueuedDeletions("Instructor-Docs", storedUrls);
+        Set<String> possiblyDeleted = new HashSet<>();
+
+        // --- Persist in one short transaction ---
+        Instructor saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                possiblyDeleted.addAll(storageService.cancelPendingDeletions("Instructor-Docs", storedUrls, queuedDeletions));
+
+                Instructor managed = instructorRepository.findById(instructorId)
+                        .orElseThrow(() -> new RuntimeException("Instructor not found"));
+                if (signatureUrl != null) {
+                    managed.setDigitalSignature(signatureUrl);
                 }
 
-                if (i < fieldsOfStudy.size() && fieldsOfStudy.get(i) != null && !fieldsOfStudy.get(i).isBlank()) {
-                    qual.setFieldOfStudy(fieldsOfStudy.get(i));
+                List<InstructorQualification> qualifications = new ArrayList<>();
+                for (int i = 0; i < certificateUrls.size(); i++) {
+                    // Map DTO info to entity - Use index to match file with its level and fieldOfStudy
+                    InstructorQualification qual = new InstructorQualification();
+                    qual.setInstructor(managed);
+                    qual.setCertificateDocument(certificateUrls.get(i));
+                    qual.setStatus(QualificationStatus.PENDING);
+
+                    if (i < levels.size() && levels.get(i) != null && !levels.get(i).isBlank()) {
+                        qual.setQualificationLevel(levels.get(i));
+                    } else {
+                        qual.setQualificationLevel("CERTIFICATE"); // default if missing
+                    }
+
+                    if (i < fieldsOfStudy.size() && fieldsOfStudy.get(i) != null && !fieldsOfStudy.get(i).isBlank()) {
+                        qual.setFieldOfStudy(fieldsOfStudy.get(i));
+                    }
+                    qualifications.add(qual);
                 }
+                instructorQualificationRepository.saveAll(qualifications);
+
+                return instructorRepository.save(managed);
+            });
+        } catch (RuntimeException e) {
+            deleteUploaded(allUploads);
+            throw e;
+        }
 
-                instructorQualificationRepository.save(qual);
+        // A deletion worker removed a shared object just before it was referenced again: store it again
+        if (!possiblyDeleted.isEmpty()) {
+            for (int i = 0; i < certificateUrls.size(); i++) {
+                if (possiblyDeleted.contains(certificateUrls.get(i))) {
+                    MultipartFile file = files.get(i);
+                    storageService.uploadFile(file, "Instructor-Docs", "certificates", file.getOriginalFilename());
+                }
+            }
+            if (possiblyDeleted.contains(signatureUrl)) {
+                storageService.uploadBase64(dto.getDigitalSignatureBase64(), "Instructor-Docs", "digital-signature",
+                        "instructor_" + instructorId + ".png", "image/png");
             }
-        } else if (firstSubmission) {
-            throw new IllegalArgumentException("At least one qualification document is required for first submission");
         }
 
-        return instructorRepository.save(instructor);
+        // Resumable uploads are kept until the submission succeeds so a failed submit can be retried
+        uploadIds.forEach(chunkedUploadService::delete);
+        if (!certificateUrls.isEmpty()) {
+            certificatePreviewService.requestPreviews();
+        }
+        return saved;
+    }
+
+    // Compensation: remove files this submission created when the submission as a whole fails.
+    // Objects that already existed (identical content) or are still referenced are left alone.
+    private void deleteUploaded(List<CompletableFuture<StoredObject>> uploads) {
+        for (CompletableFuture<StoredObject> upload : uploads) {
+            if (!upload.isDone() || upload.isCompletedExceptionally()) {
+                continue;
+            }
+            StoredObject stored = upload.join();
+            if (stored == null || !stored.isCreated()) {
+                continue;
+            }
+            String url = stored.getUrl();
+            if (instructorQualificationRepository.countByCertificateDocument(url) > 0
+                    || instructorRepository.countByDigitalSignature(url) > 0) {
+                continue;
+            }
+            try {
+                storageService.deleteFile(url, "Instructor-Docs");
+            } catch (Exception e) {
+                log.warn("Failed to remove orphaned upload {}", url, e);
+            }
+        }
     }
 
 
@@ -4,6 +4,7 @@ import com.tarumt.lms.dto.StudentProfileUpdateDTO;
 import com.tarumt.lms.model.Student;
 import com.tarumt.lms.model.enums.AccountStatus;
 import com.tarumt.lms.repo.StudentRepository;
+import com.tarumt.lms.utility.EmailUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -72,7 +73,7 @@ public class StudentService {
         log.info("Creating new student: email={}, supabaseUserId={}", email, supabaseUserId);
         Student student = new Student();
         student.setUserId(supabaseUserId);
-        student.setEmail(email);
+        student.setEmail(EmailUtils.normalize(email));
         student.setName(name);
         Student savedStudent = studentRepository.save(student);
         log.info("Student created successfully: id={}", savedStudent.getStudentId());
@@ -0,0 +1,105 @@
+package com.tarumt.lms.utility;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public class CursorUtils {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Clamp a client-supplied page size to 1..MAX_LIMIT
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Encode the sort key of the last row on a page as an opaque, URL-safe cursor.
+     * Example: (2025-01-31T08:00Z, 42) -> "MjAyNS0wMS0zMVQwODowMFp8NDI"
+     *
+     * @param timestamp First sort column of the last row
+     * @param id        Tie-breaking id of the last row
+     * @return base64url cursor without padding
+     */
+    public static String encode(OffsetDateTime timestamp, Long id) {
+        return wrap(timestamp.toString(), id);
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode(OffsetDateTime, Long)}.
+     *
+     * @throws IllegalArgumentException if the cursor was not issued by this server
+     */
+    public static Key decode(String cursor) {
+        String[] parts = unwrap(cursor);
+        try {
+            return new Key(OffsetDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Encode the position of the last row of a relevance-ranked page.
+     * The score is carried exactly (float text round-trips), so rows with equal scores resume by id.
+     */
+    public static String encodeRanked(float score, Long id) {
+        return wrap(Float.toString(score), id);
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encodeRanked(float, Long)}.
+     *
+     * @throws IllegalArgumentException if the cursor was not issued by this server
+     */
+    public static RankKey decodeRanked(String cursor) {
+        String[] parts = unwrap(cursor);
+        try {
+            return new RankKey(Float.parseFloat(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static String wrap(String sortValue, Long id) {
+        String raw = sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] unwrap(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new String[]{raw.substring(0, separator), raw.substring(separator + 1)};
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Key {
+        private final OffsetDateTime timestamp;
+        private final Long id;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RankKey {
+        private final float score;
+        private final Long id;
+    }
+}
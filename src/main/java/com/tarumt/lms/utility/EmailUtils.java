@@ -2,11 +2,20 @@ package com.tarumt.lms.utility;
 
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
+
 @Component
 public class EmailUtils {
 
     public static boolean isValidEmailDomain(String email, String domain) {
         return email != null && email.toLowerCase().endsWith(domain.toLowerCase());
     }
+
+    /**
+     * Emails are stored lowercased; unique lower(email) indexes reject addresses that differ only by case
+     */
+    public static String normalize(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
 }
 
@@ -0,0 +1,33 @@
+package com.tarumt.lms.utility;
+
+public class SearchUtils {
+
+    /**
+     * Build a lower-cased "contains" LIKE pattern for a user search term.
+     * LIKE wildcards in the term are escaped with '\' so they match literally;
+     * queries must declare {@code ESCAPE '\'}.
+     * Example: "50%_off" -> "%50\%\_off%"
+     *
+     * @param search Raw search input
+     * @return LIKE pattern, or null when the search is blank (no filter)
+     */
+    public static String containsPattern(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String escaped = search.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Normalise a search term for trigram similarity (lower-cased, trimmed)
+     *
+     * @return normalised term, or null when the search is blank
+     */
+    public static String similarityTerm(String search) {
+        return search == null || search.isBlank() ? null : search.trim().toLowerCase();
+    }
+}
@@ -0,0 +1,87 @@
+package com.tarumt.lms.utility;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public class TextEmbeddingUtils {
+
+    public static final int DIMENSIONS = 256;
+
+    private static final int MIN_NGRAM = 3;
+    private static final int MAX_NGRAM = 4;
+    private static final float WORD_WEIGHT = 2.0f;
+
+    /**
+     * Embed text into a fixed-size, L2-normalised vector using feature hashing
+     * over word unigrams and character n-grams (no model or network required).
+     * Example: "Intro to Databases" -> hashed features of "intro", "databases", " int", "data", ...
+     *
+     * @param text The text to embed
+     * @param out  Destination vector of length {@link #DIMENSIONS} (overwritten)
+     * @return true if at least one feature was hashed, false for blank input
+     */
+    public static boolean embed(String text, float[] out) {
+        Arrays.fill(out, 0f);
+        if (text == null || text.isBlank()) {
+            return false;
+        }
+
+        boolean any = false;
+        for (String word : text.toLowerCase(Locale.ENGLISH).split("[^a-z0-9]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            addWord(word, out);
+            any = true;
+        }
+
+        if (!any) {
+            return false;
+        }
+        normalize(out);
+        return true;
+    }
+
+    private static void addWord(String word, float[] out) {
+        addFeature("w:" + word, WORD_WEIGHT, out);
+
+        // Pad with spaces so prefixes/suffixes get their own n-grams
+        String padded = " " + word + " ";
+        for (int n = MIN_NGRAM; n <= MAX_NGRAM; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                addFeature(padded.substring(i, i + n), 1.0f, out);
+            }
+        }
+    }
+
+    private static void addFeature(String feature, float weight, float[] out) {
+        int hash = mix(feature.hashCode());
+        int index = (hash >>> 1) % out.length;
+        // Signed hashing keeps collisions from biasing the dot product
+        out[index] += (hash & 1) == 0 ? weight : -weight;
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return;
+        }
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= inv;
+        }
+    }
+
+    // Murmur3 finalizer - spreads String.hashCode bits across the index range
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,83 @@
+package com.tarumt.lms.utility;
+
+import com.tarumt.lms.model.enums.AccountStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class TrigramSearchUtils {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // pg_trgm's default (0.6) misses single-letter typos in short names, e.g. "smiht" vs "smith" scores 0.5
+    @Value("${search.fuzzy.word-similarity-threshold:0.4}")
+    private String wordSimilarityThreshold;
+
+    // ===============================
+    // Lower the word-similarity cut-off used by the <% operator for the current transaction only
+    // (SET LOCAL semantics, so it is safe behind a transaction-pooling connection pooler)
+    // ===============================
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyWordSimilarityThreshold() {
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", wordSimilarityThreshold)
+                .getSingleResult();
+    }
+
+    // ===============================
+    // Fuzzy search: ids of the best matches, substring hits first, then by trigram word similarity
+    // (typo tolerant), newest id first on ties. Applies the similarity threshold first.
+    // ===============================
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> findRankedIds(SearchTable table, AccountStatus status, String search, int limit) {
+        applyWordSimilarityThreshold();
+        List<?> ids = entityManager.createNativeQuery(table.rankedIdsSql())
+                .setParameter("status", status != null ? status.name() : null)
+                .setParameter("term", SearchUtils.similarityTerm(search))
+                .setParameter("pattern", SearchUtils.containsPattern(search))
+                .setParameter("limit", limit)
+                .getResultList();
+        return ids.stream().map(id -> ((Number) id).longValue()).collect(Collectors.toList());
+    }
+
+    /**
+     * A table searched by {@link #findRankedIds}: its id column, status column and the text columns
+     * matched (lower-cased, each needs a gin_trgm_ops index). Names are code constants, never user input.
+     */
+    public static final class SearchTable {
+
+        private final String rankedIdsSql;
+
+        public SearchTable(String table, String idColumn, String... columns) {
+            String contains = Arrays.stream(columns)
+                    .map(column -> "lower(t." + column + ") LIKE :pattern ESCAPE '\\'")
+                    .collect(Collectors.joining(" OR "));
+            String similar = Arrays.stream(columns)
+                    .map(column -> ":term <% lower(t." + column + ")")
+                    .collect(Collectors.joining(" OR "));
+            String similarity = Arrays.stream(columns)
+                    .map(column -> "word_similarity(:term, lower(t." + column + "))")
+                    .collect(Collectors.joining(", "));
+            this.rankedIdsSql = """
+                    SELECT t.%1$s FROM %2$s t
+                    WHERE (CAST(:status AS text) IS NULL OR t.status = CAST(:status AS text))
+                      AND (%3$s OR %4$s)
+                    ORDER BY (%4$s) DESC, GREATEST(%5$s) DESC, t.%1$s DESC
+                    LIMIT :limit
+                    """.formatted(idColumn, table, similar, contains, similarity);
+        }
+
+        String rankedIdsSql() {
+            return rankedIdsSql;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- A generated search_vector is recomputed on every UPDATE of the row, so each seat claim on
+-- enrolled_count re-parsed the title and description. Keep the stored values and maintain them
+-- from a trigger that only runs to_tsvector when the text actually changes.
+ALTER TABLE course ALTER COLUMN search_vector DROP EXPRESSION IF EXISTS;
+
+CREATE OR REPLACE FUNCTION course_search_vector_refresh() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' OR NEW.title IS DISTINCT FROM OLD.title OR NEW.description IS DISTINCT FROM OLD.description THEN
+        NEW.search_vector :=
+            setweight(to_tsvector('english', coalesce(NEW.title, '')), 'A') ||
+            setweight(to_tsvector('english', coalesce(NEW.description, '')), 'B');
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- UPDATE OF skips the trigger entirely for statements that do not touch the text, e.g. the seat counter
+DROP TRIGGER IF EXISTS trg_course_search_vector ON course;
+CREATE TRIGGER trg_course_search_vector
+    BEFORE INSERT OR UPDATE OF title, description ON course
+    FOR EACH ROW EXECUTE FUNCTION course_search_vector_refresh();
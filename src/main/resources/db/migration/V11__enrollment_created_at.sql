@@ -0,0 +1,5 @@
+-- When each enrollment row was inserted, so the membership index refresh reads only rows added since its last pass.
+-- now() is stable, so existing rows get the migration time without a table rewrite; the first full load covers them.
+ALTER TABLE enrollment ADD COLUMN IF NOT EXISTS created_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_enrollment_created_keyset ON enrollment (created_at, student_id, course_id);
@@ -0,0 +1,32 @@
+-- Emails are unique ignoring case: store them lowercased (as Supabase issues them) and let unique
+-- lower(email) indexes, which login and duplicate checks already use, enforce it.
+-- Accounts that differ only by case must be merged by hand first; the migration stops on them.
+DO $$
+DECLARE
+    account_table TEXT;
+    duplicates    BIGINT;
+BEGIN
+    FOREACH account_table IN ARRAY ARRAY['student', 'instructor', 'admin', 'superadmin'] LOOP
+        EXECUTE format('SELECT count(*) FROM (SELECT 1 FROM %I GROUP BY lower(email) HAVING count(*) > 1) d', account_table)
+            INTO duplicates;
+        IF duplicates > 0 THEN
+            RAISE EXCEPTION '% has % email(s) used by more than one account when case is ignored', account_table, duplicates;
+        END IF;
+    END LOOP;
+END
+$$;
+
+UPDATE student SET email = lower(email) WHERE email <> lower(email);
+UPDATE instructor SET email = lower(email) WHERE email <> lower(email);
+UPDATE admin SET email = lower(email) WHERE email <> lower(email);
+UPDATE superadmin SET email = lower(email) WHERE email <> lower(email);
+
+DROP INDEX IF EXISTS idx_student_email_lower;
+DROP INDEX IF EXISTS idx_instructor_email_lower;
+DROP INDEX IF EXISTS idx_admin_email_lower;
+DROP INDEX IF EXISTS idx_superadmin_email_lower;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_student_email_lower ON student (lower(email));
+CREATE UNIQUE INDEX IF NOT EXISTS uk_instructor_email_lower ON instructor (lower(email));
+CREATE UNIQUE INDEX IF NOT EXISTS uk_admin_email_lower ON admin (lower(email));
+CREATE UNIQUE INDEX IF NOT EXISTS uk_superadmin_email_lower ON superadmin (lower(email));
@@ -0,0 +1,13 @@
+-- Durable queue of storage objects to delete, written in the same transaction as the DB change
+CREATE TABLE IF NOT EXISTS storage_deletion_outbox (
+    outbox_id       BIGSERIAL PRIMARY KEY,
+    bucket          VARCHAR(100) NOT NULL,
+    object_path     TEXT         NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_storage_deletion_outbox_next_attempt
+    ON storage_deletion_outbox (next_attempt_at);
@@ -0,0 +1,7 @@
+-- First-page PNG preview of the certificate PDF, rendered in the background
+ALTER TABLE instructorqualification ADD COLUMN IF NOT EXISTS certificate_preview TEXT;
+
+-- The preview sweep only looks at rows that still need one
+CREATE INDEX IF NOT EXISTS idx_instructorqualification_preview_pending
+    ON instructorqualification (id)
+    WHERE certificate_preview IS NULL AND certificate_document IS NOT NULL;
@@ -0,0 +1,9 @@
+-- Admin student listing pages by (registered_date, student_id), newest first.
+-- The entity always sets registered_date; legacy rows without one are stamped so the
+-- keyset never has to deal with NULLs.
+UPDATE student SET registered_date = now() WHERE registered_date IS NULL;
+ALTER TABLE student ALTER COLUMN registered_date SET DEFAULT now();
+ALTER TABLE student ALTER COLUMN registered_date SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_student_registered_keyset
+    ON student (registered_date DESC, student_id DESC);
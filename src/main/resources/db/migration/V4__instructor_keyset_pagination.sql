@@ -0,0 +1,24 @@
+-- Admin instructor and qualification listings page by (timestamp, id), newest first.
+-- Same treatment as student.registered_date in V3: the entities always set these,
+-- legacy NULLs are stamped so the keyset comparison never sees them.
+UPDATE instructor SET registered_date = now() WHERE registered_date IS NULL;
+ALTER TABLE instructor ALTER COLUMN registered_date SET DEFAULT now();
+ALTER TABLE instructor ALTER COLUMN registered_date SET NOT NULL;
+
+UPDATE instructorqualification SET submitted_at = now() WHERE submitted_at IS NULL;
+ALTER TABLE instructorqualification ALTER COLUMN submitted_at SET DEFAULT now();
+ALTER TABLE instructorqualification ALTER COLUMN submitted_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_instructor_registered_keyset
+    ON instructor (registered_date DESC, instructor_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_instructorqualification_submitted_keyset
+    ON instructorqualification (submitted_at DESC, id DESC);
+
+-- Status tabs on the review queue (PENDING is the hot one)
+CREATE INDEX IF NOT EXISTS idx_instructorqualification_status_submitted_keyset
+    ON instructorqualification (status, submitted_at DESC, id DESC);
+
+-- Join to instructor and per-instructor lookups
+CREATE INDEX IF NOT EXISTS idx_instructorqualification_instructor
+    ON instructorqualification (instructor_id);
@@ -0,0 +1,13 @@
+-- Trigram indexes for the admin search boxes.
+-- gin_trgm_ops serves both LOWER(col) LIKE '%term%' (substring search on the listings)
+-- and the word-similarity operator used by fuzzy, typo-tolerant ranked search.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_student_name_trgm ON student USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_student_email_trgm ON student USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_instructor_name_trgm ON instructor USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_instructor_email_trgm ON instructor USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_admin_name_trgm ON admin USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_admin_email_trgm ON admin USING gin (lower(email) gin_trgm_ops);
@@ -0,0 +1,16 @@
+-- Weighted full-text document for admin course search: title matches (A) outrank description matches (B).
+-- Generated, so it can never drift from the row; GIN makes @@ cost proportional to the matches.
+ALTER TABLE course ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_course_search_vector ON course USING gin (search_vector);
+
+-- Unfiltered listing pages by (create_date, course_id), newest first; @PrePersist always sets create_date
+UPDATE course SET create_date = now() WHERE create_date IS NULL;
+ALTER TABLE course ALTER COLUMN create_date SET DEFAULT now();
+ALTER TABLE course ALTER COLUMN create_date SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_course_created_keyset ON course (create_date DESC, course_id DESC);
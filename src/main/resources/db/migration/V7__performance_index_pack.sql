@@ -0,0 +1,26 @@
+-- Indexes for the hot repository predicates that V3-V6 did not already cover.
+-- instructorqualification (status, submitted_at) ships in V4 as idx_instructorqualification_status_submitted_keyset.
+
+-- Enrollment PK is (student_id, course_id): student lookups use it, course lookups need their own index
+CREATE INDEX IF NOT EXISTS idx_enrollment_student_status ON enrollment (student_id, status);
+CREATE INDEX IF NOT EXISTS idx_enrollment_course ON enrollment (course_id);
+
+-- Public catalogue only ever reads Active courses; keep that index to the Active slice
+CREATE INDEX IF NOT EXISTS idx_course_active_catalogue ON course (course_id) WHERE status = 'Active';
+CREATE INDEX IF NOT EXISTS idx_course_instructor_status ON course (instructor_id, status);
+
+-- Status change logs are always read newest first for one subject
+CREATE INDEX IF NOT EXISTS idx_user_status_change_log_subject
+    ON user_status_change_log (user_type, user_id, changed_at DESC);
+CREATE INDEX IF NOT EXISTS idx_user_status_change_log_user
+    ON user_status_change_log (user_id, changed_at DESC);
+CREATE INDEX IF NOT EXISTS idx_course_status_change_log_course
+    ON course_status_change_log (course_id, changed_at DESC);
+CREATE INDEX IF NOT EXISTS idx_admin_status_change_log_admin
+    ON admin_status_change_log (admin_id, changed_at DESC);
+
+-- Login and duplicate checks compare lower(email); the unique constraints on email cannot serve that
+CREATE INDEX IF NOT EXISTS idx_student_email_lower ON student (lower(email));
+CREATE INDEX IF NOT EXISTS idx_instructor_email_lower ON instructor (lower(email));
+CREATE INDEX IF NOT EXISTS idx_admin_email_lower ON admin (lower(email));
+CREATE INDEX IF NOT EXISTS idx_superadmin_email_lower ON superadmin (lower(email));
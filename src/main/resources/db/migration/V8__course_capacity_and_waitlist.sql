@@ -0,0 +1,26 @@
+-- Seat limit per course; NULL means unlimited
+ALTER TABLE course ADD COLUMN IF NOT EXISTS capacity INTEGER;
+
+-- Seats taken by 'Enrolled' enrollments, kept by conditional UPDATEs on enroll and withdraw
+ALTER TABLE course ADD COLUMN IF NOT EXISTS enrolled_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE course c
+SET enrolled_count = e.taken
+FROM (SELECT course_id, count(*) AS taken FROM enrollment WHERE status = 'Enrolled' GROUP BY course_id) e
+WHERE c.course_id = e.course_id;
+
+-- Last line of defence against overbooking, whatever writes the counter
+ALTER TABLE course DROP CONSTRAINT IF EXISTS chk_course_seats_within_capacity;
+ALTER TABLE course ADD CONSTRAINT chk_course_seats_within_capacity
+    CHECK (enrolled_count >= 0 AND (capacity IS NULL OR enrolled_count <= capacity));
+
+-- Students waiting for a seat in a full course, served in waitlist_id order
+CREATE TABLE IF NOT EXISTS course_waitlist (
+    waitlist_id  BIGSERIAL PRIMARY KEY,
+    course_id    BIGINT      NOT NULL REFERENCES course (course_id),
+    student_id   BIGINT      NOT NULL REFERENCES student (student_id),
+    requested_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT uk_course_waitlist_course_student UNIQUE (course_id, student_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_course_waitlist_course_fifo ON course_waitlist (course_id, waitlist_id);
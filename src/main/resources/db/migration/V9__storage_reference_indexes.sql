@@ -0,0 +1,6 @@
+-- Every object delete, cancelled deletion and preview update looks objects up by path or URL:
+-- the outbox by (bucket, object_path), and the rows that may still reference the object.
+CREATE INDEX IF NOT EXISTS idx_storage_deletion_outbox_object ON storage_deletion_outbox (bucket, object_path);
+CREATE INDEX IF NOT EXISTS idx_instructorqualification_certificate_document ON instructorqualification (certificate_document);
+CREATE INDEX IF NOT EXISTS idx_instructorqualification_certificate_preview ON instructorqualification (certificate_preview);
+CREATE INDEX IF NOT EXISTS idx_instructor_digital_signature ON instructor (digital_signature);
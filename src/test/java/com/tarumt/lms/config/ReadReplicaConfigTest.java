@@ -0,0 +1,170 @@
+package com.tarumt.lms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadReplicaConfigTest {
+
+    private static EmbeddedPostgres primaryServer;
+    private static EmbeddedPostgres replicaServer;
+
+    private HikariDataSource primaryPool;
+    private ReplicaRoutingDataSource router;
+
+    @BeforeAll
+    static void startServers() throws Exception {
+        primaryServer = EmbeddedPostgres.start();
+        replicaServer = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopServers() throws Exception {
+        primaryServer.close();
+        replicaServer.close();
+    }
+
+    @AfterEach
+    void closePools() {
+        router.close();
+        primaryPool.close();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromReplica() {
+        DataSource dataSource = routedDataSource(replicaServer.getPort(), 0);
+
+        assertEquals(replicaServer.getPort(), serverPort(dataSource, true));
+        assertEquals(primaryServer.getPort(), serverPort(dataSource, false));
+    }
+
+    @Test
+    void readOnlyJpaTransactionsReadFromReplica() {
+        DataSource dataSource = routedDataSource(replicaServer.getPort(), 0);
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        // Same dialect setup as the application: Hibernate holds one connection per transaction
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan(ReadReplicaConfigTest.class.getPackageName());
+        factory.afterPropertiesSet();
+        try {
+            EntityManagerFactory entityManagerFactory = factory.getObject();
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+            JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+
+            assertEquals(replicaServer.getPort(), jpaServerPort(transactionManager, entityManager, true));
+            assertEquals(primaryServer.getPort(), jpaServerPort(transactionManager, entityManager, false));
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    void primaryReadsStayOnPrimaryWithoutOpeningAWindow() {
+        DataSource dataSource = routedDataSource(replicaServer.getPort(), 60_000);
+
+        assertEquals(primaryServer.getPort(),
+                ReplicaRoutingDataSource.readFromPrimary(() -> serverPort(dataSource, true)));
+
+        assertEquals(replicaServer.getPort(), serverPort(dataSource, true));
+    }
+
+    @Test
+    void readsFollowOwnWritesToPrimaryWithinWindow() {
+        DataSource dataSource = routedDataSource(replicaServer.getPort(), 60_000);
+
+        serverPort(dataSource, false);
+
+        assertEquals(primaryServer.getPort(), serverPort(dataSource, true));
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() {
+        DataSource dataSource = routedDataSource(1, 0);
+
+        assertEquals(primaryServer.getPort(), serverPort(dataSource, true));
+    }
+
+    @Test
+    void replicaPoolsUseTheSharedHikariSettings() {
+        primaryPool = pool(primaryServer.getPort());
+        router = new ReplicaRoutingDataSource(primaryPool, List.of(), 5000, 0);
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:postgresql://localhost:" + primaryServer.getPort() + "/postgres");
+        properties.setUsername("postgres");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.max-lifetime", "600000")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "30")
+                .withProperty("spring.datasource.hikari.pool-name", "primary");
+
+        String url = "jdbc:postgresql://localhost:" + replicaServer.getPort() + "/postgres";
+        try (HikariDataSource replica = ReadReplicaConfig.replicaPool(properties, Binder.get(environment), url,
+                "replica-1", 4, 250)) {
+            assertEquals(600_000, replica.getMaxLifetime());
+            assertEquals("postgres", replica.getUsername());
+            assertEquals(url, replica.getJdbcUrl());
+            assertEquals("replica-1", replica.getPoolName());
+            assertEquals(4, replica.getMaximumPoolSize());
+            assertEquals(250, replica.getConnectionTimeout());
+            assertTrue(replica.isReadOnly());
+        }
+    }
+
+    private DataSource routedDataSource(int replicaPort, long readAfterWriteWindowMs) {
+        primaryPool = pool(primaryServer.getPort());
+        HikariDataSource replicaPool = pool(replicaPort);
+        replicaPool.setConnectionTimeout(250);
+        replicaPool.setInitializationFailTimeout(-1);
+        router = new ReplicaRoutingDataSource(primaryPool, List.of(replicaPool), 5000, readAfterWriteWindowMs);
+        return new ReadReplicaConfig().dataSource(router, primaryPool);
+    }
+
+    private static HikariDataSource pool(int port) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:postgresql://localhost:" + port + "/postgres");
+        pool.setUsername("postgres");
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+
+    /**
+     * Port of the server that actually ran the query, inside a transaction of the given kind
+     */
+    private static int serverPort(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT current_setting('port')::int", Integer.class));
+    }
+
+    /**
+     * Same as {@link #serverPort}, through Hibernate and JpaTransactionManager
+     */
+    private static int jpaServerPort(JpaTransactionManager transactionManager, EntityManager entityManager, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> ((Number) entityManager
+                .createNativeQuery("SELECT current_setting('port')::int").getSingleResult()).intValue());
+    }
+}
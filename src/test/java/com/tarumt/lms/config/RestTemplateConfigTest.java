@@ -0,0 +1,65 @@
+package com.tarumt.lms.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RestTemplateConfigTest {
+
+    private HttpServer server;
+    private final Set<InetSocketAddress> clientSockets = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientSockets.add(exchange.getRemoteAddress());
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void reusesPooledConnectionAndExportsPoolMetrics() {
+        RestTemplateConfig config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "idleEvictSeconds", 30);
+        ReflectionTestUtils.setField(config, "poolAcquireTimeoutMs", 1000);
+        PoolingHttpClientConnectionManager connectionManager = config.storageConnectionManager(4, 1000, 1000);
+        RestTemplate restTemplate = config.storageRestTemplate(new RestTemplateBuilder(), connectionManager);
+
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/object";
+        for (int i = 0; i < 5; i++) {
+            assertEquals("ok", restTemplate.getForObject(url, String.class));
+        }
+        assertEquals(1, clientSockets.size());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.storageConnectionPoolMetrics(connectionManager).bindTo(registry);
+        assertEquals(4.0, registry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "storage").gauge().value());
+        assertEquals(1.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "storage").tag("state", "available").gauge().value());
+
+        connectionManager.close();
+    }
+}
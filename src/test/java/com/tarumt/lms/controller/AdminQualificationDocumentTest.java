@@ -0,0 +1,149 @@
+package com.tarumt.lms.controller;
+
+import com.tarumt.lms.service.storage.StorageBackend;
+import com.tarumt.lms.support.EmbeddedPostgresTestConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Document download endpoint against the local storage backend: it runs outside a transaction
+ * (open-in-view is off), so the signature variant must not touch a lazy association.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.flyway.enabled=false",
+        "supabase.jwt.secret=" + AdminQualificationDocumentTest.JWT_SECRET,
+        "SUPABASE_SERVICE_KEY=unused",
+        "GROQ_API_KEY=unused",
+        "DB_URL=unused",
+        "DB_USERNAME=unused",
+        "DB_PASSWORD=unused",
+        "storage.backend=local",
+        "storage.reconciliation.enabled=false",
+        "llm.enabled=false"})
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresTestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class AdminQualificationDocumentTest {
+
+    static final String JWT_SECRET = "qualification-document-test-secret-0123456789";
+
+    private static final String BUCKET = "Instructor-Docs";
+    private static final byte[] SIGNATURE = "signature-image-bytes".getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StorageBackend backend;
+
+    @DynamicPropertySource
+    static void storageDirectories(DynamicPropertyRegistry registry) throws IOException {
+        String storageRoot = Files.createTempDirectory("lms-storage").toString();
+        String cacheDirectory = Files.createTempDirectory("lms-document-cache").toString();
+        registry.add("storage.local.root", () -> storageRoot);
+        registry.add("storage.download-cache.dir", () -> cacheDirectory);
+    }
+
+    @BeforeAll
+    void seed() throws IOException {
+        backend.upload(BUCKET, "signatures/1.png", new ByteArrayResource(SIGNATURE), SIGNATURE.length, "image/png");
+        String signatureUrl = backend.objectUrl(BUCKET, "signatures/1.png");
+        jdbcTemplate.update("""
+                INSERT INTO admin (user_id, name, email, status, registered_date)
+                VALUES ('00000000-0000-0000-0000-000000000001', 'Admin', 'admin1@tarc.edu.my', 'ACTIVE', now())
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO instructor (user_id, name, email, status, registered_date, digital_signature)
+                VALUES ('00000000-0000-0000-0000-000000000001', 'Instructor', 'instructor1@tarc.edu.my', 'PENDING', now(), ?)
+                """, signatureUrl);
+        jdbcTemplate.update("""
+                INSERT INTO instructorqualification (instructor_id, qualification_level, field_of_study, status, submitted_at)
+                VALUES (1, 'DEGREE', 'Computer Science', 'PENDING', now())
+                """);
+    }
+
+    @Test
+    void servesTheSignatureVariant() throws Exception {
+        MvcResult result = mockMvc.perform(download("signature")).andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        assertArrayEquals(SIGNATURE, result.getResponse().getContentAsByteArray());
+        assertEquals("image/png", result.getResponse().getContentType());
+    }
+
+    @Test
+    void servesTheRequestedRange() throws Exception {
+        MvcResult result = mockMvc.perform(download("signature").header(HttpHeaders.RANGE, "bytes=0-8")).andReturn();
+
+        assertEquals(206, result.getResponse().getStatus());
+        assertEquals("bytes 0-8/" + SIGNATURE.length, result.getResponse().getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("signature", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void answersNotModifiedForAMatchingEtag() throws Exception {
+        String etag = mockMvc.perform(download("signature")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult result = mockMvc.perform(download("signature").header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn();
+
+        assertEquals(304, result.getResponse().getStatus());
+        assertEquals(0, result.getResponse().getContentLength());
+    }
+
+    @Test
+    void rejectsAnUnknownVariant() throws Exception {
+        assertEquals(400, mockMvc.perform(download("passport")).andReturn().getResponse().getStatus());
+    }
+
+    @Test
+    void reportsAMissingDocumentAsNotFound() throws Exception {
+        // The seeded qualification has no certificate uploaded
+        assertEquals(404, mockMvc.perform(download("certificate")).andReturn().getResponse().getStatus());
+    }
+
+    private MockHttpServletRequestBuilder download(String variant) {
+        return get("/api/admin/requirements/1/document")
+                .param("variant", variant)
+                .header("Authorization", "Bearer " + token());
+    }
+
+    private static String token() {
+        return Jwts.builder()
+                .setSubject("00000000-0000-0000-0000-000000000001")
+                .claim("email", "admin1@tarc.edu.my")
+                .setExpiration(new Date(System.currentTimeMillis() + 600_000))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
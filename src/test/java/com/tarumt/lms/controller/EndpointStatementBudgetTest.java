@@ -0,0 +1,245 @@
+package com.tarumt.lms.controller;
+
+import com.tarumt.lms.service.DatabaseContextService;
+import com.tarumt.lms.support.EmbeddedPostgresTestConfig;
+import com.tarumt.lms.support.JdbcActivityRecorder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * Statement and row budgets per endpoint, measured at the JDBC level on a seeded Postgres.
+ * Every list in the seed has 30 rows spread over several admins/instructors/categories, so a
+ * lazy association touched per row (N+1) blows the budget. A failure prints the SQL issued.
+ * When a change legitimately needs another query, raise the budget in the same commit.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.flyway.enabled=false",
+        "supabase.jwt.secret=" + EndpointStatementBudgetTest.JWT_SECRET,
+        "SUPABASE_SERVICE_KEY=unused",
+        "GROQ_API_KEY=unused",
+        "DB_URL=unused",
+        "DB_USERNAME=unused",
+        "DB_PASSWORD=unused",
+        "storage.backend=local",
+        "storage.reconciliation.enabled=false",
+        "llm.enabled=false"})
+@AutoConfigureMockMvc
+@Import(EmbeddedPostgresTestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class EndpointStatementBudgetTest {
+
+    static final String JWT_SECRET = "statement-budget-test-secret-0123456789abcdef";
+
+    private static final String SEED = """
+            INSERT INTO admin (user_id, name, email, status, registered_date)
+            SELECT ('00000000-0000-0000-0000-' || lpad(g::text, 12, '0'))::uuid, 'Admin ' || g, 'admin' || g || '@tarc.edu.my', 'ACTIVE', now()
+            FROM generate_series(1, 3) g;
+            INSERT INTO superadmin (user_id, name, email, status, registered_date)
+            VALUES ('00000000-0000-0000-0000-000000000001', 'Super', 'super1@tarc.edu.my', 'ACTIVE', now());
+            INSERT INTO student (user_id, name, email, status, registered_date)
+            SELECT ('00000000-0000-0000-0000-' || lpad(g::text, 12, '0'))::uuid, 'Student ' || g, 'student' || g || '@student.tarc.edu.my', 'ACTIVE', now() - g * interval '1 hour'
+            FROM generate_series(1, 30) g;
+            INSERT INTO instructor (user_id, name, email, status, registered_date)
+            SELECT ('00000000-0000-0000-0000-' || lpad(g::text, 12, '0'))::uuid, 'Instructor ' || g, 'instructor' || g || '@tarc.edu.my', 'ACTIVE', now() - g * interval '1 hour'
+            FROM generate_series(1, 30) g;
+            INSERT INTO coursecategory (category_type, interest)
+            SELECT 'Category ' || g, 'Interest ' || g FROM generate_series(1, 3) g;
+            INSERT INTO course (title, description, level, status, credit_hour, create_date, instructor_id, course_category_id)
+            SELECT 'Database Course ' || g, 'Learn databases part ' || g, 'Beginner', CASE WHEN g % 2 = 1 THEN 'Active' ELSE 'Inactive' END,
+                   3, now() - g * interval '1 hour', g, g % 3 + 1
+            FROM generate_series(1, 30) g;
+            INSERT INTO enrollment (student_id, course_id, enroll_date, status, progress)
+            SELECT 1, g, current_date, 'Enrolled', 10 * g FROM generate_series(1, 5) g;
+            INSERT INTO instructorqualification (instructor_id, qualification_level, field_of_study, status, made_by_admin, made_at, submitted_at)
+            SELECT (g - 1) / 2 + 1, 'DEGREE', 'Computer Science',
+                   CASE WHEN g % 2 = 1 THEN 'VERIFIED' ELSE 'PENDING' END,
+                   CASE WHEN g % 2 = 1 THEN g % 3 + 1 END,
+                   CASE WHEN g % 2 = 1 THEN now() END,
+                   now() - g * interval '1 hour'
+            FROM generate_series(1, 60) g;
+            INSERT INTO user_status_change_log (user_type, user_id, old_status, new_status, changed_by_admin, changed_at, reason)
+            SELECT 'STUDENT', 1, 'ACTIVE', 'INACTIVE', g % 3 + 1, now() - g * interval '1 minute', 'seed'
+            FROM generate_series(1, 30) g;
+            INSERT INTO course_status_change_log (course_id, old_status, new_status, changed_by_admin_id, changed_at)
+            SELECT g % 5 + 1, 'Active', 'Inactive', g % 3 + 1, now() - g * interval '1 minute'
+            FROM generate_series(1, 30) g;
+            INSERT INTO admin_status_change_log (admin_id, old_status, new_status, changed_by_superadmin_id, changed_at, reason)
+            SELECT 2, 'ACTIVE', 'INACTIVE', 1, now() - g * interval '1 minute', 'seed'
+            FROM generate_series(1, 30) g;
+            INSERT INTO faq (question, answer, category, keywords, display_order, is_active, created_at, updated_at)
+            SELECT 'How do I enrol ' || g || '?', 'Open the course page.', 'GENERAL', 'enrol,course', g, true, now(), now()
+            FROM generate_series(1, 5) g;
+            ANALYZE;
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabaseContextService databaseContextService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute(SEED);
+    }
+
+    /**
+     * role, method, path, body, max statements, max rows. Reads first; writes touch rows no read depends on.
+     */
+    Stream<Arguments> endpoints() {
+        return Stream.of(
+                // Admin
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/1", null, 1, 1),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/students?limit=20", null, 2, 22),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/students?search=studnet&fuzzy=true", null, 4, 62),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/students/1", null, 2, 2),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/instructors?limit=20", null, 2, 22),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/instructors/1", null, 3, 4),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/requirements?limit=20", null, 2, 22),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/requirements/1/details", null, 3, 3),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/requirements/history", null, 2, 31),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/courses?limit=20", null, 2, 22),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/courses?search=database", null, 3, 61),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/courses/status-change-logs", null, 2, 31),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/status-change-logs?userType=STUDENT", null, 2, 31),
+                Arguments.of("admin", HttpMethod.GET, "/api/admin/status-change-logs/user/1", null, 2, 31),
+                Arguments.of("admin", HttpMethod.POST, "/api/auth/admin/login", null, 2, 2),
+                // SuperAdmin
+                Arguments.of("super", HttpMethod.GET, "/api/superadmin/admins", null, 2, 4),
+                Arguments.of("super", HttpMethod.GET, "/api/superadmin/admins?search=admn", null, 4, 8),
+                Arguments.of("super", HttpMethod.GET, "/api/superadmin/admins/1", null, 2, 2),
+                Arguments.of("super", HttpMethod.GET, "/api/superadmin/admin-status-change-logs", null, 2, 31),
+                Arguments.of("super", HttpMethod.GET, "/api/superadmin/admin-status-change-logs/admin/2", null, 2, 31),
+                Arguments.of("super", HttpMethod.POST, "/api/auth/superadmin/login", null, 2, 2),
+                // Instructor and student self-service
+                Arguments.of("instructor", HttpMethod.GET, "/api/instructor/1", null, 1, 1),
+                Arguments.of("instructor", HttpMethod.GET, "/api/instructor/requirement/status/1", null, 3, 4),
+                Arguments.of("instructor", HttpMethod.GET, "/api/instructor/requirements/1/history", null, 3, 4),
+                Arguments.of("student", HttpMethod.GET, "/api/student/1", null, 1, 1),
+                // Progress pings are buffered: only the student lookup and, on a membership index miss,
+                // the enrollment check touch the database
+                Arguments.of("student", HttpMethod.POST, "/api/student/1/courses/1/progress",
+                        "{\"progress\":55}", 2, 2),
+                // Writes
+                Arguments.of("admin", HttpMethod.POST, "/api/admin/courses/3/status",
+                        "{\"status\":\"Inactive\",\"reason\":\"budget\"}", 4, 3),
+                Arguments.of("admin", HttpMethod.POST, "/api/admin/students/2/status",
+                        "{\"status\":\"INACTIVE\",\"reason\":\"budget\"}", 4, 3),
+                Arguments.of("admin", HttpMethod.POST, "/api/admin/instructors/2/status",
+                        "{\"status\":\"INACTIVE\",\"reason\":\"budget\"}", 4, 3),
+                Arguments.of("admin", HttpMethod.POST, "/api/admin/requirements/2/approve", null, 4, 3),
+                Arguments.of("admin", HttpMethod.POST, "/api/admin/requirements/4/reject",
+                        "{\"rejectionReason\":\"budget\"}", 3, 2),
+                Arguments.of("super", HttpMethod.PUT, "/api/superadmin/admins/3/status",
+                        "{\"status\":\"INACTIVE\",\"reason\":\"budget\"}", 4, 3));
+    }
+
+    @ParameterizedTest(name = "{1} {2}")
+    @MethodSource("endpoints")
+    void staysWithinStatementBudget(String role, HttpMethod method, String path, String body,
+                                    int maxStatements, int maxRows) throws Exception {
+        MockHttpServletRequestBuilder call = request(method, path).header("Authorization", "Bearer " + tokenFor(role));
+        if (body != null) {
+            call.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+
+        MvcResult[] result = new MvcResult[1];
+        JdbcActivityRecorder.Activity activity = JdbcActivityRecorder.record(() -> result[0] = mockMvc.perform(call).andReturn());
+
+        assertTrue(result[0].getResponse().getStatus() < 300,
+                () -> path + " -> " + result[0].getResponse().getStatus() + " " + contentOf(result[0]));
+        assertBudget(method + " " + path, activity, maxStatements, maxRows);
+    }
+
+    @Test
+    void chatContextStaysWithinStatementBudget() throws Exception {
+        JdbcActivityRecorder.Activity activity = JdbcActivityRecorder.record(
+                () -> databaseContextService.getDatabaseContext("Which database courses can I take?", "1", "STUDENT"));
+
+        assertBudget("chat context", activity, 8, 19);
+    }
+
+    @Test
+    void publishesPerHandlerDatabaseMetrics() throws Exception {
+        String handler = "AdminController.getAdminProfile";
+        double statementsBefore = statementsRecordedFor(handler);
+
+        JdbcActivityRecorder.Activity activity = JdbcActivityRecorder.record(() -> mockMvc.perform(
+                request(HttpMethod.GET, "/api/admin/1").header("Authorization", "Bearer " + tokenFor("admin"))));
+
+        assertEquals(statementsBefore + activity.getStatementCount(), statementsRecordedFor(handler));
+        assertTrue(meterRegistry.get("db.request.time").tag("handler", handler).timer().count() > 0);
+        assertTrue(meterRegistry.get("db.request.rows").tag("handler", handler).summary().totalAmount() > 0);
+    }
+
+    private double statementsRecordedFor(String handler) {
+        DistributionSummary summary = meterRegistry.find("db.request.statements").tag("handler", handler).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private static void assertBudget(String label, JdbcActivityRecorder.Activity activity, int maxStatements, int maxRows) {
+        assertTrue(activity.getStatementCount() <= maxStatements, () -> String.format(
+                "%s issued %d statements (budget %d):%n%s", label, activity.getStatementCount(), maxStatements, activity.describe()));
+        assertTrue(activity.getRows() <= maxRows, () -> String.format(
+                "%s fetched %d rows (budget %d):%n%s", label, activity.getRows(), maxRows, activity.describe()));
+    }
+
+    private static String tokenFor(String role) {
+        String email = switch (role) {
+            case "admin" -> "admin1@tarc.edu.my";
+            case "super" -> "super1@tarc.edu.my";
+            case "instructor" -> "instructor1@tarc.edu.my";
+            default -> "student1@student.tarc.edu.my";
+        };
+        return Jwts.builder()
+                .setSubject("00000000-0000-0000-0000-000000000001")
+                .claim("email", email)
+                .setExpiration(new Date(System.currentTimeMillis() + 600_000))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static String contentOf(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception e) {
+            return "<unreadable>";
+        }
+    }
+}
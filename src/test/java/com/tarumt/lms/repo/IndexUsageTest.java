@@ -0,0 +1,209 @@
+package com.tarumt.lms.repo;
+
+import com.tarumt.lms.model.enums.AccountStatus;
+import com.tarumt.lms.model.enums.Role;
+import com.tarumt.lms.support.EmbeddedPostgresTestConfig;
+import com.tarumt.lms.support.JdbcActivityRecorder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot repository queries against a seeded Postgres and asserts that the plan
+ * Postgres caches for each prepared statement (the generic plan) reads the intended index.
+ * The SQL under test is exactly what Hibernate sends, captured by {@link JdbcActivityRecorder}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.flyway.enabled=false"})
+@Import(EmbeddedPostgresTestConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class IndexUsageTest {
+
+    private static final String SEED = """
+            INSERT INTO student (student_id, user_id, name, email, status, registered_date)
+            SELECT g, gen_random_uuid(), 'Student ' || g, 'student' || g || '@student.tarc.edu.my', 'ACTIVE', now() - g * interval '1 minute'
+            FROM generate_series(1, 20000) g;
+            INSERT INTO instructor (instructor_id, user_id, name, email, status, registered_date)
+            SELECT g, gen_random_uuid(), 'Instructor ' || g, 'instructor' || g || '@tarc.edu.my', 'ACTIVE', now()
+            FROM generate_series(1, 5000) g;
+            INSERT INTO admin (admin_id, user_id, name, email, status, registered_date)
+            SELECT g, gen_random_uuid(), 'Admin ' || g, 'admin' || g || '@tarc.edu.my', 'ACTIVE', now()
+            FROM generate_series(1, 5000) g;
+            INSERT INTO superadmin (super_admin_id, user_id, name, email, status, registered_date)
+            SELECT g, gen_random_uuid(), 'Super ' || g, 'super' || g || '@tarc.edu.my', 'ACTIVE', now()
+            FROM generate_series(1, 5000) g;
+            INSERT INTO coursecategory (course_category_id, category_type)
+            SELECT g, 'Category ' || g FROM generate_series(1, 20) g;
+            INSERT INTO course (course_id, title, level, status, create_date, instructor_id, course_category_id)
+            SELECT g, 'Course ' || g, 'Beginner', CASE WHEN g % 20 = 0 THEN 'Active' ELSE 'Inactive' END,
+                   now() - g * interval '1 hour', g % 5000 + 1, g % 20 + 1
+            FROM generate_series(1, 10000) g;
+            INSERT INTO enrollment (student_id, course_id, enroll_date, status, progress)
+            SELECT (g - 1) / 5 + 1, (g * 7919) % 10000 + 1, current_date,
+                   (ARRAY['Enrolled', 'Completed', 'Dropped'])[g % 3 + 1], 0
+            FROM generate_series(1, 100000) g;
+            INSERT INTO user_status_change_log (user_type, user_id, old_status, new_status, changed_by_admin, changed_at)
+            SELECT (ARRAY['STUDENT', 'INSTRUCTOR', 'ADMIN'])[g % 3 + 1], g % 5000 + 1, 'ACTIVE', 'INACTIVE',
+                   g % 5000 + 1, now() - g * interval '1 minute'
+            FROM generate_series(1, 50000) g;
+            INSERT INTO course_status_change_log (course_id, old_status, new_status, changed_by_admin_id, changed_at)
+            SELECT g % 10000 + 1, 'Active', 'Inactive', g % 5000 + 1, now() - g * interval '1 minute'
+            FROM generate_series(1, 50000) g;
+            INSERT INTO admin_status_change_log (admin_id, old_status, new_status, changed_by_superadmin_id, changed_at, reason)
+            SELECT g % 5000 + 1, 'ACTIVE', 'INACTIVE', g % 5000 + 1, now() - g * interval '1 minute', 'seed'
+            FROM generate_series(1, 50000) g;
+            UPDATE instructor SET digital_signature = 'local://Instructor-Docs/digital-signature/' || instructor_id || '.png';
+            INSERT INTO instructorqualification (instructor_id, qualification_level, status, submitted_at, certificate_document, certificate_preview)
+            SELECT g % 5000 + 1, 'DEGREE', 'PENDING', now() - g * interval '1 minute',
+                   'local://Instructor-Docs/certificates/' || g || '.pdf', 'local://Instructor-Docs/previews/' || g || '.png'
+            FROM generate_series(1, 20000) g;
+            INSERT INTO storage_deletion_outbox (bucket, object_path, attempts, next_attempt_at, created_at)
+            SELECT 'Instructor-Docs', 'certificates/' || g || '.pdf', 0, now(), now()
+            FROM generate_series(1, 20000) g;
+            ANALYZE;
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private InstructorRepository instructorRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private SuperAdminRepository superAdminRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private InstructorQualificationRepository instructorQualificationRepository;
+
+    @Autowired
+    private StorageDeletionOutboxRepository storageDeletionOutboxRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private UserStatusChangeLogRepository userStatusChangeLogRepository;
+
+    @Autowired
+    private CourseStatusChangeLogRepository courseStatusChangeLogRepository;
+
+    @Autowired
+    private AdminStatusChangeLogRepository adminStatusChangeLogRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute(SEED);
+    }
+
+    Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("uk_student_email_lower",
+                        (Runnable) () -> studentRepository.findByEmailAndStatus("Student42@student.tarc.edu.my", AccountStatus.ACTIVE)),
+                Arguments.of("uk_instructor_email_lower",
+                        (Runnable) () -> instructorRepository.existsByEmail("instructor42@tarc.edu.my")),
+                Arguments.of("uk_admin_email_lower",
+                        (Runnable) () -> adminRepository.findByEmailAndStatus("admin42@tarc.edu.my", AccountStatus.ACTIVE)),
+                Arguments.of("uk_superadmin_email_lower",
+                        (Runnable) () -> superAdminRepository.findByEmail("super42@tarc.edu.my")),
+                Arguments.of("idx_enrollment_student_status",
+                        (Runnable) () -> enrollmentRepository.findByStudentIdAndStatus(42L, "Enrolled")),
+                Arguments.of("idx_enrollment_course",
+                        (Runnable) () -> enrollmentRepository.findByCourseId(42L)),
+                Arguments.of("idx_course_active_catalogue",
+                        (Runnable) () -> courseRepository.findActiveWithInstructorAndCategory()),
+                Arguments.of("idx_course_instructor_status",
+                        (Runnable) () -> courseRepository.findByInstructor_InstructorIdAndStatus(42L, "Active")),
+                Arguments.of("idx_user_status_change_log_subject",
+                        (Runnable) () -> userStatusChangeLogRepository.findViewsByUserTypeAndUserId(Role.STUDENT, 42L)),
+                Arguments.of("idx_user_status_change_log_user",
+                        (Runnable) () -> userStatusChangeLogRepository.findViewsByUserId(42L)),
+                Arguments.of("idx_course_status_change_log_course",
+                        (Runnable) () -> courseStatusChangeLogRepository.findViewsByCourseId(42L)),
+                Arguments.of("idx_admin_status_change_log_admin",
+                        (Runnable) () -> adminStatusChangeLogRepository.findViewsByAdminId(42L)),
+                Arguments.of("idx_storage_deletion_outbox_object",
+                        (Runnable) () -> storageDeletionOutboxRepository.findQueuedPaths("Instructor-Docs", List.of("certificates/42.pdf"))),
+                Arguments.of("idx_instructorqualification_certificate_document",
+                        (Runnable) () -> instructorQualificationRepository.countByCertificateDocument("local://Instructor-Docs/certificates/42.pdf")),
+                Arguments.of("idx_instructorqualification_certificate_preview",
+                        (Runnable) () -> instructorQualificationRepository.findReferencedCertificatePreviews(List.of("local://Instructor-Docs/previews/42.png"))),
+                Arguments.of("idx_instructor_digital_signature",
+                        (Runnable) () -> instructorRepository.countByDigitalSignature("local://Instructor-Docs/digital-signature/42.png")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void repositoryQueryUsesIndex(String index, Runnable repositoryCall) throws Exception {
+        String sql = JdbcActivityRecorder.record(repositoryCall::run).getStatements().get(0);
+
+        String plan = genericPlanOf(sql);
+
+        assertTrue(plan.contains(index), () -> "Expected " + index + " for\n" + sql + "\n" + plan);
+    }
+
+    /**
+     * EXPLAIN the statement as a prepared statement forced onto its generic plan, i.e. the plan
+     * chosen without looking at parameter values. Parameters are passed as NULL for that reason.
+     */
+    private String genericPlanOf(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String arguments = parameters == 0 ? ""
+                : Stream.generate(() -> "NULL").limit(parameters).collect(Collectors.joining(", ", "(", ")"));
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE hot_query AS " + numbered);
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery("EXPLAIN EXECUTE hot_query" + arguments)) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("DEALLOCATE hot_query");
+                statement.execute("RESET plan_cache_mode");
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.tarumt.lms.repo;
+
+import com.tarumt.lms.config.SecondLevelCacheConfig;
+import com.tarumt.lms.model.Faq;
+import com.tarumt.lms.model.enums.AccountStatus;
+import com.tarumt.lms.support.EmbeddedPostgresTestConfig;
+import com.tarumt.lms.support.JdbcActivityRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reference data and admin lookups are served from the second-level cache after the first read,
+ * and writes through JPA evict what they make stale.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.flyway.enabled=false"})
+@Import(EmbeddedPostgresTestConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class SecondLevelCacheTest {
+
+    private static final String SEED = """
+            INSERT INTO coursecategory (category_type, interest)
+            SELECT 'Category ' || g, 'Interest ' || g FROM generate_series(1, 3) g;
+            INSERT INTO faq (question, answer, category, keywords, display_order, is_active, created_at, updated_at)
+            SELECT 'Question ' || g, 'Answer ' || g, 'GENERAL', 'enrol,course', g, true, now(), now()
+            FROM generate_series(1, 3) g;
+            INSERT INTO admin (user_id, name, email, status, registered_date)
+            VALUES (gen_random_uuid(), 'Admin', 'admin@tarc.edu.my', 'ACTIVE', now());
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CourseCategoryRepository courseCategoryRepository;
+
+    @Autowired
+    private FaqRepository faqRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute(SEED);
+    }
+
+    @Test
+    void categoryLookupIsServedFromCache() throws Exception {
+        courseCategoryRepository.findByCourseCategoryId(1L);
+
+        JdbcActivityRecorder.Activity repeat = JdbcActivityRecorder.record(() -> {
+            courseCategoryRepository.findByCourseCategoryId(1L);
+            courseCategoryRepository.findById(1L);
+        });
+
+        assertEquals(0, repeat.getStatementCount(), repeat::describe);
+    }
+
+    @Test
+    void activeAdminLookupIsServedFromCache() throws Exception {
+        adminRepository.findByEmailAndStatus("admin@tarc.edu.my", AccountStatus.ACTIVE);
+
+        JdbcActivityRecorder.Activity repeat = JdbcActivityRecorder.record(
+                () -> adminRepository.findByEmailAndStatus("admin@tarc.edu.my", AccountStatus.ACTIVE));
+
+        assertEquals(0, repeat.getStatementCount(), repeat::describe);
+    }
+
+    @Test
+    void faqWriteEvictsCachedQueries() throws Exception {
+        faqRepository.findByIsActiveTrueOrderByDisplayOrderAsc();
+        JdbcActivityRecorder.Activity cached = JdbcActivityRecorder.record(faqRepository::findByIsActiveTrueOrderByDisplayOrderAsc);
+        assertEquals(0, cached.getStatementCount(), cached::describe);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Faq faq = faqRepository.findById(2L).orElseThrow();
+            faq.setIsActive(false);
+        });
+
+        List<Faq>[] afterWrite = new List[1];
+        JdbcActivityRecorder.Activity reread = JdbcActivityRecorder.record(
+                () -> afterWrite[0] = faqRepository.findByIsActiveTrueOrderByDisplayOrderAsc());
+        assertEquals(1, reread.getStatementCount(), reread::describe);
+        assertEquals(List.of(1L, 3L), afterWrite[0].stream().map(Faq::getFaqId).toList());
+    }
+
+    @Test
+    void regionsReportHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new SecondLevelCacheConfig().secondLevelCacheMetrics(entityManagerFactory).bindTo(registry);
+
+        courseCategoryRepository.findById(3L);
+        courseCategoryRepository.findById(3L);
+
+        double hits = registry.get("cache.gets").tag("cache", "courseCategory").tag("result", "hit")
+                .functionCounter().count();
+        assertTrue(hits > 0, "courseCategory region reported no hits");
+        // Query regions are bound even before their first query
+        assertTrue(registry.find("cache.gets").tag("cache", "admin-queries").functionCounters().size() > 0);
+    }
+}
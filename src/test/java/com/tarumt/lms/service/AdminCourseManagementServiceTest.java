@@ -0,0 +1,79 @@
+package com.tarumt.lms.service;
+
+import com.tarumt.lms.dto.CourseAdminViewDTO;
+import com.tarumt.lms.dto.CursorPageDTO;
+import com.tarumt.lms.support.EmbeddedPostgresTestConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.flyway.enabled=false"})
+@Import({EmbeddedPostgresTestConfig.class, AdminCourseManagementService.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class AdminCourseManagementServiceTest {
+
+    // Rows backfilled or defaulted by now() share a microsecond timestamp that a millisecond Date cannot hold
+    private static final String SEED = """
+            INSERT INTO instructor (user_id, name, email, status, registered_date)
+            VALUES (gen_random_uuid(), 'Instructor', 'instructor@tarc.edu.my', 'ACTIVE', now());
+            INSERT INTO coursecategory (category_type) VALUES ('Category');
+            INSERT INTO course (title, level, status, create_date, instructor_id, course_category_id)
+            SELECT 'Course ' || g, 'Beginner', 'Active',
+                   CASE WHEN g <= 12 THEN timestamptz '2026-01-01 10:00:00.123456+00'
+                        ELSE timestamptz '2026-01-01 10:00:00.123000+00' + (g % 3) * interval '1 microsecond' END,
+                   1, 1
+            FROM generate_series(1, 20) g;
+            """;
+
+    @Autowired
+    private AdminCourseManagementService adminCourseManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute(SEED);
+    }
+
+    @Test
+    void pagesThroughRowsSharingASubMillisecondTimestamp() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<CourseAdminViewDTO> page = adminCourseManagementService.getAllCourses(null, null, cursor, 5);
+            page.getItems().forEach(course -> seen.add(course.getCourseId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Newest first: the 12 rows at .123456, then .123002, .123001, .123000, each by id descending
+        List<Long> expected = new ArrayList<>(LongStream.rangeClosed(1, 12).map(id -> 13 - id).boxed().toList());
+        for (int micros = 2; micros >= 0; micros--) {
+            for (long id = 20; id >= 13; id--) {
+                if (id % 3 == micros) {
+                    expected.add(id);
+                }
+            }
+        }
+        assertEquals(expected, seen);
+    }
+}
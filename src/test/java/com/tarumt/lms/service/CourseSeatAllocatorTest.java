@@ -0,0 +1,248 @@
+package com.tarumt.lms.service;
+
+import com.tarumt.lms.model.enums.EnrollmentOutcome;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class CourseSeatAllocatorTest {
+
+    private static final int COURSES = 10;
+    private static final int CAPACITY = 100;
+    private static final int STUDENTS = 4_000;
+    private static final int THREADS = 32;
+    private static final List<String> MIGRATIONS = List.of("V6__course_full_text_search.sql",
+            "V8__course_capacity_and_waitlist.sql", "V10__course_search_vector_trigger.sql");
+
+    private static EmbeddedPostgres postgres;
+    private static HikariDataSource pool;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transaction;
+
+    private CourseSeatAllocator allocator;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        pool = new HikariDataSource();
+        pool.setJdbcUrl(postgres.getJdbcUrl("postgres", "postgres"));
+        pool.setMaximumPoolSize(THREADS);
+        jdbcTemplate = new JdbcTemplate(pool);
+        transaction = new TransactionTemplate(new DataSourceTransactionManager(pool));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        pool.close();
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Just the columns V6, V8, V10 and the allocator rely on, with enrollments that predate the migrations
+        jdbcTemplate.execute("""
+                DROP TABLE IF EXISTS course_waitlist, enrollment, course, student;
+                CREATE TABLE student (student_id bigint PRIMARY KEY);
+                CREATE TABLE course (course_id bigint PRIMARY KEY, status varchar(20) NOT NULL,
+                    title varchar(255) DEFAULT 'Databases', description text, create_date timestamp);
+                CREATE TABLE enrollment (
+                    student_id bigint NOT NULL REFERENCES student, course_id bigint NOT NULL REFERENCES course,
+                    enroll_date date NOT NULL, status varchar(20), progress int, PRIMARY KEY (student_id, course_id));
+                INSERT INTO student SELECT generate_series(1, %d);
+                INSERT INTO course SELECT generate_series(1, %d), 'Active';
+                INSERT INTO course VALUES (99, 'Active'), (98, 'Inactive');
+                INSERT INTO enrollment VALUES (1, 99, current_date, 'Enrolled', 0), (2, 99, current_date, 'Enrolled', 0),
+                                              (3, 99, current_date, 'Completed', 100), (4, 99, current_date, 'Withdrawn', 0);
+                """.formatted(STUDENTS, COURSES));
+        for (String migration : MIGRATIONS) {
+            jdbcTemplate.execute(Files.readString(Path.of("src/main/resources/db/migration", migration)));
+        }
+        jdbcTemplate.update("UPDATE course SET capacity = ? WHERE course_id <= ?", CAPACITY, COURSES);
+
+        allocator = new CourseSeatAllocator();
+        ReflectionTestUtils.setField(allocator, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(allocator, "membershipIndex", new EnrollmentMembershipIndex());
+    }
+
+    @Test
+    void migrationCountsOnlyEnrolledSeats() {
+        assertEquals(2, enrolledCount(99));
+    }
+
+    @Test
+    void concurrentEnrollmentsNeverOverbook() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<EnrollmentOutcome>> requests = new ArrayList<>();
+        long started = System.nanoTime();
+        for (long student = 1; student <= STUDENTS; student++) {
+            long studentId = student;
+            long courseId = student % COURSES + 1;
+            requests.add(executor.submit(() -> enroll(studentId, courseId)));
+        }
+        int enrolled = 0;
+        for (Future<EnrollmentOutcome> request : requests) {
+            if (request.get() == EnrollmentOutcome.ENROLLED) {
+                enrolled++;
+            }
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("{} enrollment requests over {} courses in {} ms ({} requests/s)",
+                STUDENTS, COURSES, elapsedMs, STUDENTS * 1000L / elapsedMs);
+
+        assertEquals(COURSES * CAPACITY, enrolled);
+        for (long courseId = 1; courseId <= COURSES; courseId++) {
+            assertEquals(CAPACITY, enrolledCount(courseId));
+            assertEquals(CAPACITY, enrolledRows(courseId));
+            assertEquals(STUDENTS / COURSES - CAPACITY, waitlistSize(courseId));
+        }
+
+        // Concurrent withdrawals hand their seats to the waitlist in arrival order
+        List<Long> withdrawing = jdbcTemplate.queryForList(
+                "SELECT student_id FROM enrollment WHERE course_id = 1 ORDER BY student_id LIMIT 50", Long.class);
+        List<Long> firstInLine = jdbcTemplate.queryForList(
+                "SELECT student_id FROM course_waitlist WHERE course_id = 1 ORDER BY waitlist_id LIMIT 50", Long.class);
+        List<Future<Boolean>> withdrawals = new ArrayList<>();
+        for (Long studentId : withdrawing) {
+            withdrawals.add(executor.submit(() -> withdraw(studentId, 1)));
+        }
+        for (Future<Boolean> withdrawal : withdrawals) {
+            assertTrue(withdrawal.get());
+        }
+        executor.shutdown();
+
+        assertEquals(CAPACITY, enrolledCount(1));
+        assertEquals(CAPACITY, enrolledRows(1));
+        assertEquals(STUDENTS / COURSES - CAPACITY - firstInLine.size(), waitlistSize(1));
+        for (Long studentId : firstInLine) {
+            assertEquals("Enrolled", statusOf(studentId, 1));
+        }
+    }
+
+    @Test
+    void withdrawalPromotesHeadOfWaitlist() {
+        jdbcTemplate.update("UPDATE course SET capacity = 2 WHERE course_id = 1");
+
+        assertEquals(EnrollmentOutcome.ENROLLED, enroll(1, 1));
+        assertEquals(EnrollmentOutcome.ENROLLED, enroll(2, 1));
+        assertEquals(EnrollmentOutcome.WAITLISTED, enroll(3, 1));
+        assertEquals(EnrollmentOutcome.WAITLISTED, enroll(4, 1));
+        assertEquals(EnrollmentOutcome.WAITLISTED, enroll(3, 1));
+
+        assertTrue(withdraw(1, 1));
+
+        assertEquals(2, enrolledCount(1));
+        assertEquals("Enrolled", statusOf(3, 1));
+        assertEquals(List.of(4L), jdbcTemplate.queryForList("SELECT student_id FROM course_waitlist WHERE course_id = 1", Long.class));
+    }
+
+    @Test
+    void withdrawalWithEmptyWaitlistFreesTheSeat() {
+        enroll(1, 1);
+
+        assertTrue(withdraw(1, 1));
+        assertFalse(withdraw(1, 1));
+
+        assertEquals(0, enrolledCount(1));
+        assertEquals("Withdrawn", statusOf(1, 1));
+    }
+
+    @Test
+    void withdrawalFromInactiveCoursePromotesNobody() {
+        jdbcTemplate.update("UPDATE course SET capacity = 1 WHERE course_id = 1");
+        enroll(1, 1);
+        assertEquals(EnrollmentOutcome.WAITLISTED, enroll(2, 1));
+        jdbcTemplate.update("UPDATE course SET status = 'Inactive' WHERE course_id = 1");
+
+        assertTrue(withdraw(1, 1));
+
+        assertEquals(0, enrolledCount(1));
+        assertEquals(0, enrolledRows(1));
+        assertEquals(1, waitlistSize(1));
+    }
+
+    @Test
+    void seatClaimsLeaveTheSearchVectorAlone() {
+        // Only a recomputation would overwrite the marker
+        jdbcTemplate.update("UPDATE course SET search_vector = 'marker'::tsvector WHERE course_id = 1");
+
+        enroll(1, 1);
+        assertTrue(withdraw(1, 1));
+
+        assertEquals("'marker'", searchVector(1));
+        jdbcTemplate.update("UPDATE course SET title = 'Operating Systems' WHERE course_id = 1");
+        assertEquals("'oper':1A 'system':2A", searchVector(1));
+    }
+
+    @Test
+    void duplicateEnrollmentGivesTheSeatBack() {
+        enroll(1, 1);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> enroll(1, 1));
+
+        assertEquals("Student is already enrolled in this course", e.getMessage());
+        assertEquals(1, enrolledCount(1));
+    }
+
+    @Test
+    void rejectsUnknownStudentsAndUnavailableCourses() {
+        assertEquals("Student not found with ID: 999999",
+                assertThrows(RuntimeException.class, () -> enroll(999_999, 1)).getMessage());
+        assertEquals("Course not found with ID: 12345",
+                assertThrows(RuntimeException.class, () -> enroll(1, 12_345)).getMessage());
+        assertEquals("Cannot enroll in a course that is not active. Course status: Inactive",
+                assertThrows(RuntimeException.class, () -> enroll(1, 98)).getMessage());
+        assertEquals(0, enrolledCount(1));
+    }
+
+    private EnrollmentOutcome enroll(long studentId, long courseId) {
+        return transaction.execute(status -> allocator.enroll(studentId, courseId));
+    }
+
+    private boolean withdraw(long studentId, long courseId) {
+        return Boolean.TRUE.equals(transaction.execute(status -> allocator.withdraw(studentId, courseId)));
+    }
+
+    private static int enrolledCount(long courseId) {
+        return jdbcTemplate.queryForObject("SELECT enrolled_count FROM course WHERE course_id = ?", Integer.class, courseId);
+    }
+
+    private static String searchVector(long courseId) {
+        return jdbcTemplate.queryForObject("SELECT search_vector::text FROM course WHERE course_id = ?", String.class, courseId);
+    }
+
+    private static int enrolledRows(long courseId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM enrollment WHERE course_id = ? AND status = 'Enrolled'", Integer.class, courseId);
+    }
+
+    private static int waitlistSize(long courseId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM course_waitlist WHERE course_id = ?", Integer.class, courseId);
+    }
+
+    private static String statusOf(long studentId, long courseId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM enrollment WHERE student_id = ? AND course_id = ?",
+                String.class, studentId, courseId);
+    }
+}
@@ -0,0 +1,210 @@
+package com.tarumt.lms.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import com.tarumt.lms.support.JdbcActivityRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class EnrollmentMembershipIndexTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private EnrollmentMembershipIndex index;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Students 1-100 take courses 1-5 by id parity: odd students course 1, even course 2, everyone 3
+        jdbcTemplate.execute("""
+                DROP TABLE IF EXISTS enrollment;
+                CREATE TABLE enrollment (student_id bigint, course_id bigint, status varchar(20), PRIMARY KEY (student_id, course_id));
+                INSERT INTO enrollment SELECT s, 2 - s % 2, 'Enrolled' FROM generate_series(1, 100) s;
+                INSERT INTO enrollment SELECT s, 3, 'Withdrawn' FROM generate_series(1, 100) s;
+                """);
+        // Rows that predate V11 get the migration time as created_at
+        jdbcTemplate.execute(readMigration("V11__enrollment_created_at.sql"));
+        jdbcTemplate.execute("UPDATE enrollment SET created_at = now() - interval '1 day'");
+        index = new EnrollmentMembershipIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "pageSize", 7);
+        ReflectionTestUtils.setField(index, "deltaOverlapMs", 60_000L);
+        ReflectionTestUtils.setField(index, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    void answersFromTheTableAfterRebuild() {
+        assertFalse(index.isReady());
+        assertEquals(OptionalLong.empty(), index.rosterSize(1L));
+
+        index.rebuild();
+
+        assertTrue(index.contains(1L, 1L));
+        assertFalse(index.contains(1L, 2L));
+        assertTrue(index.contains(100L, 3L));
+        assertFalse(index.contains(101L, 1L));
+        assertEquals(OptionalLong.of(50), index.rosterSize(1L));
+        assertEquals(OptionalLong.of(100), index.rosterSize(3L));
+        assertEquals(OptionalLong.of(0), index.rosterSize(4L));
+        assertEquals(OptionalLong.of(50), index.coEnrolledCount(2L, 3L));
+        assertEquals(OptionalLong.of(0), index.coEnrolledCount(1L, 2L));
+    }
+
+    @Test
+    void indexesEnrollmentsOnlyOnceCommitted() {
+        index.rebuild();
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(postgres.getPostgresDatabase()));
+
+        transaction.executeWithoutResult(status -> {
+            index.addAfterCommit(1L, 4L);
+            assertFalse(index.contains(1L, 4L));
+        });
+        transaction.executeWithoutResult(status -> {
+            index.addAfterCommit(2L, 4L);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(index.contains(1L, 4L));
+        assertFalse(index.contains(2L, 4L));
+        assertEquals(OptionalLong.of(1), index.rosterSize(4L));
+    }
+
+    @Test
+    void laterPassesReadOnlyRowsCreatedSinceTheLastOne() throws Exception {
+        index.rebuild();
+        // Written by another instance: inside the overlap window, and after the previous pass
+        jdbcTemplate.execute("""
+                INSERT INTO enrollment (student_id, course_id, status, created_at) VALUES
+                    (1, 5, 'Enrolled', now() - interval '30 seconds'),
+                    (2, 5, 'Enrolled', DEFAULT)
+                """);
+
+        ReflectionTestUtils.setField(index, "jdbcTemplate", new JdbcTemplate(JdbcActivityRecorder.wrap(postgres.getPostgresDatabase())));
+        JdbcActivityRecorder.Activity pass = JdbcActivityRecorder.record(index::rebuild);
+
+        // SELECT now() and the two new rows; the 200 older ones are not read again
+
+        assertEquals(3, pass.getRows(), pass::describe);
+        assertEquals(OptionalLong.of(2), index.rosterSize(5L));
+        assertEquals(OptionalLong.of(100), index.rosterSize(3L));
+    }
+
+    @Test
+    void keepsPreviousSnapshotWhenRebuildFails() {
+        index.rebuild();
+        jdbcTemplate.execute("ALTER TABLE enrollment RENAME TO enrollment_offline");
+
+        index.rebuild();
+        jdbcTemplate.execute("ALTER TABLE enrollment_offline RENAME TO enrollment");
+
+        assertEquals(OptionalLong.of(50), index.rosterSize(2L));
+    }
+
+    /**
+     * 1M students, 20k courses, 10 courses per student (10M enrollments).
+     * Run with mvn test -Pbenchmark; needs a heap of roughly 1 GB.
+     */
+    @Test
+    @Tag("benchmark")
+    void membershipAtOneMillionStudentsAndTenMillionEnrollments() {
+        int students = 1_000_000;
+        int courses = 20_000;
+        int perStudent = 10;
+
+        long heapBefore = usedHeap();
+        long started = System.nanoTime();
+        EnrollmentMembershipIndex.Snapshot snapshot = new EnrollmentMembershipIndex.Snapshot();
+        for (int student = 1; student <= students; student++) {
+            for (int k = 0; k < perStudent; k++) {
+                snapshot.add(student, courseOf(student, k, courses));
+            }
+        }
+        snapshot.trim();
+        long buildMs = (System.nanoTime() - started) / 1_000_000;
+        long heapBytes = usedHeap() - heapBefore;
+
+        assertEquals((long) students * perStudent, snapshot.memberships());
+
+        int lookups = 1_000_000;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long hits = 0;
+        started = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            int student = random.nextInt(1, students + 1);
+            if (snapshot.contains(student, random.nextBoolean() ? courseOf(student, random.nextInt(perStudent), courses) : random.nextInt(courses))) {
+                hits++;
+            }
+        }
+        double containsNs = (System.nanoTime() - started) / (double) lookups;
+
+        long roster = 0;
+        started = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            roster += snapshot.rosterSize(random.nextInt(courses));
+        }
+        double rosterNs = (System.nanoTime() - started) / (double) lookups;
+
+        int intersections = 100_000;
+        long shared = 0;
+        started = System.nanoTime();
+        for (int i = 0; i < intersections; i++) {
+            shared += snapshot.coEnrolledCount(random.nextInt(courses), random.nextInt(courses));
+        }
+        double intersectionNs = (System.nanoTime() - started) / (double) intersections;
+
+        assertTrue(hits >= lookups / 2);
+        log.info("Membership index: {} enrollments built in {} ms; bitmaps {} MB serialized, {} MB heap",
+                snapshot.memberships(), buildMs, snapshot.sizeInBytes() >> 20, heapBytes >> 20);
+        log.info("Latency: contains {} ns, roster size {} ns, co-enrollment {} ns (checksums {} {})",
+                Math.round(containsNs), Math.round(rosterNs), Math.round(intersectionNs), roster, shared);
+    }
+
+    private static String readMigration(String name) {
+        try {
+            return Files.readString(Path.of("src/main/resources/db/migration", name));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int courseOf(int student, int k, int courses) {
+        // 10 distinct courses per student, spread over the catalogue
+        return (student * 7 + k * 2003) % courses;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,224 @@
+package com.tarumt.lms.service;
+
+import com.tarumt.lms.support.JdbcActivityRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+class EnrollmentProgressBufferTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private EnrollmentProgressBuffer buffer;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(JdbcActivityRecorder.wrap(postgres.getPostgresDatabase()));
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+                DROP TABLE IF EXISTS enrollment;
+                CREATE TABLE enrollment (student_id bigint, course_id bigint, progress int, PRIMARY KEY (student_id, course_id));
+                INSERT INTO enrollment SELECT s, c, 0 FROM generate_series(1, 8) s, generate_series(1, 10) c;
+                """);
+        buffer = newBuffer(10_000);
+    }
+
+    @Test
+    void coalescesPingsIntoOneBatchOfLatestValues() throws Exception {
+        for (int progress = 1; progress <= 100; progress++) {
+            for (long course = 1; course <= 10; course++) {
+                buffer.record(1L, course, progress);
+            }
+        }
+
+        JdbcActivityRecorder.Activity flush = JdbcActivityRecorder.record(buffer::flush);
+
+        assertEquals(1, flush.getStatementCount(), flush::describe);
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM enrollment WHERE student_id = 1 AND progress = 100", Integer.class));
+        assertNull(buffer.pendingProgress(1L, 1L));
+    }
+
+    @Test
+    void flushesOnceMaxPendingIsReached() {
+        buffer = newBuffer(3);
+
+        buffer.record(2L, 1L, 10);
+        buffer.record(2L, 2L, 20);
+        assertEquals(0, progressOf(2L, 2L));
+
+        buffer.record(2L, 3L, 30);
+
+        assertEquals(20, progressOf(2L, 2L));
+        assertEquals(30, progressOf(2L, 3L));
+    }
+
+    @Test
+    void keepsPendingValuesWhenFlushFails() {
+        buffer.record(3L, 1L, 40);
+        jdbcTemplate.execute("ALTER TABLE enrollment RENAME TO enrollment_offline");
+
+        buffer.flush();
+        assertEquals(40, buffer.pendingProgress(3L, 1L));
+
+        buffer.record(3L, 1L, 45);
+        jdbcTemplate.execute("ALTER TABLE enrollment_offline RENAME TO enrollment");
+        buffer.flush();
+
+        assertEquals(45, progressOf(3L, 1L));
+    }
+
+    @Test
+    void partiallyFailedFlushRequeuesOnlyUnwrittenBatches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        buffer.bindTo(registry);
+        ReflectionTestUtils.setField(buffer, "batchSize", 1);
+        for (long course = 1; course <= 5; course++) {
+            buffer.record(4L, course, 60);
+        }
+        // Every update after the second one fails, so the third of five sub-batches breaks the flush
+        jdbcTemplate.execute("""
+                DROP SEQUENCE IF EXISTS updated_rows;
+                CREATE SEQUENCE updated_rows;
+                CREATE OR REPLACE FUNCTION fail_after_two() RETURNS trigger AS $$
+                BEGIN
+                    IF nextval('updated_rows') > 2 THEN RAISE EXCEPTION 'disk full'; END IF;
+                    RETURN NEW;
+                END $$ LANGUAGE plpgsql;
+                CREATE TRIGGER fail_after_two BEFORE UPDATE ON enrollment FOR EACH ROW EXECUTE FUNCTION fail_after_two();
+                """);
+
+        buffer.flush();
+
+        int requeued = 0;
+        for (long course = 1; course <= 5; course++) {
+            requeued += buffer.pendingProgress(4L, course) != null ? 1 : 0;
+        }
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM enrollment WHERE student_id = 4 AND progress = 60", Integer.class));
+        assertEquals(3, requeued);
+        assertEquals(2, writtenCount(registry));
+
+        jdbcTemplate.execute("DROP TRIGGER fail_after_two ON enrollment");
+        buffer.flush();
+
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM enrollment WHERE student_id = 4 AND progress = 60", Integer.class));
+        assertEquals(5, writtenCount(registry));
+    }
+
+    @Test
+    void valuesStayVisibleUntilTheirBatchCommits() {
+        JdbcTemplate flushing = spy(jdbcTemplate);
+        ReflectionTestUtils.setField(buffer, "jdbcTemplate", flushing);
+        List<Integer> seenDuringFlush = new ArrayList<>();
+        doAnswer(invocation -> {
+            seenDuringFlush.add(buffer.pendingProgress(5L, 1L));
+            // A newer ping lands while the batch is in flight
+            buffer.record(5L, 2L, 75);
+            return invocation.callRealMethod();
+        }).when(flushing).batchUpdate(anyString(), anyList());
+        buffer.record(5L, 1L, 70);
+        buffer.record(5L, 2L, 70);
+
+        buffer.flush();
+
+        assertEquals(List.of(70), seenDuringFlush);
+        assertNull(buffer.pendingProgress(5L, 1L));
+        assertEquals(75, buffer.pendingProgress(5L, 2L));
+        assertEquals(70, progressOf(5L, 2L));
+    }
+
+    @Test
+    void dropsValuesThatKeepFailing() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        buffer.bindTo(registry);
+        ReflectionTestUtils.setField(buffer, "maxAttempts", 2);
+        buffer.record(6L, 1L, 90);
+        jdbcTemplate.execute("ALTER TABLE enrollment RENAME TO enrollment_offline");
+
+        buffer.flush();
+        assertEquals(90, buffer.pendingProgress(6L, 1L));
+        buffer.flush();
+
+        assertNull(buffer.pendingProgress(6L, 1L));
+        assertEquals(1, registry.get("enrollment.progress.updates").tag("stage", "dropped").functionCounter().count());
+        assertEquals(0, registry.get("enrollment.progress.pending").gauge().value());
+        jdbcTemplate.execute("ALTER TABLE enrollment_offline RENAME TO enrollment");
+    }
+
+    @Test
+    void concurrentWritersEndWithTheirLatestValue() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> writers = new ArrayList<>();
+        for (long student = 1; student <= 8; student++) {
+            long owner = student;
+            writers.add(pool.submit(() -> {
+                for (int progress = 0; progress <= 100; progress++) {
+                    for (long course = 1; course <= 10; course++) {
+                        buffer.record(owner, course, progress);
+                    }
+                    if (progress % 25 == 0) {
+                        buffer.flush();
+                    }
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+
+        buffer.flush();
+
+        assertEquals(80, jdbcTemplate.queryForObject("SELECT count(*) FROM enrollment WHERE progress = 100", Integer.class));
+    }
+
+    private static EnrollmentProgressBuffer newBuffer(int maxPending) {
+        EnrollmentProgressBuffer buffer = new EnrollmentProgressBuffer();
+        ReflectionTestUtils.setField(buffer, "writeMode", "buffered");
+        ReflectionTestUtils.setField(buffer, "maxPending", maxPending);
+        ReflectionTestUtils.setField(buffer, "batchSize", 500);
+        ReflectionTestUtils.setField(buffer, "maxAttempts", 10);
+        ReflectionTestUtils.setField(buffer, "jdbcTemplate", jdbcTemplate);
+        buffer.init();
+        return buffer;
+    }
+
+    private static double writtenCount(SimpleMeterRegistry registry) {
+        return registry.get("enrollment.progress.updates").tag("stage", "written").functionCounter().count();
+    }
+
+    private static int progressOf(long studentId, long courseId) {
+        return jdbcTemplate.queryForObject("SELECT progress FROM enrollment WHERE student_id = ? AND course_id = ?",
+                Integer.class, studentId, courseId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.tarumt.lms.service;
+
+import com.tarumt.lms.model.Faq;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SemanticSearchServiceTest {
+
+    private final SemanticSearchService service = new SemanticSearchService();
+
+    @Test
+    void ranksRelatedCoursesFirstAndDropsUnrelatedOnes() {
+        Map<Long, String> courses = Map.of(
+                1L, "introduction to machine learning and neural networks",
+                2L, "watercolour painting for beginners",
+                3L, "relational database design with sql");
+
+        service.syncCourses(courses);
+        Map<Long, Float> ranked = service.rankCourses("machne learning", 10);
+
+        assertEquals(1L, ranked.keySet().iterator().next());
+        assertFalse(ranked.containsKey(2L));
+        ranked.values().forEach(score -> assertTrue(score >= SemanticSearchService.MIN_SIMILARITY));
+    }
+
+    @Test
+    void honoursTheLimit() {
+        Map<Long, String> courses = Map.of(
+                1L, "database systems", 2L, "advanced database systems", 3L, "database administration");
+
+        service.syncCourses(courses);
+
+        assertEquals(2, service.rankCourses("database", 2).size());
+    }
+
+    @Test
+    void reEmbedsEditedCoursesAndForgetsRemovedOnes() {
+        Map<Long, String> courses = new HashMap<>(Map.of(
+                1L, "watercolour painting for beginners",
+                2L, "relational database design with sql"));
+        service.syncCourses(courses);
+        assertFalse(service.rankCourses("machine learning", 10).containsKey(1L));
+
+        courses.put(1L, "machine learning for beginners");
+        service.syncCourses(courses);
+        assertEquals(1L, service.rankCourses("machine learning", 10).keySet().iterator().next());
+
+        courses.remove(1L);
+        service.syncCourses(courses);
+        assertFalse(service.rankCourses("machine learning", 10).containsKey(1L));
+    }
+
+    @Test
+    void searchesTheLastSyncedDocumentsOnly() {
+        assertTrue(service.rankCourses("database", 10).isEmpty());
+
+        service.syncCourses(Map.of(1L, "relational database design with sql"));
+
+        assertEquals(List.of(1L), List.copyOf(service.rankCourses("database", 10).keySet()));
+    }
+
+    @Test
+    void ranksFaqsBySimilarity() {
+        Faq password = faq(1L, "How do I reset my password?", "Use the forgot password link on the login page.");
+        Faq certificate = faq(2L, "Where is my certificate?", "Certificates are issued when a course is completed.");
+        service.syncFaqs(List.of(password, certificate));
+
+        List<Long> ranked = service.rankFaqIds("forgot my login password", 5);
+
+        assertEquals(1L, ranked.get(0));
+    }
+
+    private static Faq faq(Long id, String question, String answer) {
+        Faq faq = new Faq();
+        faq.setFaqId(id);
+        faq.setQuestion(question);
+        faq.setAnswer(answer);
+        return faq;
+    }
+}
@@ -0,0 +1,39 @@
+package com.tarumt.lms.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SignedUrlCacheTest {
+
+    private final SignedUrlCache cache = new SignedUrlCache(100, 30_000);
+
+    @Test
+    void servesUrlsOnlyForTheExpiryTheyWereSignedFor() {
+        cache.put("docs", "a.pdf", "short-url", 300);
+
+        assertEquals("short-url", cache.get("docs", "a.pdf", 300));
+        assertNull(cache.get("docs", "a.pdf", 86_400));
+    }
+
+    @Test
+    void invalidatesEveryExpiryOfAnObject() {
+        cache.put("docs", "a.pdf", "short-url", 300);
+        cache.put("docs", "a.pdf", "long-url", 86_400);
+        cache.put("docs", "b.pdf", "other-url", 300);
+
+        cache.invalidate("docs", "a.pdf");
+
+        assertNull(cache.get("docs", "a.pdf", 300));
+        assertNull(cache.get("docs", "a.pdf", 86_400));
+        assertEquals("other-url", cache.get("docs", "b.pdf", 300));
+    }
+
+    @Test
+    void skipsUrlsThatExpireWithinTheSafetyMargin() {
+        cache.put("docs", "a.pdf", "url", 10);
+
+        assertNull(cache.get("docs", "a.pdf", 10));
+    }
+}
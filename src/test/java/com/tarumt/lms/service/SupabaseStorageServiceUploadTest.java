@@ -0,0 +1,240 @@
+package com.tarumt.lms.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tarumt.lms.service.storage.StoredObject;
+import com.tarumt.lms.service.storage.SupabaseStorageBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uploads must stream to storage: bytes allocated by the uploading thread
+ * stay far below the size of the file being sent.
+ */
+class SupabaseStorageServiceUploadTest {
+
+    private static final int FILE_SIZE = 10 * 1024 * 1024;
+    private static final long MAX_ALLOCATED_BYTES = 2 * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private SupabaseStorageService storageService;
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicReference<String> receivedSha256 = new AtomicReference<>();
+    private final AtomicInteger headRequests = new AtomicInteger();
+    private final AtomicInteger uploadRequests = new AtomicInteger();
+    private volatile boolean objectExists;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/storage/v1/object/", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                headRequests.incrementAndGet();
+                exchange.sendResponseHeaders(objectExists ? 200 : 404, -1);
+                exchange.close();
+                return;
+            }
+            uploadRequests.incrementAndGet();
+            try (InputStream body = exchange.getRequestBody()) {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    total += read;
+                }
+                receivedBytes.set(total);
+                receivedSha256.set(HexFormat.of().formatHex(digest.digest()));
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+            byte[] response = "{\"Key\":\"ok\"}".getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+
+        SupabaseStorageBackend backend = new SupabaseStorageBackend();
+        ReflectionTestUtils.setField(backend, "supabaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(backend, "supabaseKey", "test-key");
+        ReflectionTestUtils.setField(backend, "restTemplate", new RestTemplate());
+
+        storageService = new SupabaseStorageService();
+        ReflectionTestUtils.setField(storageService, "backend", backend);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void uploadFileStreamsFromDiskWithBoundedAllocation() throws Exception {
+        byte[] content = randomBytes(FILE_SIZE);
+        Path pdf = tempDir.resolve("certificate.pdf");
+        Files.write(pdf, content);
+        String expectedSha256 = sha256(content);
+        content = null;
+
+        MultipartFile file = new DiskMultipartFile(pdf, "application/pdf");
+
+        // Warm up class loading and connection setup before measuring
+        storageService.uploadFile(new DiskMultipartFile(writeSmallFile(), "application/pdf"), "bucket", "warmup", "w.pdf");
+
+        long allocated = allocatedBytesDuring(() ->
+                storageService.uploadFile(file, "bucket", "certificates", "certificate.pdf"));
+
+        assertEquals(FILE_SIZE, receivedBytes.get());
+        assertEquals(expectedSha256, receivedSha256.get());
+        assertTrue(allocated < MAX_ALLOCATED_BYTES,
+                "Upload of " + FILE_SIZE + " bytes allocated " + allocated + " bytes on the heap");
+    }
+
+    @Test
+    void uploadBase64DecodesWhileStreaming() throws Exception {
+        byte[] image = randomBytes(FILE_SIZE / 2 + 1); // odd length exercises padding
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(image);
+        String expectedSha256 = sha256(image);
+        image = null;
+
+        storageService.uploadBase64("data:image/png;base64,AAAA", "bucket", "warmup", "w.png", "image/png");
+
+        long allocated = allocatedBytesDuring(() ->
+                storageService.uploadBase64(dataUrl, "bucket", "digital-signature", "signature.png", "image/png"));
+
+        assertEquals(FILE_SIZE / 2 + 1, receivedBytes.get());
+        assertEquals(expectedSha256, receivedSha256.get());
+        assertTrue(allocated < MAX_ALLOCATED_BYTES,
+                "Upload of a " + dataUrl.length() + " char data URL allocated " + allocated + " bytes on the heap");
+    }
+
+    @Test
+    void uploadOfKnownContentIsSkipped() throws Exception {
+        Path pdf = Files.write(tempDir.resolve("same.pdf"), randomBytes(4096));
+        objectExists = true;
+
+        StoredObject stored = storageService.uploadFile(new DiskMultipartFile(pdf, "application/pdf"), "bucket", "certificates", "same.pdf");
+
+        assertEquals(1, headRequests.get());
+        assertEquals(0, uploadRequests.get());
+        assertFalse(stored.isCreated());
+        assertTrue(stored.getUrl().endsWith("/bucket/certificates/" + sha256(Files.readAllBytes(pdf)) + ".pdf"));
+    }
+
+    private Path writeSmallFile() throws IOException {
+        return Files.write(tempDir.resolve("warmup.pdf"), new byte[128]);
+    }
+
+    private static long allocatedBytesDuring(Runnable action) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        action.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    /**
+     * Disk-backed MultipartFile, like the one the servlet container hands to controllers
+     */
+    private static class DiskMultipartFile implements MultipartFile {
+
+        private final Path path;
+        private final String contentType;
+
+        private DiskMultipartFile(Path path, String contentType) {
+            this.path = path;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public Resource getResource() {
+            return new FileSystemResource(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.tarumt.lms.service.storage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnAddedPathAsAbsentAndKeepsFalsePositivesNearTarget() {
+        int items = 200_000;
+        BloomFilter filter = new BloomFilter(items, 0.001);
+        for (int i = 0; i < items; i++) {
+            filter.add("certificates/" + i + ".pdf");
+        }
+
+        for (int i = 0; i < items; i++) {
+            assertTrue(filter.mightContain("certificates/" + i + ".pdf"));
+        }
+
+        int falsePositives = 0;
+        for (int i = items; i < 2 * items; i++) {
+            if (filter.mightContain("certificates/" + i + ".pdf")) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / items;
+        assertTrue(rate < 0.003, "false positive rate " + rate);
+        // ~14.4 bits per item at 0.1%
+        assertTrue(filter.sizeInBytes() < items * 2L);
+    }
+}
@@ -0,0 +1,89 @@
+package com.tarumt.lms.service.storage;
+
+import com.tarumt.lms.repo.InstructorQualificationRepository;
+import com.tarumt.lms.service.SupabaseStorageService;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CertificatePreviewServiceTest {
+
+    private static final String BUCKET = "Instructor-Docs";
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemStorageBackend backend;
+    private SupabaseStorageService storageService;
+    private InstructorQualificationRepository repository;
+    private CertificatePreviewService previewService;
+
+    @BeforeEach
+    void setUp() {
+        backend = new LocalFileSystemStorageBackend(root.toString());
+        storageService = new SupabaseStorageService();
+        ReflectionTestUtils.setField(storageService, "backend", backend);
+        ReflectionTestUtils.invokeMethod(storageService, "initSignedUrlCache");
+
+        repository = mock(InstructorQualificationRepository.class);
+        previewService = new CertificatePreviewService();
+        ReflectionTestUtils.setField(previewService, "bucketName", BUCKET);
+        ReflectionTestUtils.setField(previewService, "previewWidth", 480);
+        ReflectionTestUtils.setField(previewService, "batchSize", 20);
+        ReflectionTestUtils.setField(previewService, "backend", backend);
+        ReflectionTestUtils.setField(previewService, "storageService", storageService);
+        ReflectionTestUtils.setField(previewService, "instructorQualificationRepository", repository);
+    }
+
+    @Test
+    void rendersFirstPageNextToTheCertificate() throws Exception {
+        String documentUrl = storageService.uploadFile(
+                new MockMultipartFile("file", "degree.pdf", "application/pdf", a4Pdf()), BUCKET, "certificates", "degree.pdf").getUrl();
+        when(repository.findDocumentsWithoutPreview(any())).thenReturn(List.of(documentUrl), List.of());
+
+        ReflectionTestUtils.invokeMethod(previewService, "sweep");
+
+        String previewUrl = documentUrl + CertificatePreviewService.PREVIEW_SUFFIX;
+        verify(repository).setCertificatePreview(documentUrl, previewUrl);
+        String previewPath = storageService.extractPathFromUrl(previewUrl, BUCKET);
+        BufferedImage preview = ImageIO.read(backend.resolve(BUCKET, previewPath).toFile());
+        assertEquals(480, preview.getWidth());
+        assertEquals(Math.round(480 * PDRectangle.A4.getHeight() / PDRectangle.A4.getWidth()), preview.getHeight(), 1);
+    }
+
+    @Test
+    void marksUnreadablePdfsAsFailed() throws Exception {
+        String documentUrl = storageService.uploadFile(
+                new MockMultipartFile("file", "broken.pdf", "application/pdf", "not a pdf".getBytes()), BUCKET, "certificates", "broken.pdf").getUrl();
+        when(repository.findDocumentsWithoutPreview(any())).thenReturn(List.of(documentUrl), List.of());
+
+        ReflectionTestUtils.invokeMethod(previewService, "sweep");
+
+        verify(repository).setCertificatePreview(documentUrl, CertificatePreviewService.PREVIEW_FAILED);
+    }
+
+    private static byte[] a4Pdf() throws Exception {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
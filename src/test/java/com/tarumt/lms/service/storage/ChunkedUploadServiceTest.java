@@ -0,0 +1,141 @@
+package com.tarumt.lms.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChunkedUploadServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new ChunkedUploadService(directory.toString(), 24, 2);
+    }
+
+    @Test
+    void resumesFromWhatReachedDiskAfterADroppedChunk() throws Exception {
+        byte[] pdf = new byte[300_000];
+        new Random(7).nextBytes(pdf);
+        String uploadId = service.create(1L, pdf.length, "degree.pdf", "application/pdf").getUploadId();
+
+        long offset = service.append(uploadId, 1L, 0, new ByteArrayInputStream(pdf, 0, 100_000));
+        assertEquals(100_000, offset);
+
+        // Connection drops after 50 000 bytes of the second chunk
+        assertThrows(IOException.class, () -> service.append(uploadId, 1L, 100_000, droppingStream(pdf, 100_000, 100_000, 50_000)));
+        long resumeAt = service.get(uploadId, 1L).getOffset();
+        assertEquals(150_000, resumeAt);
+
+        // Client resends from the offset reported by HEAD
+        offset = service.append(uploadId, 1L, resumeAt, new ByteArrayInputStream(pdf, (int) resumeAt, pdf.length - (int) resumeAt));
+        assertEquals(pdf.length, offset);
+
+        MultipartFile file = service.completedFile(uploadId, 1L);
+        assertEquals("degree.pdf", file.getOriginalFilename());
+        assertArrayEquals(pdf, file.getBytes());
+    }
+
+    @Test
+    void rejectsWrongOffsetOtherInstructorsAndIncompleteUploads() throws Exception {
+        String uploadId = service.create(1L, 10, "a.pdf", "application/pdf").getUploadId();
+        service.append(uploadId, 1L, 0, new ByteArrayInputStream(new byte[4]));
+
+        assertThrows(IllegalStateException.class, () -> service.append(uploadId, 1L, 0, new ByteArrayInputStream(new byte[4])));
+        assertThrows(IllegalArgumentException.class, () -> service.get(uploadId, 2L));
+        assertThrows(IllegalArgumentException.class, () -> service.completedFile(uploadId, 1L));
+        assertThrows(IllegalArgumentException.class, () -> service.append(uploadId, 1L, 4, new ByteArrayInputStream(new byte[7])));
+        assertThrows(IllegalArgumentException.class, () -> service.get("../../etc/passwd", 1L));
+    }
+
+    @Test
+    void capsOpenUploadsPerInstructor() throws Exception {
+        String first = service.create(1L, 10, "a.pdf", "application/pdf").getUploadId();
+        service.create(1L, 10, "b.pdf", "application/pdf");
+
+        assertThrows(IllegalStateException.class, () -> service.create(1L, 10, "c.pdf", "application/pdf"));
+        service.create(2L, 10, "a.pdf", "application/pdf");
+
+        service.delete(first);
+        service.create(1L, 10, "c.pdf", "application/pdf");
+    }
+
+    @Test
+    void expiresOnLastChunkAndSweepsOrphanedParts() throws Exception {
+        Instant twoDaysAgo = Instant.now().minus(Duration.ofDays(2));
+        String idle = service.create(1L, 10, "a.pdf", "application/pdf").getUploadId();
+        String active = service.create(1L, 10, "b.pdf", "application/pdf").getUploadId();
+        backdate(idle, twoDaysAgo);
+        backdate(active, twoDaysAgo);
+        Files.setLastModifiedTime(directory.resolve(idle + ".part"), FileTime.from(twoDaysAgo));
+        // Created two days ago, but a chunk arrived just now
+        service.append(active, 1L, 0, new ByteArrayInputStream(new byte[4]));
+        Path orphan = Files.createFile(directory.resolve(UUID.randomUUID() + ".part"));
+
+        service.removeExpiredUploads();
+
+        assertThrows(IllegalArgumentException.class, () -> service.get(idle, 1L));
+        assertFalse(Files.exists(directory.resolve(idle + ".part")));
+        assertEquals(4, service.get(active, 1L).getOffset());
+        assertFalse(Files.exists(orphan));
+    }
+
+    private void backdate(String uploadId, Instant createdAt) throws IOException {
+        Path info = directory.resolve(uploadId + ".properties");
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(info)) {
+            properties.load(reader);
+        }
+        properties.setProperty("createdAt", createdAt.toString());
+        try (Writer writer = Files.newBufferedWriter(info)) {
+            properties.store(writer, null);
+        }
+    }
+
+    private static InputStream droppingStream(byte[] data, int from, int length, int dropAfter) {
+        InputStream source = new ByteArrayInputStream(Arrays.copyOfRange(data, from, from + length));
+        return new InputStream() {
+            private int served;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (served >= dropAfter) {
+                    throw new IOException("Connection reset");
+                }
+                int n = source.read(b, off, Math.min(len, dropAfter - served));
+                served += Math.max(n, 0);
+                return n;
+            }
+        };
+    }
+}
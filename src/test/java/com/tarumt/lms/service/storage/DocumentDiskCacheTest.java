@@ -0,0 +1,102 @@
+package com.tarumt.lms.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class DocumentDiskCacheTest {
+
+    private static final String BUCKET = "Instructor-Docs";
+
+    @TempDir
+    Path root;
+
+    @TempDir
+    Path cacheDir;
+
+    private LocalFileSystemStorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = spy(new LocalFileSystemStorageBackend(root.toString()));
+    }
+
+    @Test
+    void downloadsOnceAndServesContentHash() throws Exception {
+        byte[] content = "certificate bytes".getBytes();
+        put("certificates/a.pdf", content);
+        DocumentDiskCache cache = newCache(1);
+
+        DocumentDiskCache.CachedDocument first = cache.get(BUCKET, "certificates/a.pdf");
+        DocumentDiskCache.CachedDocument second = cache.get(BUCKET, "certificates/a.pdf");
+
+        verify(backend, times(1)).download(eq(BUCKET), eq("certificates/a.pdf"), any());
+        assertArrayEquals(content, Files.readAllBytes(second.getFile()));
+        assertEquals("a.pdf", second.getFilename());
+        assertEquals(content.length, second.getSize());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)), first.getSha256());
+    }
+
+    @Test
+    void invalidateForcesRedownload() throws Exception {
+        put("certificates/a.pdf", "v1".getBytes());
+        DocumentDiskCache cache = newCache(1);
+        String before = cache.get(BUCKET, "certificates/a.pdf").getSha256();
+
+        put("certificates/a.pdf", "v2".getBytes());
+        cache.invalidate(BUCKET, "certificates/a.pdf");
+
+        assertNotEquals(before, cache.get(BUCKET, "certificates/a.pdf").getSha256());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverBudget() throws Exception {
+        byte[] half = new byte[600 * 1024];
+        put("certificates/a.pdf", half);
+        put("certificates/b.pdf", half);
+        DocumentDiskCache cache = newCache(1);
+
+        Path a = cache.get(BUCKET, "certificates/a.pdf").getFile();
+        Path b = cache.get(BUCKET, "certificates/b.pdf").getFile();
+
+        assertTrue(Files.notExists(a));
+        assertTrue(Files.exists(b));
+    }
+
+    @Test
+    void reindexesExistingEntriesOnStartup() throws Exception {
+        put("certificates/a.pdf", "kept".getBytes());
+        newCache(1).get(BUCKET, "certificates/a.pdf");
+
+        newCache(1).get(BUCKET, "certificates/a.pdf");
+
+        verify(backend, times(1)).download(eq(BUCKET), eq("certificates/a.pdf"), any());
+    }
+
+    private DocumentDiskCache newCache(long maxMegabytes) throws Exception {
+        DocumentDiskCache cache = new DocumentDiskCache(cacheDir.toString(), maxMegabytes);
+        ReflectionTestUtils.setField(cache, "backend", backend);
+        return cache;
+    }
+
+    private void put(String path, byte[] content) throws Exception {
+        backend.upload(BUCKET, path, new ByteArrayResource(content), content.length, "application/pdf");
+    }
+}
@@ -0,0 +1,120 @@
+package com.tarumt.lms.service.storage;
+
+import com.tarumt.lms.model.StorageDeletionOutbox;
+import com.tarumt.lms.repo.StorageDeletionOutboxRepository;
+import com.tarumt.lms.service.SupabaseStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocalFileSystemStorageBackendTest {
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemStorageBackend backend;
+    private SupabaseStorageService storageService;
+    private StorageDeletionOutboxRepository outboxRepository;
+
+    @BeforeEach
+    void setUp() {
+        backend = new LocalFileSystemStorageBackend(root.toString());
+        storageService = new SupabaseStorageService();
+        ReflectionTestUtils.setField(storageService, "backend", backend);
+        outboxRepository = mock(StorageDeletionOutboxRepository.class);
+        ReflectionTestUtils.setField(storageService, "deletionOutboxRepository", outboxRepository);
+        ReflectionTestUtils.invokeMethod(storageService, "initSignedUrlCache");
+    }
+
+    @Test
+    void identicalContentIsStoredOnce() throws Exception {
+        byte[] pdf = "%PDF-1.4 certificate".getBytes();
+
+        StoredObject first = storageService.uploadFile(
+                new MockMultipartFile("file", "degree.pdf", "application/pdf", pdf), "Instructor-Docs", "certificates", "degree.pdf");
+        StoredObject second = storageService.uploadFile(
+                new MockMultipartFile("file", "copy of degree.PDF", "application/pdf", pdf), "Instructor-Docs", "certificates", "copy of degree.PDF");
+
+        assertTrue(first.isCreated());
+        assertFalse(second.isCreated());
+        assertEquals(first.getUrl(), second.getUrl());
+
+        try (var files = Files.list(root.resolve("Instructor-Docs").resolve("certificates"))) {
+            List<Path> stored = files.toList();
+            assertEquals(1, stored.size());
+            assertArrayEquals(pdf, Files.readAllBytes(stored.get(0)));
+        }
+    }
+
+    @Test
+    void base64SignatureIsDecodedToDisk() throws Exception {
+        StoredObject stored = storageService.uploadBase64(
+                "data:image/png;base64,iVBORw0KGgo=", "Instructor-Docs", "digital-signature", "instructor_1.png", "image/png");
+
+        String path = stored.getUrl().substring((LocalFileSystemStorageBackend.URL_PREFIX + "Instructor-Docs/").length());
+        assertArrayEquals(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'},
+                Files.readAllBytes(backend.resolve("Instructor-Docs", path)));
+    }
+
+    @Test
+    void deleteIsQueuedForTheStoredPath() throws Exception {
+        StoredObject stored = storageService.uploadFile(
+                new MockMultipartFile("file", "a.pdf", "application/pdf", new byte[]{1, 2, 3}), "Instructor-Docs", "certificates", "a.pdf");
+
+        String signed = storageService.generateSignedUrl(stored.getUrl(), "Instructor-Docs");
+        assertTrue(signed.startsWith("file:"));
+
+        storageService.deleteFile(stored.getUrl(), "Instructor-Docs");
+        ArgumentCaptor<StorageDeletionOutbox> queued = ArgumentCaptor.forClass(StorageDeletionOutbox.class);
+        verify(outboxRepository).save(queued.capture());
+        assertEquals("Instructor-Docs", queued.getValue().getBucket());
+
+        // What the deletion worker does with the queued row
+        backend.delete("Instructor-Docs", List.of(queued.getValue().getObjectPath()));
+        try (var files = Files.list(root.resolve("Instructor-Docs").resolve("certificates"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void referencingAStoredObjectCancelsItsQueuedDeletion() {
+        StoredObject stored = storageService.uploadFile(
+                new MockMultipartFile("file", "a.pdf", "application/pdf", new byte[]{1, 2, 3}), "Instructor-Docs", "certificates", "a.pdf");
+        String path = storageService.extractPathFromUrl(stored.getUrl(), "Instructor-Docs");
+        when(outboxRepository.findQueuedPaths("Instructor-Docs", Set.of(path))).thenReturn(List.of(path));
+        when(outboxRepository.lockQueuedPaths("Instructor-Docs", Set.of(path))).thenReturn(List.of(path));
+
+        Set<String> queued = storageService.findQueuedDeletions("Instructor-Docs", List.of(stored.getUrl()));
+        assertEquals(Set.of(stored.getUrl()), queued);
+
+        assertEquals(Set.of(), storageService.cancelPendingDeletions("Instructor-Docs", List.of(stored.getUrl()), queued));
+        verify(outboxRepository).cancelPending("Instructor-Docs", Set.of(path));
+
+        // A worker completed the queued deletion before the lock was taken: the object is reported for restoring
+        when(outboxRepository.lockQueuedPaths("Instructor-Docs", Set.of(path))).thenReturn(List.of());
+        assertEquals(Set.of(stored.getUrl()),
+                storageService.cancelPendingDeletions("Instructor-Docs", List.of(stored.getUrl()), queued));
+    }
+
+    @Test
+    void pathsCannotEscapeTheBucket() {
+        assertThrows(IllegalArgumentException.class, () -> backend.resolve("Instructor-Docs", "../other/secret.pdf"));
+    }
+}
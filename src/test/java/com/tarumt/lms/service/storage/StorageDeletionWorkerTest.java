@@ -0,0 +1,136 @@
+package com.tarumt.lms.service.storage;
+
+import com.tarumt.lms.model.StorageDeletionOutbox;
+import com.tarumt.lms.repo.InstructorQualificationRepository;
+import com.tarumt.lms.repo.InstructorRepository;
+import com.tarumt.lms.repo.StorageDeletionOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorageDeletionWorkerTest {
+
+    private static final String BUCKET = "Instructor-Docs";
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemStorageBackend backend;
+    private StorageDeletionOutboxRepository outboxRepository;
+    private InstructorQualificationRepository qualificationRepository;
+    private StorageDeletionWorker worker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        backend = new LocalFileSystemStorageBackend(root.toString());
+        outboxRepository = mock(StorageDeletionOutboxRepository.class);
+        qualificationRepository = mock(InstructorQualificationRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+
+        worker = new StorageDeletionWorker();
+        ReflectionTestUtils.setField(worker, "batchSize", 100);
+        ReflectionTestUtils.setField(worker, "initialBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(worker, "maxBackoffSeconds", 3600L);
+        ReflectionTestUtils.setField(worker, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(worker, "instructorQualificationRepository", qualificationRepository);
+        ReflectionTestUtils.setField(worker, "instructorRepository", mock(InstructorRepository.class));
+        ReflectionTestUtils.setField(worker, "backend", backend);
+        ReflectionTestUtils.setField(worker, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(worker, "documentDiskCache", mock(DocumentDiskCache.class));
+    }
+
+    @Test
+    void deletesQueuedObjectsAndTheirRows() throws Exception {
+        List<StorageDeletionOutbox> rows = List.of(queued("certificates/a.pdf", 0), queued("certificates/b.pdf", 0));
+        store("certificates/a.pdf");
+        store("certificates/b.pdf");
+        when(outboxRepository.lockDueBatch(anyInt())).thenReturn(rows);
+
+        worker.drain();
+
+        assertFalse(Files.exists(backend.resolve(BUCKET, "certificates/a.pdf")));
+        assertFalse(Files.exists(backend.resolve(BUCKET, "certificates/b.pdf")));
+        verify(outboxRepository).deleteAll(rows);
+    }
+
+    @Test
+    void keepsObjectsThatWereReferencedAgain() throws Exception {
+        List<StorageDeletionOutbox> rows = List.of(queued("certificates/shared.pdf", 0), queued("certificates/old.pdf", 0));
+        store("certificates/shared.pdf");
+        store("certificates/old.pdf");
+        when(outboxRepository.lockDueBatch(anyInt())).thenReturn(rows);
+        when(qualificationRepository.findReferencedCertificateDocuments(any()))
+                .thenReturn(List.of(backend.objectUrl(BUCKET, "certificates/shared.pdf")));
+
+        worker.drain();
+
+        assertTrue(Files.exists(backend.resolve(BUCKET, "certificates/shared.pdf")));
+        assertFalse(Files.exists(backend.resolve(BUCKET, "certificates/old.pdf")));
+        // The stale request for the shared object is dropped along with the completed one
+        verify(outboxRepository).deleteAll(rows);
+    }
+
+    @Test
+    void failedDeleteIsRetriedWithBackoff() {
+        // The backend rejects this path, so the batch delete fails
+        StorageDeletionOutbox row = queued("../outside.pdf", 0);
+        when(outboxRepository.lockDueBatch(anyInt())).thenReturn(List.of(row));
+
+        OffsetDateTime before = OffsetDateTime.now();
+        worker.drain();
+
+        assertEquals(1, row.getAttempts());
+        assertNotNull(row.getLastError());
+        assertTrue(!row.getNextAttemptAt().isBefore(before.plusSeconds(30))
+                && row.getNextAttemptAt().isBefore(before.plusSeconds(40)), row.getNextAttemptAt()::toString);
+        verify(outboxRepository).saveAll(List.of(row));
+        verify(outboxRepository, never()).deleteAll(any());
+    }
+
+    @Test
+    void rowsAreNeverDroppedAndBackoffIsCapped() {
+        StorageDeletionOutbox row = queued("../outside.pdf", 14);
+        when(outboxRepository.lockDueBatch(anyInt())).thenReturn(List.of(row));
+
+        OffsetDateTime before = OffsetDateTime.now();
+        worker.drain();
+
+        assertEquals(15, row.getAttempts());
+        assertTrue(!row.getNextAttemptAt().isBefore(before.plusSeconds(3600))
+                && row.getNextAttemptAt().isBefore(before.plusSeconds(3600 + 361)), row.getNextAttemptAt()::toString);
+        verify(outboxRepository).saveAll(List.of(row));
+        verify(outboxRepository, never()).delete(row);
+    }
+
+    private void store(String path) throws Exception {
+        byte[] content = path.getBytes();
+        backend.upload(BUCKET, path, new ByteArrayResource(content), content.length, "application/pdf");
+    }
+
+    private static StorageDeletionOutbox queued(String path, int attempts) {
+        return StorageDeletionOutbox.builder().bucket(BUCKET).objectPath(path).attempts(attempts).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.tarumt.lms.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class SupabaseStorageBackendTest {
+
+    private static final String LIST_URL = "https://supabase.test/storage/v1/object/list/Instructor-Docs";
+
+    private MockRestServiceServer server;
+    private SupabaseStorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        backend = new SupabaseStorageBackend();
+        ReflectionTestUtils.setField(backend, "supabaseUrl", "https://supabase.test");
+        ReflectionTestUtils.setField(backend, "supabaseKey", "service-key");
+        ReflectionTestUtils.setField(backend, "restTemplate", restTemplate);
+    }
+
+    @Test
+    void listWalksFoldersAndSkipsEmptyFolderPlaceholders() throws Exception {
+        expectListing("", """
+                [{"name": ".emptyFolderPlaceholder", "id": "p1", "created_at": "2025-01-01T00:00:00Z"},
+                 {"name": "certificates", "id": null}]
+                """);
+        expectListing("certificates", """
+                [{"name": ".emptyFolderPlaceholder", "id": "p2", "created_at": "2025-01-01T00:00:00Z"},
+                 {"name": "42.pdf", "id": "o1", "created_at": "2025-02-01T10:00:00Z"}]
+                """);
+
+        List<String> listed = new ArrayList<>();
+        backend.list("Instructor-Docs", object -> listed.add(object.getPath()));
+
+        assertEquals(List.of("certificates/42.pdf"), listed);
+        server.verify();
+    }
+
+    private void expectListing(String prefix, String page) {
+        server.expect(requestTo(LIST_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.prefix").value(prefix))
+                .andRespond(withSuccess(page, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,57 @@
+package com.tarumt.lms.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Real Postgres for persistence tests. Tests using it run with
+ * {@code spring.jpa.hibernate.ddl-auto=create} and {@code spring.flyway.enabled=false}:
+ * Hibernate creates the entity tables (which already cover what V1-V2 add), then the
+ * remaining migrations run on top so indexes and generated columns match production.
+ * The DataSource is wrapped by {@link JdbcActivityRecorder}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class EmbeddedPostgresTestConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource pooledDataSource(EmbeddedPostgres embeddedPostgres) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+        config.setUsername("postgres");
+        config.setMaximumPoolSize(5);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource pooledDataSource) {
+        return JdbcActivityRecorder.wrap(pooledDataSource);
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public MigrateResult migrationsAfterSchemaCreation(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("2")
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,127 @@
+package com.tarumt.lms.support;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC-level recorder for tests: wraps a DataSource so every statement executed and every row
+ * fetched on the recording thread is counted. Other threads (schedulers, pool housekeeping)
+ * are ignored, so counts stay exact while background jobs run.
+ */
+public final class JdbcActivityRecorder {
+
+    private static final ThreadLocal<Activity> CURRENT = new ThreadLocal<>();
+    private static final ClassLoader LOADER = JdbcActivityRecorder.class.getClassLoader();
+
+    private JdbcActivityRecorder() {
+    }
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    /**
+     * Run the work on this thread and return the JDBC activity it caused
+     */
+    public static Activity record(Work work) throws Exception {
+        Activity activity = new Activity();
+        CURRENT.set(activity);
+        try {
+            work.run();
+        } finally {
+            CURRENT.remove();
+        }
+        return activity;
+    }
+
+    public static DataSource wrap(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(LOADER, new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? connection(connection) : result;
+        });
+    }
+
+    private static Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(LOADER, new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return statement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private static Statement statement(Statement target, String preparedSql) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(LOADER, new Class<?>[]{type}, (proxy, method, args) -> {
+            Activity activity = CURRENT.get();
+            if (activity != null && method.getName().startsWith("execute")) {
+                // Statement.execute*(sql) carries its SQL; prepared statements were given theirs up front
+                boolean inline = args != null && args.length > 0 && args[0] instanceof String;
+                activity.statements.add(inline ? (String) args[0] : preparedSql);
+            }
+            Object result = invoke(target, method, args);
+            return result instanceof ResultSet resultSet ? resultSet(resultSet) : result;
+        });
+    }
+
+    private static ResultSet resultSet(ResultSet target) {
+        return (ResultSet) Proxy.newProxyInstance(LOADER, new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            Activity activity = CURRENT.get();
+            if (activity != null && method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                activity.rows++;
+            }
+            return result;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    public static class Activity {
+        private final List<String> statements = new ArrayList<>();
+        private long rows;
+
+        public List<String> getStatements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        public int getStatementCount() {
+            return statements.size();
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Numbered SQL listing for assertion messages
+         */
+        public String describe() {
+            StringBuilder out = new StringBuilder();
+            for (int i = 0; i < statements.size(); i++) {
+                out.append(String.format("%3d. %s%n", i + 1, statements.get(i)));
+            }
+            return out.toString();
+        }
+    }
+}
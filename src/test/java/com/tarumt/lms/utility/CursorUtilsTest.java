@@ -0,0 +1,41 @@
+package com.tarumt.lms.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorUtilsTest {
+
+    @Test
+    void roundTripsTimestampAndId() {
+        OffsetDateTime timestamp = OffsetDateTime.parse("2025-01-31T08:15:30.123456+08:00");
+
+        String cursor = CursorUtils.encode(timestamp, 42L);
+        CursorUtils.Key key = CursorUtils.decode(cursor);
+
+        assertFalse(cursor.contains("=") || cursor.contains("/") || cursor.contains("+"));
+        assertEquals(timestamp, key.getTimestamp());
+        assertEquals(42L, key.getId());
+    }
+
+    @Test
+    void roundTripsRankExactly() {
+        float score = 0.0607927f;
+
+        CursorUtils.RankKey key = CursorUtils.decodeRanked(CursorUtils.encodeRanked(score, 7L));
+
+        assertEquals(score, key.getScore());
+        assertEquals(7L, key.getId());
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decode("MjAyNS0wMS0zMVQwODowMFp8eA"));
+        assertThrows(IllegalArgumentException.class, () -> CursorUtils.decodeRanked(CursorUtils.encode(OffsetDateTime.now(), 1L)));
+    }
+}